@@ -0,0 +1,62 @@
+package atinka.bench;
+
+import atinka.dsa.Comparator;
+
+import java.util.SplittableRandom;
+
+/** Deterministic inputs shared by the benchmarks (fixed seed so runs are comparable). */
+final class BenchData {
+    private BenchData(){}
+
+    static final long SEED = 0xA71A4AL;
+
+    static final Comparator<Integer> INT_CMP = (a, b) -> Integer.compare(a, b);
+    static final java.util.Comparator<Integer> JDK_INT_CMP = Integer::compare;
+
+    /** 0..n-1 boxed, in ascending order. */
+    static Integer[] ascending(int n){
+        Integer[] out = new Integer[n];
+        for (int i = 0; i < n; i++) out[i] = i;
+        return out;
+    }
+
+    /** n-1..0 boxed, strictly descending. */
+    static Integer[] descending(int n){
+        Integer[] out = new Integer[n];
+        for (int i = 0; i < n; i++) out[i] = n - 1 - i;
+        return out;
+    }
+
+    /** 0..n-1 boxed, Fisher–Yates shuffled. */
+    static Integer[] shuffled(int n){
+        Integer[] out = ascending(n);
+        SplittableRandom r = new SplittableRandom(SEED);
+        for (int i = n - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            Integer t = out[i]; out[i] = out[j]; out[j] = t;
+        }
+        return out;
+    }
+
+    /** Catalogue-like codes: P0000001, P0000002, ... (the clustering case for String.hashCode). */
+    static String[] codes(int from, int n){
+        String[] out = new String[n];
+        for (int i = 0; i < n; i++) out[i] = code(from + i);
+        return out;
+    }
+
+    static String code(int i){
+        StringBuilder sb = new StringBuilder(8).append('P');
+        String d = Integer.toString(i);
+        for (int k = d.length(); k < 7; k++) sb.append('0');
+        return sb.append(d).toString();
+    }
+
+    /** Random indices in [0, bound) for lookup benchmarks. */
+    static int[] probes(int count, int bound){
+        int[] out = new int[count];
+        SplittableRandom r = new SplittableRandom(SEED ^ bound);
+        for (int i = 0; i < count; i++) out[i] = r.nextInt(bound);
+        return out;
+    }
+}
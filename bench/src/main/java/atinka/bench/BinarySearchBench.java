@@ -0,0 +1,66 @@
+package atinka.bench;
+
+import atinka.dsa.BinarySearch;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/** BinarySearch.indexOf on a sorted Vec vs. Collections/Arrays.binarySearch. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinarySearchBench {
+
+    static final int PROBES = 1024;
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    Integer[] sorted;
+    Integer[] keys;
+    Vec<Integer> vec;
+    ArrayList<Integer> list;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        sorted = BenchData.ascending(size);
+        vec = new Vec<>(size);
+        list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) { vec.add(sorted[i]); list.add(sorted[i]); }
+        // half hits, half misses (negative keys are never present)
+        int[] p = BenchData.probes(PROBES, size);
+        keys = new Integer[PROBES];
+        for (int i = 0; i < PROBES; i++) keys[i] = (i & 1) == 0 ? sorted[p[i]] : -p[i] - 1;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int indexOf(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) s += BinarySearch.indexOf(vec, keys[i], BenchData.INT_CMP);
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int collections_jdk(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) s += Collections.binarySearch(list, keys[i], BenchData.JDK_INT_CMP);
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int arrays_jdk(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) s += Arrays.binarySearch(sorted, keys[i], BenchData.JDK_INT_CMP);
+        return s;
+    }
+}
@@ -0,0 +1,65 @@
+package atinka.bench;
+
+import atinka.dsa.BloomFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Was this code ever logged?" for a code that never was: Bloom filter probe vs.
+ * scanning the log's code column (what latestPurchases did) vs. a HashSet of all codes.
+ * The log has `size` lines over size/10 distinct codes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BloomFilterBench {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    String[] logCodes;
+    String[] absent;
+    BloomFilter bloom;
+    HashSet<String> set;
+    int i;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        int distinct = Math.max(1, size / 10);
+        String[] codes = BenchData.codes(0, distinct);
+        int[] pick = BenchData.probes(size, distinct);
+        logCodes = new String[size];
+        bloom = new BloomFilter(distinct, 0.01, true);
+        set = new HashSet<>(distinct * 2);
+        for (int k = 0; k < size; k++) {
+            logCodes[k] = codes[pick[k]];
+            bloom.add(logCodes[k]);
+            set.add(logCodes[k].toLowerCase());
+        }
+        absent = BenchData.codes(distinct, 1024);
+    }
+
+    String nextAbsent(){ return absent[i++ & 1023]; }
+
+    @Benchmark
+    public boolean bloomProbe(){
+        return bloom.mightContain(nextAbsent());
+    }
+
+    @Benchmark
+    public boolean logScan(){
+        String c = nextAbsent();
+        for (String x : logCodes) if (x.equalsIgnoreCase(c)) return true;
+        return false;
+    }
+
+    @Benchmark
+    public boolean hashSet_jdk(){
+        return set.contains(nextAbsent().toLowerCase());
+    }
+}
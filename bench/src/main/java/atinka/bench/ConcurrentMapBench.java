@@ -0,0 +1,81 @@
+package atinka.bench;
+
+import atinka.dsa.ConcurrentHashMapOpen;
+import atinka.dsa.HashMapOpen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared catalogue index under several tills: 4 threads, read-mostly mix
+ * (1 write per `writeEvery` ops). ConcurrentHashMapOpen vs. a globally locked
+ * HashMapOpen vs. java.util.concurrent.ConcurrentHashMap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentMapBench {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    @Param({"10", "100"})
+    int writeEvery;
+
+    String[] keys;
+    ConcurrentHashMapOpen<Integer> striped;
+    HashMapOpen<Integer> locked;
+    ConcurrentHashMap<String, Integer> jdk;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        keys = BenchData.codes(0, size);
+        striped = new ConcurrentHashMapOpen<>(size * 2);
+        locked = new HashMapOpen<>(size * 2, true);
+        jdk = new ConcurrentHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) { striped.put(keys[i], i); locked.put(keys[i], i); jdk.put(keys[i], i); }
+    }
+
+    /** Per-thread cursor over a shuffled probe sequence. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int[] probes;
+        int i;
+
+        @Setup(Level.Trial)
+        public void setup(ConcurrentMapBench b){
+            probes = BenchData.probes(4096, b.size);
+            i = (int) (Thread.currentThread().getId() * 7919) & 4095;
+        }
+
+        int next(){ int p = probes[i]; i = (i + 1) & 4095; return p; }
+    }
+
+    @Benchmark
+    public Integer striped(Cursor c){
+        int p = c.next();
+        if (p % writeEvery == 0) return striped.put(keys[p], p);
+        return striped.get(keys[p]);
+    }
+
+    @Benchmark
+    public Integer globalLock(Cursor c){
+        int p = c.next();
+        synchronized (locked) {
+            if (p % writeEvery == 0) { locked.put(keys[p], p); return p; }
+            return locked.get(keys[p]);
+        }
+    }
+
+    @Benchmark
+    public Integer concurrent_jdk(Cursor c){
+        int p = c.next();
+        if (p % writeEvery == 0) return jdk.put(keys[p], p);
+        return jdk.get(keys[p]);
+    }
+}
@@ -0,0 +1,78 @@
+package atinka.bench;
+
+import atinka.dsa.Vec;
+import atinka.model.Drug;
+import atinka.service.DrugService;
+import atinka.storage.DrugCsvStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persisting one sale against a `size`-drug catalogue (in a temp dir): the old path,
+ * copy every drug and rewrite drugs.csv, vs. committing the journalled stock change
+ * (one short append; drugs.csv is rewritten only when a checkpoint falls due, and that
+ * cost is included).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrugJournalBench {
+
+    @Param({"1000", "10000"})
+    int size;
+
+    Path dir;
+    DrugCsvStore store;
+    DrugService drugs;
+    String[] codes;
+    int[] pick;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("atinka-bench");
+        store = new DrugCsvStore(dir.resolve("drugs.csv"));
+        codes = BenchData.codes(0, size);
+        pick = BenchData.probes(1 << 16, size);
+        Vec<Drug> all = new Vec<>(size);
+        for (int i = 0; i < size; i++) {
+            Drug d = new Drug(codes[i], "Drug " + i, 1 + i % 50, 1000, null, 10);
+            d.addSupplier("S" + (i % 40));
+            all.add(d);
+        }
+        store.saveAll(all);
+        drugs = new DrugService(store.load());
+        drugs.journalTo(store.journal());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        store.journal().close();
+        try (var files = Files.list(dir)) { files.forEach(p -> p.toFile().delete()); }
+        Files.deleteIfExists(dir);
+    }
+
+    /** Sells and restocks in turn, so stock never runs out. */
+    private void sale(){
+        int i = next++;
+        drugs.adjustStock(codes[pick[i & 0xFFFF]], (i & 1) == 0 ? -1 : 1);
+    }
+
+    @Benchmark
+    public void rewriteCatalogue(){
+        sale();
+        store.saveAll(drugs.all());
+    }
+
+    @Benchmark
+    public void journalCommit(){
+        sale();
+        if (store.journal().commit()) store.saveAll(drugs.all());
+    }
+}
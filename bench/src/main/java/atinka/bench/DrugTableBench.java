@@ -0,0 +1,101 @@
+package atinka.bench;
+
+import atinka.dsa.Vec;
+import atinka.model.Drug;
+import atinka.model.DrugTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-catalogue scans over `size` drugs: heap Vec<Drug> (one object per drug, plus its
+ * name String and supplier set) vs. the off-heap DrugTable columns.
+ * - lowStock: stock <= threshold (what the alert screen shows)
+ * - stockValue: sum of price * stock (two columns)
+ * - nameContains: ASCII case-insensitive substring on every name
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DrugTableBench {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    Vec<Drug> heap;
+    DrugTable table;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        String[] codes = BenchData.codes(0, size);
+        SplittableRandom r = new SplittableRandom(BenchData.SEED);
+        LocalDate base = LocalDate.of(2026, 1, 1);
+        heap = new Vec<>(size);
+        for (int i = 0; i < size; i++) {
+            Drug d = new Drug(codes[i], "Drug " + Integer.toString(r.nextInt(1 << 20), 36) + " Tablets",
+                    r.nextInt(10000) / 100.0, r.nextInt(500), base.plusDays(r.nextInt(1000)), r.nextInt(50));
+            d.addSupplier("S" + r.nextInt(100));
+            heap.add(d);
+        }
+        table = DrugTable.of(heap);
+    }
+
+    @Benchmark
+    public int lowStock_heap(){
+        int n = 0;
+        for (int i = 0; i < heap.size(); i++) if (heap.get(i).isLowStock()) n++;
+        return n;
+    }
+
+    @Benchmark
+    public int lowStock_table(){
+        return table.rowsLowStock().size();
+    }
+
+    @Benchmark
+    public double stockValue_heap(){
+        double sum = 0;
+        for (int i = 0; i < heap.size(); i++) {
+            Drug d = heap.get(i);
+            sum += d.getPrice() * d.getStock();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double stockValue_table(){
+        return table.stockValue();
+    }
+
+    @Benchmark
+    public int nameContains_heap(){
+        int n = 0;
+        for (int i = 0; i < heap.size(); i++) if (containsIgnoreCase(heap.get(i).getName(), "abc")) n++;
+        return n;
+    }
+
+    @Benchmark
+    public int nameContains_table(){
+        return table.rowsNameContains("abc").size();
+    }
+
+    private static boolean containsIgnoreCase(String s, String lowerTerm){
+        int n = s.length(), m = lowerTerm.length();
+        for (int i = 0; i + m <= n; i++) {
+            int k = 0;
+            while (k < m) {
+                char c = s.charAt(i + k);
+                if (c >= 'A' && c <= 'Z') c += 32;
+                if (c != lowerTerm.charAt(k)) break;
+                k++;
+            }
+            if (k == m) return true;
+        }
+        return false;
+    }
+}
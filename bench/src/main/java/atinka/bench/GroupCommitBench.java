@@ -0,0 +1,66 @@
+package atinka.bench;
+
+import atinka.storage.GroupCommitLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Four tills appending sale lines to one log (in a temp dir), each waiting until its line
+ * is written: the old per-line path (exists check, open, write, close) vs GroupCommitLog
+ * (file kept open, concurrent lines batched into one gathering write). With sync=true
+ * both also force the data to disk, once per line vs once per batch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class GroupCommitBench {
+
+    @Param({"false", "true"})
+    boolean sync;
+
+    Path dir, perLine, grouped;
+    GroupCommitLog log;
+    byte[] line;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("atinka-bench");
+        perLine = dir.resolve("per-line.csv");
+        grouped = dir.resolve("grouped.csv");
+        log = new GroupCommitLog(grouped, "# timestamp,code,qty,customerId,price,total\n");
+        log.setSync(sync);
+        line = "2025-07-01T10:22:45,P0000042,2,C0001,5.00,10.00\n".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        log.close();
+        try (var files = Files.list(dir)) { files.forEach(p -> p.toFile().delete()); }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void perLineOpen() throws Exception {
+        if (!Files.exists(perLine)) Files.write(perLine, "# timestamp,code,qty,customerId,price,total\n".getBytes(StandardCharsets.UTF_8));
+        try (FileChannel ch = FileChannel.open(perLine, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ch.write(ByteBuffer.wrap(line));
+            if (sync) ch.force(false);
+        }
+    }
+
+    @Benchmark
+    public void groupCommit(){
+        log.append(line.clone()).join();
+    }
+}
@@ -0,0 +1,218 @@
+package atinka.bench;
+
+import atinka.dsa.HashMapOpen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HashMapOpen get/put/remove vs. java.util.HashMap on catalogue-style String keys.
+ * The churn benchmarks retire one key and add a never-seen one per op, which is the
+ * tombstone-heavy pattern of SKUs being removed and re-added. *_robinHood variants run
+ * the same workload on HashMapOpen in Robin Hood mode (backward-shift deletion).
+ * iterate_* visit every entry once (forEach lambda vs. Cursor). getHit_counted is getHit
+ * with recordStats on (cost of the lookup counters).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashMapBench {
+
+    static final int PROBES = 1024;
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    String[] keys;      // live keys
+    String[] fresh;     // never inserted during setup
+    int[] probes;
+    HashMapOpen<Integer> map;
+    HashMapOpen<Integer> rh;
+    HashMapOpen<Integer> counted;   // recordStats(true)
+    HashMap<String, Integer> jdk;
+    final HashMapOpen.Cursor<Integer> cursor = new HashMapOpen.Cursor<>();   // reused by iterate_cursor
+
+    // churn cursor: pass parity decides which half is live
+    long step;
+
+    @Setup(Level.Iteration)
+    public void setup(){
+        keys = BenchData.codes(0, size);
+        fresh = BenchData.codes(size, size);
+        probes = BenchData.probes(PROBES, size);
+        map = new HashMapOpen<>();
+        rh = new HashMapOpen<>(16, true);
+        counted = new HashMapOpen<>();
+        jdk = new HashMap<>();
+        for (int i = 0; i < size; i++) { map.put(keys[i], i); rh.put(keys[i], i); counted.put(keys[i], i); jdk.put(keys[i], i); }
+        counted.recordStats(true);
+        step = 0;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getHit(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) s += map.get(keys[probes[i]]);
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getHit_jdk(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) s += jdk.get(keys[probes[i]]);
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getHit_robinHood(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) s += rh.get(keys[probes[i]]);
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getHit_counted(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) s += counted.get(keys[probes[i]]);
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getMiss(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) if (map.get(fresh[probes[i]]) == null) s++;
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getMiss_robinHood(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) if (rh.get(fresh[probes[i]]) == null) s++;
+        return s;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getMiss_jdk(){
+        int s = 0;
+        for (int i = 0; i < PROBES; i++) if (jdk.get(fresh[probes[i]]) == null) s++;
+        return s;
+    }
+
+    /** Build a map of `size` entries from empty (includes every resize). */
+    @Benchmark
+    public HashMapOpen<Integer> putAll(){
+        HashMapOpen<Integer> m = new HashMapOpen<>();
+        for (int i = 0; i < size; i++) m.put(keys[i], i);
+        return m;
+    }
+
+    @Benchmark
+    public HashMap<String, Integer> putAll_jdk(){
+        HashMap<String, Integer> m = new HashMap<>();
+        for (int i = 0; i < size; i++) m.put(keys[i], i);
+        return m;
+    }
+
+    /** Visit every entry: capturing forEach lambda vs. a reused Cursor vs. HashMap.values(). */
+    @Benchmark
+    public long iterate_forEach(){
+        long[] sum = new long[1];
+        map.forEach((k, v) -> sum[0] += v);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long iterate_cursor(){
+        long sum = 0;
+        HashMapOpen.Cursor<Integer> c = cursor.over(map);
+        while (c.advance()) sum += c.value();
+        return sum;
+    }
+
+    @Benchmark
+    public long iterate_jdk(){
+        long sum = 0;
+        for (Integer v : jdk.values()) sum += v;
+        return sum;
+    }
+
+    /** Retire one SKU and add a new one; live size stays constant, tombstones pile up. */
+    @Benchmark
+    public Integer churn(){
+        int i = (int) (step % size);
+        boolean even = ((step++ / size) & 1) == 0;
+        Integer v = map.remove(even ? keys[i] : fresh[i]);
+        map.put(even ? fresh[i] : keys[i], i);
+        return v;
+    }
+
+    @Benchmark
+    public Integer churn_robinHood(){
+        int i = (int) (step % size);
+        boolean even = ((step++ / size) & 1) == 0;
+        Integer v = rh.remove(even ? keys[i] : fresh[i]);
+        rh.put(even ? fresh[i] : keys[i], i);
+        return v;
+    }
+
+    @Benchmark
+    public Integer churn_jdk(){
+        int i = (int) (step % size);
+        boolean even = ((step++ / size) & 1) == 0;
+        Integer v = jdk.remove(even ? keys[i] : fresh[i]);
+        jdk.put(even ? fresh[i] : keys[i], i);
+        return v;
+    }
+
+    /** Lookups after a full churn pass: measures how far probes degrade with tombstones. */
+    @State(Scope.Benchmark)
+    public static class Churned {
+        String[] keys;
+        int[] probes;
+        HashMapOpen<Integer> map;
+        HashMapOpen<Integer> rh;
+
+        @Setup(Level.Trial)
+        public void setup(HashMapBench b){
+            int n = b.size;
+            String[] a = BenchData.codes(0, n);
+            String[] c = BenchData.codes(n, n);
+            map = new HashMapOpen<>();
+            rh = new HashMapOpen<>(16, true);
+            for (int i = 0; i < n; i++) { map.put(a[i], i); rh.put(a[i], i); }
+            for (int i = 0; i < n; i++) {
+                map.remove(a[i]); map.put(c[i], i);
+                rh.remove(a[i]); rh.put(c[i], i);
+            }
+            keys = c;
+            probes = BenchData.probes(PROBES, n);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getAfterChurn(Churned s){
+        int sum = 0;
+        for (int i = 0; i < PROBES; i++) sum += s.map.get(s.keys[s.probes[i]]);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int getAfterChurn_robinHood(Churned s){
+        int sum = 0;
+        for (int i = 0; i < PROBES; i++) sum += s.rh.get(s.keys[s.probes[i]]);
+        return sum;
+    }
+}
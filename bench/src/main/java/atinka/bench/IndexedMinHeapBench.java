@@ -0,0 +1,81 @@
+package atinka.bench;
+
+import atinka.dsa.Comparator;
+import atinka.dsa.IndexedMinHeap;
+import atinka.dsa.MinHeap;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live low-stock view: change one item's stock, then read the 10 lowest.
+ * IndexedMinHeap repositions in place; the baseline rebuilds a MinHeap each time
+ * (what InventoryService.lowStockTopN used to do).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexedMinHeapBench {
+
+    static final class Item {
+        final String code;
+        int stock;
+        Item(String code, int stock){ this.code = code; this.stock = stock; }
+    }
+
+    static final Comparator<Item> BY_STOCK = (a, b) -> {
+        if (a.stock != b.stock) return a.stock < b.stock ? -1 : 1;
+        return a.code.compareTo(b.code);
+    };
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    Item[] items;
+    IndexedMinHeap<Item> heap;
+    int[] picks, stocks;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        String[] codes = BenchData.codes(0, size);
+        Random r = new Random(BenchData.SEED);
+        items = new Item[size];
+        heap = new IndexedMinHeap<>(BY_STOCK, it -> it.code, size);
+        for (int i = 0; i < size; i++) {
+            items[i] = new Item(codes[i], r.nextInt(1000));
+            heap.insert(items[i]);
+        }
+        picks = BenchData.probes(4096, size);
+        stocks = BenchData.probes(4096, 1000);
+    }
+
+    private Item mutate(){
+        int c = cursor++ & 4095;
+        Item it = items[picks[c]];
+        it.stock = stocks[c];
+        return it;
+    }
+
+    @Benchmark
+    public Vec<Item> updateThenTop10(){
+        Item it = mutate();
+        heap.update(it.code);
+        return heap.smallest(10);
+    }
+
+    @Benchmark
+    public Vec<Item> rebuildThenTop10(){
+        mutate();
+        MinHeap<Item> h = new MinHeap<>(BY_STOCK);
+        for (int i = 0; i < size; i++) h.insert(items[i]);
+        Vec<Item> out = new Vec<>(10);
+        for (int i = 0; i < 10 && !h.isEmpty(); i++) out.add(h.extractMin());
+        return out;
+    }
+}
@@ -0,0 +1,54 @@
+package atinka.bench;
+
+import atinka.dsa.InsertionSort;
+import atinka.dsa.MergeSort;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InsertionSort vs. MergeSort where O(n^2) is still runnable. Kept separate from
+ * SortBench so its size range stops before insertion sort takes minutes per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertionSortBench {
+
+    @Param({"8", "16", "32", "64", "100", "1000", "10000"})
+    int size;
+
+    @Param({"shuffled", "sorted"})
+    String order;
+
+    Integer[] source;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        source = "sorted".equals(order) ? BenchData.ascending(size) : BenchData.shuffled(size);
+    }
+
+    private Vec<Integer> fresh(){
+        Vec<Integer> v = new Vec<>(size);
+        for (int i = 0; i < size; i++) v.add(source[i]);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Integer> insertionSort(){
+        Vec<Integer> v = fresh();
+        InsertionSort.sort(v, BenchData.INT_CMP);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Integer> mergeSort(){
+        Vec<Integer> v = fresh();
+        MergeSort.sort(v, BenchData.INT_CMP);
+        return v;
+    }
+}
@@ -0,0 +1,58 @@
+package atinka.bench;
+
+import atinka.dsa.MinHeap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/** MinHeap insert/extractMin vs. java.util.PriorityQueue. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MinHeapBench {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    Integer[] source;
+
+    @Setup(Level.Trial)
+    public void setup(){ source = BenchData.shuffled(size); }
+
+    @Benchmark
+    public MinHeap<Integer> insertAll(){
+        MinHeap<Integer> h = new MinHeap<>(BenchData.INT_CMP);
+        for (int i = 0; i < size; i++) h.insert(source[i]);
+        return h;
+    }
+
+    @Benchmark
+    public PriorityQueue<Integer> insertAll_jdk(){
+        PriorityQueue<Integer> h = new PriorityQueue<>(BenchData.JDK_INT_CMP);
+        for (int i = 0; i < size; i++) h.add(source[i]);
+        return h;
+    }
+
+    /** Full heap sort: n inserts followed by n extractMin. */
+    @Benchmark
+    public long insertExtractAll(){
+        MinHeap<Integer> h = new MinHeap<>(BenchData.INT_CMP);
+        for (int i = 0; i < size; i++) h.insert(source[i]);
+        long s = 0;
+        while (!h.isEmpty()) s += h.extractMin();
+        return s;
+    }
+
+    @Benchmark
+    public long insertExtractAll_jdk(){
+        PriorityQueue<Integer> h = new PriorityQueue<>(BenchData.JDK_INT_CMP);
+        for (int i = 0; i < size; i++) h.add(source[i]);
+        long s = 0;
+        while (!h.isEmpty()) s += h.poll();
+        return s;
+    }
+}
@@ -0,0 +1,95 @@
+package atinka.bench;
+
+import atinka.dsa.MpscQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sales intake from several tills: 3 producer threads offer, 1 consumer drains.
+ * MpscQueue (bounded ring, batch drain) vs. ConcurrentLinkedQueue (node per item)
+ * vs. ArrayBlockingQueue (single lock). Scores are per operation for each side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class MpscQueueBench {
+
+    @Param({"1024"})
+    int capacity;
+
+    static final Integer ITEM = 42;
+
+    MpscQueue<Integer> mpsc;
+    ConcurrentLinkedQueue<Integer> clq;
+    AtomicInteger clqSize;   // CLQ.size() is O(n)
+    ArrayBlockingQueue<Integer> abq;
+
+    @Setup(Level.Iteration)
+    public void setup(){
+        mpsc = new MpscQueue<>(capacity);
+        clq = new ConcurrentLinkedQueue<>();
+        clqSize = new AtomicInteger();
+        abq = new ArrayBlockingQueue<>(capacity);
+    }
+
+    // ---------------- MpscQueue ----------------
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(3)
+    public boolean mpscOffer(){
+        return mpsc.offer(ITEM);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public int mpscDrain(){
+        return mpsc.drain(x -> { }, 64);
+    }
+
+    // ---------------- JDK baselines ----------------
+
+    @Benchmark
+    @Group("clq_jdk")
+    @GroupThreads(3)
+    public boolean clqOffer(){
+        // unbounded: cap it at the same capacity so the consumer is not buried
+        if (clqSize.get() >= capacity) return false;
+        clqSize.incrementAndGet();
+        return clq.offer(ITEM);
+    }
+
+    @Benchmark
+    @Group("clq_jdk")
+    @GroupThreads(1)
+    public int clqPoll(){
+        int n = 0;
+        while (n < 64 && clq.poll() != null) n++;
+        clqSize.addAndGet(-n);
+        return n;
+    }
+
+    @Benchmark
+    @Group("abq_jdk")
+    @GroupThreads(3)
+    public boolean abqOffer(){
+        return abq.offer(ITEM);
+    }
+
+    @Benchmark
+    @Group("abq_jdk")
+    @GroupThreads(1)
+    public int abqDrain(){
+        int n = 0;
+        while (n < 64 && abq.poll() != null) n++;
+        return n;
+    }
+}
@@ -0,0 +1,75 @@
+package atinka.bench;
+
+import atinka.dsa.HashMapOpen;
+import atinka.dsa.IntIntMap;
+import atinka.dsa.LongObjectMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report-style bucketing: n rows into day buckets. LongObjectMap keyed by epoch
+ * day vs. the old "yyyy-mm-dd" String key in HashMapOpen, plus IntIntMap counters
+ * vs. a boxed HashMap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveMapBench {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    /** distinct days in the data (about a year) */
+    static final int DAYS = 365;
+    static final long FIRST_DAY = 20000;
+
+    int[] dayOffsets;
+
+    static final class Bucket { double revenue; }
+
+    @Setup(Level.Trial)
+    public void setup(){ dayOffsets = BenchData.probes(size, DAYS); }
+
+    @Benchmark
+    public LongObjectMap<Bucket> bucketByEpochDay(){
+        LongObjectMap<Bucket> m = new LongObjectMap<>(64);
+        for (int i = 0; i < size; i++) {
+            long day = FIRST_DAY + dayOffsets[i];
+            Bucket b = m.get(day);
+            if (b == null) { b = new Bucket(); m.put(day, b); }
+            b.revenue += 1.0;
+        }
+        return m;
+    }
+
+    @Benchmark
+    public HashMapOpen<Bucket> bucketByDayString(){
+        HashMapOpen<Bucket> m = new HashMapOpen<>(64);
+        for (int i = 0; i < size; i++) {
+            String day = java.time.LocalDate.ofEpochDay(FIRST_DAY + dayOffsets[i]).toString();
+            Bucket b = m.get(day);
+            if (b == null) { b = new Bucket(); m.put(day, b); }
+            b.revenue += 1.0;
+        }
+        return m;
+    }
+
+    @Benchmark
+    public IntIntMap countByDay(){
+        IntIntMap m = new IntIntMap(64);
+        for (int i = 0; i < size; i++) m.addTo(dayOffsets[i], 1);
+        return m;
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> countByDay_jdk(){
+        HashMap<Integer, Integer> m = new HashMap<>(64);
+        for (int i = 0; i < size; i++) m.merge(dayOffsets[i], 1, Integer::sum);
+        return m;
+    }
+}
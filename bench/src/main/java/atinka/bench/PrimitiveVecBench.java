@@ -0,0 +1,92 @@
+package atinka.bench;
+
+import atinka.dsa.IntVec;
+import atinka.dsa.LongVec;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** IntVec / LongVec vs. boxed Vec<Integer> and raw int[] for aggregation, append and sort. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveVecBench {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    int[] raw;
+    IntVec ints;
+    Vec<Integer> boxed;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        raw = new int[size];
+        SplittableRandom r = new SplittableRandom(BenchData.SEED);
+        for (int i = 0; i < size; i++) raw[i] = r.nextInt(1000);
+        ints = new IntVec(size);
+        boxed = new Vec<>(size);
+        for (int i = 0; i < size; i++) { ints.add(raw[i]); boxed.add(raw[i]); }
+    }
+
+    @Benchmark
+    public long sum_intVec(){ return ints.sum(); }
+
+    @Benchmark
+    public long sum_intVecGet(){
+        long s = 0;
+        for (int i = 0; i < size; i++) s += ints.get(i);
+        return s;
+    }
+
+    @Benchmark
+    public long sum_boxedVec(){
+        long s = 0;
+        for (int i = 0; i < size; i++) s += boxed.get(i);
+        return s;
+    }
+
+    @Benchmark
+    public long sum_array_jdk(){
+        long s = 0;
+        for (int i = 0; i < size; i++) s += raw[i];
+        return s;
+    }
+
+    @Benchmark
+    public IntVec add_intVec(){
+        IntVec v = new IntVec();
+        for (int i = 0; i < size; i++) v.add(raw[i]);
+        return v;
+    }
+
+    @Benchmark
+    public LongVec addAll_longVec(){
+        LongVec v = new LongVec();
+        for (int i = 0; i < size; i++) v.add(raw[i]);
+        LongVec w = new LongVec();
+        w.addAll(v);
+        return w;
+    }
+
+    @Benchmark
+    public IntVec sort_intVec(){
+        IntVec v = new IntVec(size);
+        v.addAll(raw);
+        v.sort();
+        return v;
+    }
+
+    @Benchmark
+    public int[] sort_array_jdk(){
+        int[] a = Arrays.copyOf(raw, size);
+        Arrays.sort(a);
+        return a;
+    }
+}
@@ -0,0 +1,73 @@
+package atinka.bench;
+
+import atinka.dsa.MergeSort;
+import atinka.dsa.RadixSort;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sales by time: rows with an epoch-second timestamp spread over one year, sorted by
+ * RadixSort (long key, reused scratch) vs. MergeSort with a comparator vs. ArrayList.sort.
+ * Each op copies the source into a fresh container first; the JDK baseline pays the same copy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RadixSortBench {
+
+    static final class Row {
+        final long epochSecond;
+        Row(long t){ epochSecond = t; }
+        long time(){ return epochSecond; }
+    }
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    Row[] source;
+    final RadixSort radix = new RadixSort();
+
+    @Setup(Level.Trial)
+    public void setup(){
+        SplittableRandom r = new SplittableRandom(BenchData.SEED);
+        long start = 1_735_689_600L;   // 2025-01-01
+        source = new Row[size];
+        for (int i = 0; i < size; i++) source[i] = new Row(start + r.nextInt(365 * 86400));
+    }
+
+    private Vec<Row> fresh(){
+        Vec<Row> v = new Vec<>(size);
+        for (int i = 0; i < size; i++) v.add(source[i]);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Row> radixSort(){
+        Vec<Row> v = fresh();
+        radix.sortByLong(v, Row::time);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Row> mergeSort(){
+        Vec<Row> v = fresh();
+        MergeSort.sort(v, (a, b) -> Long.compare(a.epochSecond, b.epochSecond));
+        return v;
+    }
+
+    @Benchmark
+    public ArrayList<Row> listSort_jdk(){
+        ArrayList<Row> l = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) l.add(source[i]);
+        l.sort(Comparator.comparingLong(Row::time));
+        return l;
+    }
+}
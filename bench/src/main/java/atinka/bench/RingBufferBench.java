@@ -0,0 +1,95 @@
+package atinka.bench;
+
+import atinka.dsa.MpscQueue;
+import atinka.dsa.RingBuffer;
+import atinka.model.SaleEvent;
+import atinka.model.SaleTxn;
+import atinka.storage.SaleLineEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sale ingestion, 3 tills → 1 log writer, up to the encoded bytes (no disk):
+ * RingBuffer with preallocated SaleEvent slots + SaleLineEncoder vs. MpscQueue
+ * carrying a new SaleTxn per sale, encoded the SaleLogCsv.append way
+ * (StringBuilder line + String.getBytes). Scores are per operation for each side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class RingBufferBench {
+
+    @Param({"1024"})
+    int capacity;
+
+    static final LocalDateTime TS = LocalDateTime.of(2025, 7, 1, 10, 22, 45);
+    static final long TS_SECONDS = SaleEvent.toEpochSecond(TS);
+    static final RingBuffer.SlotWriter<SaleEvent, String> FILL =
+            (slot, code) -> slot.set(TS_SECONDS, code, 2, "C0001", 5.0, 10.0);
+
+    RingBuffer<SaleEvent> ring;
+    SaleLineEncoder enc;
+    RingBuffer.BatchHandler<SaleEvent> encodeBatch;
+
+    MpscQueue<SaleTxn> mpsc;
+    StringBuilder sb;
+    MpscQueue.ItemConsumer<SaleTxn> encodeEach;
+    byte[] sink;
+
+    @Setup(Level.Iteration)
+    public void setup(){
+        ring = new RingBuffer<>(capacity, SaleEvent::new);
+        enc = new SaleLineEncoder(64 * 1024);
+        encodeBatch = (e, seq, end) -> {
+            enc.encode(e);
+            if (end) enc.reset();
+        };
+        mpsc = new MpscQueue<>(capacity);
+        sb = new StringBuilder();
+        encodeEach = t -> {
+            sb.setLength(0);
+            sb.append(t.getTimestamp().toString()).append(',').append(t.getCode()).append(',')
+              .append(t.getQty()).append(',').append(t.getCustomerId()).append(',')
+              .append(t.getPrice()).append(',').append(t.getTotal()).append('\n');
+            sink = sb.toString().getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    // ---------------- RingBuffer: slots overwritten in place ----------------
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(3)
+    public boolean ringPublish(){
+        return ring.tryPublish(FILL, "AMOX500");
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public int ringConsume(){
+        return ring.poll(encodeBatch);
+    }
+
+    // ---------------- MpscQueue: one SaleTxn + line + byte[] per sale ----------------
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(3)
+    public boolean mpscOffer(){
+        return mpsc.offer(new SaleTxn(TS, "AMOX500", 2, "C0001", 5.0, 10.0));
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public int mpscConsume(){
+        return mpsc.drain(encodeEach, 64);
+    }
+}
@@ -0,0 +1,80 @@
+package atinka.bench;
+
+import atinka.dsa.Vec;
+import atinka.model.SaleTxn;
+import atinka.storage.SaleLogCsv;
+import atinka.storage.SaleSegments;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Units sold over a `size`-line sales log (in a temp dir): streaming the CSV, which parses
+ * every timestamp and number, vs. scanning the columnar SaleSegments copy. scanLastDay
+ * asks for one day at the end of the log, so segments whose footer range misses it are
+ * skipped unread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SaleSegmentsBench {
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    Path dir;
+    SaleLogCsv log;
+    SaleSegments segments;
+    long lastDayFrom, lastDayTo;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("atinka-bench");
+        log = new SaleLogCsv(dir.resolve("sales.csv"));
+        String[] codes = BenchData.codes(0, 1000);
+        int[] pick = BenchData.probes(size, 1000);
+        LocalDateTime t = LocalDateTime.of(2025, 1, 1, 8, 0);
+        Vec<SaleTxn> batch = new Vec<>(size);
+        for (int i = 0; i < size; i++) {
+            t = t.plusSeconds(7 + pick[i] % 60);
+            batch.add(new SaleTxn(t, codes[pick[i]], 1 + pick[i] % 5, "C" + (pick[i] % 200), 2.5, 2.5 * (1 + pick[i] % 5)));
+        }
+        log.appendAll(batch);
+        segments = log.segments();
+        lastDayTo = SaleSegments.toMicros(t);
+        lastDayFrom = SaleSegments.toMicros(t.minusDays(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (var files = Files.list(dir)) { files.forEach(p -> p.toFile().delete()); }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public long csvStream(){
+        long[] units = new long[1];
+        log.forEach(s -> units[0] += s.getQty());
+        return units[0];
+    }
+
+    @Benchmark
+    public long segmentScan(){
+        long[] units = new long[1];
+        segments.scan(Long.MIN_VALUE, Long.MAX_VALUE, (ts, code, qty, cust, price, total) -> units[0] += qty);
+        return units[0];
+    }
+
+    @Benchmark
+    public long scanLastDay(){
+        long[] units = new long[1];
+        segments.scan(lastDayFrom, lastDayTo, (ts, code, qty, cust, price, total) -> units[0] += qty);
+        return units[0];
+    }
+}
@@ -0,0 +1,85 @@
+package atinka.bench;
+
+import atinka.dsa.SkipList;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/** SkipList put/get/range vs. java.util.TreeMap, and a range query vs. a full linear scan. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SkipListBench {
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    Integer[] keys;
+    int[] probes;
+    SkipList<Integer, Integer> skip;
+    TreeMap<Integer, Integer> tree;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        keys = BenchData.shuffled(size);
+        probes = BenchData.probes(4096, size);
+        skip = new SkipList<>(BenchData.INT_CMP);
+        tree = new TreeMap<>();
+        for (int i = 0; i < size; i++) { skip.put(keys[i], keys[i]); tree.put(keys[i], keys[i]); }
+    }
+
+    @Benchmark
+    public SkipList<Integer, Integer> putAll(){
+        SkipList<Integer, Integer> s = new SkipList<>(BenchData.INT_CMP);
+        for (int i = 0; i < size; i++) s.put(keys[i], keys[i]);
+        return s;
+    }
+
+    @Benchmark
+    public TreeMap<Integer, Integer> putAll_jdk(){
+        TreeMap<Integer, Integer> t = new TreeMap<>();
+        for (int i = 0; i < size; i++) t.put(keys[i], keys[i]);
+        return t;
+    }
+
+    @Benchmark
+    public Integer floor(){
+        return skip.floor(probes[cursor++ & 4095]);
+    }
+
+    @Benchmark
+    public Integer floor_jdk(){
+        return tree.floorKey(probes[cursor++ & 4095]);
+    }
+
+    /** 50 consecutive keys starting at a random probe. */
+    @Benchmark
+    public Vec<Integer> range50(){
+        int lo = probes[cursor++ & 4095];
+        return skip.valuesBetween(lo, lo + 49);
+    }
+
+    @Benchmark
+    public int range50_jdk(){
+        int lo = probes[cursor++ & 4095];
+        return tree.subMap(lo, true, lo + 49, true).size();
+    }
+
+    /** The same 50-key range answered by scanning everything, as before the index. */
+    @Benchmark
+    public Vec<Integer> range50_linearScan(){
+        int lo = probes[cursor++ & 4095], hi = lo + 49;
+        Vec<Integer> out = new Vec<>();
+        for (int i = 0; i < size; i++) {
+            int k = keys[i];
+            if (k >= lo && k <= hi) out.add(keys[i]);
+        }
+        return out;
+    }
+}
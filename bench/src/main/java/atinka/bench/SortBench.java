@@ -0,0 +1,96 @@
+package atinka.bench;
+
+import atinka.dsa.MergeSort;
+import atinka.dsa.Sorting;
+import atinka.dsa.TimSort;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MergeSort, TimSort, Sorting and Sorting.parallelSort vs. the JDK's object sorts on shuffled,
+ * presorted and reverse-sorted input.
+ * Each op copies the source into a fresh container first; the JDK baselines pay the same copy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SortBench {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    @Param({"shuffled", "sorted", "reversed"})
+    String order;
+
+    Integer[] source;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        source = "sorted".equals(order) ? BenchData.ascending(size)
+               : "reversed".equals(order) ? BenchData.descending(size)
+               : BenchData.shuffled(size);
+    }
+
+    private Vec<Integer> fresh(){
+        Vec<Integer> v = new Vec<>(size);
+        for (int i = 0; i < size; i++) v.add(source[i]);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Integer> mergeSort(){
+        Vec<Integer> v = fresh();
+        MergeSort.sort(v, BenchData.INT_CMP);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Integer> timSort(){
+        Vec<Integer> v = fresh();
+        TimSort.sort(v, BenchData.INT_CMP);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Integer> sorting(){
+        Vec<Integer> v = fresh();
+        Sorting.sort(v, BenchData.INT_CMP);
+        return v;
+    }
+
+    @Benchmark
+    public Vec<Integer> parallelSort(){
+        Vec<Integer> v = fresh();
+        Sorting.parallelSort(v, BenchData.INT_CMP);
+        return v;
+    }
+
+    @Benchmark
+    public Integer[] parallelSort_jdk(){
+        Integer[] a = Arrays.copyOf(source, size);
+        Arrays.parallelSort(a, BenchData.JDK_INT_CMP);
+        return a;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> listSort_jdk(){
+        ArrayList<Integer> v = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) v.add(source[i]);
+        v.sort(BenchData.JDK_INT_CMP);
+        return v;
+    }
+
+    @Benchmark
+    public Integer[] arraysSort_jdk(){
+        Integer[] a = Arrays.copyOf(source, size);
+        Arrays.sort(a, BenchData.JDK_INT_CMP);
+        return a;
+    }
+}
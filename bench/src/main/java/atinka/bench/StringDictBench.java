@@ -0,0 +1,82 @@
+package atinka.bench;
+
+import atinka.dsa.StringDict;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pulling the code and customer fields out of `size` sale lines (1,000 distinct codes,
+ * 200 customers): a substring per field (what the log readers did) vs. StringDict.intern
+ * on the line slice (one String per distinct value), and ids for per-code totals
+ * in an array vs. a HashMap keyed by the code strings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringDictBench {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    String[] lines;
+    int[] codeAt, codeEnd, custAt, custEnd;
+    StringDict warm;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        String[] codes = BenchData.codes(0, 1000);
+        int[] pick = BenchData.probes(size, 1000);
+        lines = new String[size];
+        codeAt = new int[size]; codeEnd = new int[size]; custAt = new int[size]; custEnd = new int[size];
+        for (int i = 0; i < size; i++) {
+            String c = codes[pick[i]], cust = "C" + (pick[i] % 200);
+            lines[i] = "2025-07-01T10:22:45," + c + ",2," + cust + ",5.00,10.00";
+            codeAt[i] = 20; codeEnd[i] = 20 + c.length();
+            custAt[i] = codeEnd[i] + 3; custEnd[i] = custAt[i] + cust.length();
+        }
+        warm = new StringDict(2048);
+        for (int i = 0; i < size; i++) warm.id(lines[i], codeAt[i], codeEnd[i]);
+    }
+
+    @Benchmark
+    public int substring(){
+        int h = 0;
+        for (int i = 0; i < size; i++) {
+            h += lines[i].substring(codeAt[i], codeEnd[i]).length();
+            h += lines[i].substring(custAt[i], custEnd[i]).length();
+        }
+        return h;
+    }
+
+    @Benchmark
+    public int intern(){
+        StringDict d = new StringDict(2048);
+        int h = 0;
+        for (int i = 0; i < size; i++) {
+            h += d.intern(lines[i], codeAt[i], codeEnd[i]).length();
+            h += d.intern(lines[i], custAt[i], custEnd[i]).length();
+        }
+        return h;
+    }
+
+    @Benchmark
+    public double totalsById(){
+        double[] qty = new double[warm.size()];
+        for (int i = 0; i < size; i++) qty[warm.id(lines[i], codeAt[i], codeEnd[i])] += 2;
+        return qty[0];
+    }
+
+    @Benchmark
+    public double totalsByKey_jdk(){
+        HashMap<String, double[]> qty = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            qty.computeIfAbsent(lines[i].substring(codeAt[i], codeEnd[i]), k -> new double[1])[0] += 2;
+        }
+        return qty.size();
+    }
+}
@@ -0,0 +1,59 @@
+package atinka.bench;
+
+import atinka.dsa.MergeSort;
+import atinka.dsa.TopK;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/** k smallest of n: bounded TopK vs. sort-everything-then-take vs. a bounded PriorityQueue. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKBench {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    @Param({"10"})
+    int k;
+
+    Vec<Integer> source;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        Integer[] a = BenchData.shuffled(size);
+        source = new Vec<>(size);
+        for (Integer x : a) source.add(x);
+    }
+
+    @Benchmark
+    public Vec<Integer> topK(){
+        return TopK.select(source, k, BenchData.INT_CMP);
+    }
+
+    @Benchmark
+    public Vec<Integer> sortThenTake(){
+        Vec<Integer> c = new Vec<>(size);
+        for (int i = 0; i < size; i++) c.add(source.get(i));
+        MergeSort.sort(c, BenchData.INT_CMP);
+        Vec<Integer> out = new Vec<>(k);
+        for (int i = 0; i < k && i < c.size(); i++) out.add(c.get(i));
+        return out;
+    }
+
+    @Benchmark
+    public PriorityQueue<Integer> boundedHeap_jdk(){
+        PriorityQueue<Integer> h = new PriorityQueue<>(k + 1, BenchData.JDK_INT_CMP.reversed());
+        for (int i = 0; i < size; i++) {
+            h.add(source.get(i));
+            if (h.size() > k) h.poll();
+        }
+        return h;
+    }
+}
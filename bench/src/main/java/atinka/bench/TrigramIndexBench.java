@@ -0,0 +1,69 @@
+package atinka.bench;
+
+import atinka.dsa.Strings;
+import atinka.dsa.TrigramIndex;
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/** Partial-name search: trigram posting-list intersection vs. a full case-insensitive scan. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrigramIndexBench {
+
+    private static final String[] SYLLABLES = {
+            "pa", "ra", "ce", "ta", "mol", "ami", "oxi", "cil", "lin", "ibu", "pro", "fen",
+            "met", "for", "min", "cet", "iri", "zine", "lor", "ata", "dine", "vit", "sul", "fa"
+    };
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    String[] names;
+    TrigramIndex<String> index;
+    String[] terms;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        SplittableRandom r = new SplittableRandom(BenchData.SEED);
+        names = new String[size];
+        index = new TrigramIndex<>();
+        String[] codes = BenchData.codes(0, size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder b = new StringBuilder();
+            int parts = 3 + r.nextInt(3);
+            for (int p = 0; p < parts; p++) b.append(SYLLABLES[r.nextInt(SYLLABLES.length)]);
+            if (r.nextInt(4) == 0) b.append(' ').append(r.nextInt(1000)).append("mg");
+            names[i] = Character.toUpperCase(b.charAt(0)) + b.substring(1);
+            index.put(codes[i], names[i], names[i]);
+        }
+        // 4-6 char fragments of existing names, as typed at the till
+        terms = new String[256];
+        for (int i = 0; i < terms.length; i++) {
+            String n = names[r.nextInt(size)];
+            int len = Math.min(n.length(), 4 + r.nextInt(3));
+            int at = r.nextInt(n.length() - len + 1);
+            terms[i] = n.substring(at, at + len);
+        }
+    }
+
+    @Benchmark
+    public Vec<String> search(){
+        return index.search(terms[cursor++ & 255]);
+    }
+
+    @Benchmark
+    public Vec<String> linearScan(){
+        String term = terms[cursor++ & 255];
+        Vec<String> out = new Vec<>();
+        for (int i = 0; i < size; i++) if (Strings.indexOfIgnoreCase(names[i], term) >= 0) out.add(names[i]);
+        return out;
+    }
+}
@@ -0,0 +1,115 @@
+package atinka.bench;
+
+import atinka.dsa.Vec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/** Vec add/get/insert/removeAt/addAll/removeRange vs. java.util.ArrayList. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VecBench {
+
+    @Param({"100", "10000", "1000000", "10000000"})
+    int size;
+
+    Integer[] values;
+    Vec<Integer> vec;
+    ArrayList<Integer> list;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        values = BenchData.ascending(size);
+        vec = new Vec<>();
+        list = new ArrayList<>();
+        for (int i = 0; i < size; i++) { vec.add(values[i]); list.add(values[i]); }
+    }
+
+    @Benchmark
+    public Vec<Integer> add(){
+        Vec<Integer> v = new Vec<>();
+        for (int i = 0; i < size; i++) v.add(values[i]);
+        return v;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> add_jdk(){
+        ArrayList<Integer> v = new ArrayList<>();
+        for (int i = 0; i < size; i++) v.add(values[i]);
+        return v;
+    }
+
+    @Benchmark
+    public void get(Blackhole bh){
+        for (int i = 0; i < size; i++) bh.consume(vec.get(i));
+    }
+
+    @Benchmark
+    public void get_jdk(Blackhole bh){
+        for (int i = 0; i < size; i++) bh.consume(list.get(i));
+    }
+
+    /** insert + removeAt at the middle keeps the size constant across invocations. */
+    @Benchmark
+    public Integer insertRemoveMiddle(){
+        int mid = size >>> 1;
+        vec.insert(mid, values[0]);
+        return vec.removeAt(mid);
+    }
+
+    @Benchmark
+    public Integer insertRemoveMiddle_jdk(){
+        int mid = size >>> 1;
+        list.add(mid, values[0]);
+        return list.remove(mid);
+    }
+
+    @Benchmark
+    public Integer insertRemoveFront(){
+        vec.insert(0, values[0]);
+        return vec.removeAt(0);
+    }
+
+    @Benchmark
+    public Integer insertRemoveFront_jdk(){
+        list.add(0, values[0]);
+        return list.remove(0);
+    }
+
+    /** Copy of the whole list, as every service all() does. */
+    @Benchmark
+    public Vec<Integer> addAllCopy(){
+        Vec<Integer> c = new Vec<>(vec.size());
+        c.addAll(vec);
+        return c;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> addAllCopy_jdk(){
+        ArrayList<Integer> c = new ArrayList<>(list.size());
+        c.addAll(list);
+        return c;
+    }
+
+    /** Drop the front quarter of a fresh copy in one shift. */
+    @Benchmark
+    public Vec<Integer> removeRangeFront(){
+        Vec<Integer> c = new Vec<>(vec.size());
+        c.addAll(vec);
+        c.removeRange(0, size >>> 2);
+        return c;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> removeRangeFront_jdk(){
+        ArrayList<Integer> c = new ArrayList<>(list);
+        c.subList(0, size >>> 2).clear();
+        return c;
+    }
+}
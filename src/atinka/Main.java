@@ -3,6 +3,7 @@ package atinka;
 import atinka.dsa.Vec;
 import atinka.model.Customer;
 import atinka.model.Drug;
+import atinka.model.DrugTable;
 import atinka.model.Supplier;
 import atinka.service.CustomerService;
 import atinka.service.DrugService;
@@ -33,19 +34,42 @@ public final class Main {
 
         // Load data
         Vec<Drug> drugsData = drugStore.load();
+        int drugCount = drugsData.size();
         Vec<Supplier> suppliersData = supplierStore.load();
         Vec<Customer> customersData = customerStore.load();
 
         // Services
-        DrugService drugs = new DrugService(drugsData);
+        // -Datinka.offheap=true keeps the catalogue in off-heap columns (DrugTable)
+        DrugService drugs;
+        if (Boolean.getBoolean("atinka.offheap")) {
+            DrugTable table = DrugTable.of(drugsData);
+            drugsData = null; // the table holds its own copy; let the heap one go
+            drugs = DrugService.onTable(table);
+        } else {
+            drugs = new DrugService(drugsData);
+        }
+        // Changes go to the drugs.csv journal, sales and purchases through group commit;
+        // -Datinka.wal.fsync=true forces each commit / batch to disk
+        boolean fsync = Boolean.getBoolean("atinka.wal.fsync");
+        drugStore.journal().setSync(fsync);
+        saleLog.appender().setSync(fsync);
+        purchaseLog.appender().setSync(fsync);
+        drugs.journalTo(drugStore.journal());
         SupplierService suppliers = new SupplierService(suppliersData);
         CustomerService customers = new CustomerService(customersData);
         InventoryService inventory = new InventoryService(drugs, purchaseLog, saleLog);
 
+        // -Datinka.indexstats=true counts every index lookup for the performance report
+        if (Boolean.getBoolean("atinka.indexstats")) {
+            if (drugs.indexByCode() != null) drugs.indexByCode().recordStats(true);
+            suppliers.indexById().recordStats(true);
+            customers.indexById().recordStats(true);
+        }
+
         // Small operational summary
         ConsoleIO.hr();
         ConsoleIO.println((Ansi.isEnabled()? Ansi.bold() : "") + "Loaded:" + Ansi.reset());
-        ConsoleIO.println(" • Drugs:     " + drugsData.size());
+        ConsoleIO.println(" • Drugs:     " + drugCount);
         ConsoleIO.println(" • Suppliers: " + suppliersData.size());
         ConsoleIO.println(" • Customers: " + customersData.size());
         ConsoleIO.hr();
@@ -56,6 +80,12 @@ public final class Main {
                 drugs, suppliers, customers, inventory,
                 drugStore, supplierStore, customerStore, purchaseLog, saleLog
         ).run();
+
+        // Checkpoint on exit: fold the journal into drugs.csv
+        if (drugStore.journal().records() > 0) drugStore.saveAll(drugs.all());
+        drugStore.journal().close();
+        saleLog.close();
+        purchaseLog.close();
     }
 
     /** Centered, high-contrast splash with algorithm badges. */
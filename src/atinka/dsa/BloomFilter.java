@@ -0,0 +1,177 @@
+package atinka.dsa;
+
+/**
+ * BloomFilter — compact set of Strings that answers "definitely absent" or "maybe present".
+ * - Sized from the expected number of distinct keys n and a target false-positive rate p:
+ *   m = -n ln p / (ln 2)^2 bits, k = (m / n) ln 2 hash functions
+ * - k probe positions from one 64-bit hash (double hashing: h1 + i * h2)
+ * - No false negatives: mightContain(key) is true for every key ever added
+ * - Optional case folding (same notion of equality as String.equalsIgnoreCase)
+ * - toBytes / fromBytes so a filter can be stored next to the data it summarizes
+ * Keys cannot be removed. Not thread-safe.
+ */
+public final class BloomFilter {
+    private static final int FORMAT = 1;
+
+    private final int expected;
+    private final double fpp;
+    private final boolean ignoreCase;
+    private final int k;
+    private final long[] words;
+    private final long m;        // bits = words.length * 64
+    private int added;           // adds that set at least one new bit (≈ distinct keys)
+
+    public BloomFilter(int expected, double fpp){ this(expected, fpp, false); }
+
+    public BloomFilter(int expected, double fpp, boolean ignoreCase){
+        if (expected < 1) expected = 1;
+        if (!(fpp > 0 && fpp < 1)) throw new IllegalArgumentException("fpp must be in (0, 1)");
+        this.expected = expected;
+        this.fpp = fpp;
+        this.ignoreCase = ignoreCase;
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expected * Math.log(fpp) / (ln2 * ln2));
+        long w = Math.max(1, (bits + 63) >>> 6);
+        if (w > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("filter too large");
+        this.words = new long[(int) w];
+        this.m = w << 6;
+        this.k = Math.max(1, Math.min(30, (int) Math.round((double) m / expected * ln2)));
+    }
+
+    private BloomFilter(int expected, double fpp, boolean ignoreCase, int k, long[] words, int added){
+        this.expected = expected;
+        this.fpp = fpp;
+        this.ignoreCase = ignoreCase;
+        this.k = k;
+        this.words = words;
+        this.m = (long) words.length << 6;
+        this.added = added;
+    }
+
+    public int expected(){ return expected; }
+    public double fpp(){ return fpp; }
+    public boolean ignoreCase(){ return ignoreCase; }
+    public int hashCount(){ return k; }
+    public long bitSize(){ return m; }
+
+    /** Number of adds that changed the filter: close to the distinct keys seen (a lower bound). */
+    public int added(){ return added; }
+
+    /** True once more distinct keys went in than the filter was sized for. */
+    public boolean isSaturated(){ return added > expected; }
+
+    /** False-positive rate implied by the bits set so far: (set / m)^k. */
+    public double currentFpp(){
+        long set = 0;
+        for (long w : words) set += Long.bitCount(w);
+        return Math.pow((double) set / m, k);
+    }
+
+    /** Adds key; true if the filter changed (so key was certainly new). Null is ignored. */
+    public boolean add(String key){
+        if (key == null) return false;
+        long h = hash(key);
+        long h1 = h, h2 = (h >>> 32) | 1;   // odd step: probes never collapse to one position
+        boolean changed = false;
+        for (int i = 0; i < k; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % m;
+            int w = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words[w] & mask) == 0) { words[w] |= mask; changed = true; }
+        }
+        if (changed) added++;
+        return changed;
+    }
+
+    /** False: key was never added. True: it probably was (wrong with probability ~fpp). */
+    public boolean mightContain(String key){
+        if (key == null) return false;
+        long h = hash(key);
+        long h1 = h, h2 = (h >>> 32) | 1;
+        for (int i = 0; i < k; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % m;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    public void clear(){
+        for (int i = 0; i < words.length; i++) words[i] = 0;
+        added = 0;
+    }
+
+    // ---------------- hashing ----------------
+
+    /** FNV-1a over the (folded) code points, then a 64-bit finalizer to spread the bits. */
+    private long hash(String s){
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); ) {
+            int cp = s.codePointAt(i);
+            i += Character.charCount(cp);
+            if (ignoreCase) cp = Character.toLowerCase(Character.toUpperCase(cp));
+            h ^= cp;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ---------------- serialization ----------------
+
+    private static final int HEADER = 4 + 4 + 8 + 1 + 4 + 4 + 4;
+
+    /** Big-endian: format, expected, fpp, ignoreCase, k, added, word count, words. */
+    public byte[] toBytes(){
+        byte[] b = new byte[HEADER + words.length * 8];
+        int o = putInt(b, 0, FORMAT);
+        o = putInt(b, o, expected);
+        o = putLong(b, o, Double.doubleToLongBits(fpp));
+        b[o++] = (byte) (ignoreCase ? 1 : 0);
+        o = putInt(b, o, k);
+        o = putInt(b, o, added);
+        o = putInt(b, o, words.length);
+        for (long w : words) o = putLong(b, o, w);
+        return b;
+    }
+
+    /** Inverse of toBytes; IllegalArgumentException if b[off .. off+len) is not a filter. */
+    public static BloomFilter fromBytes(byte[] b, int off, int len){
+        if (b == null || off < 0 || len < HEADER || off + len > b.length) throw new IllegalArgumentException("truncated filter");
+        if (getInt(b, off) != FORMAT) throw new IllegalArgumentException("unknown filter format");
+        int expected = getInt(b, off + 4);
+        double fpp = Double.longBitsToDouble(getLong(b, off + 8));
+        boolean ignoreCase = b[off + 16] != 0;
+        int k = getInt(b, off + 17);
+        int added = getInt(b, off + 21);
+        int n = getInt(b, off + 25);
+        if (expected < 1 || !(fpp > 0 && fpp < 1) || k < 1 || k > 30 || n < 1 || (long) n * 8 != len - HEADER) {
+            throw new IllegalArgumentException("corrupt filter");
+        }
+        long[] words = new long[n];
+        int o = off + HEADER;
+        for (int i = 0; i < n; i++, o += 8) words[i] = getLong(b, o);
+        return new BloomFilter(expected, fpp, ignoreCase, k, words, added);
+    }
+
+    private static int putInt(byte[] b, int o, int v){
+        b[o] = (byte) (v >>> 24); b[o + 1] = (byte) (v >>> 16); b[o + 2] = (byte) (v >>> 8); b[o + 3] = (byte) v;
+        return o + 4;
+    }
+
+    private static int putLong(byte[] b, int o, long v){
+        putInt(b, o, (int) (v >>> 32));
+        return putInt(b, o + 4, (int) v);
+    }
+
+    private static int getInt(byte[] b, int o){
+        return ((b[o] & 0xFF) << 24) | ((b[o + 1] & 0xFF) << 16) | ((b[o + 2] & 0xFF) << 8) | (b[o + 3] & 0xFF);
+    }
+
+    private static long getLong(byte[] b, int o){
+        return ((long) getInt(b, o) << 32) | (getInt(b, o + 4) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,271 @@
+package atinka.dsa;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe String→T map with open addressing (linear probing), for indexes
+ * shared by several tills.
+ * - Reads (get/containsKey/forEach) take no lock: slots are published with
+ *   release stores and read with acquire loads.
+ * - Writes lock one of N stripes picked from the key hash (HashMix), so writers on
+ *   different keys rarely contend. Slots are claimed with a CAS, because two
+ *   stripes can race for the same empty slot.
+ * - A claimed slot keeps its key for the life of the table; remove() only
+ *   clears the value. Probe chains therefore never break under a reader, and
+ *   dead slots are dropped when the table is rebuilt.
+ * - Resize takes every stripe (in order), copies live entries and publishes
+ *   the new table through a volatile field.
+ * Null values are not allowed (null means "absent", as in HashMapOpen.get).
+ */
+public final class ConcurrentHashMapOpen<T> {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle CLAIMED;
+    private static final VarHandle SIZE;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            CLAIMED = l.findVarHandle(Table.class, "claimed", int.class);
+            SIZE = l.findVarHandle(ConcurrentHashMapOpen.class, "size", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final class Table {
+        final Object[] keys;    // String or null; never reset once set
+        final Object[] values;  // T or null (null = absent / removed)
+        volatile int claimed;   // slots with a key (live + dead)
+        Table(int cap){ keys = new Object[cap]; values = new Object[cap]; }
+        int mask(){ return keys.length - 1; }
+    }
+
+    private volatile Table table;
+    private volatile int size;              // live entries
+    private final ReentrantLock[] stripes;
+    private final int stripeShift;          // 32 - log2(stripes)
+    private final int minCapacity;
+
+    public ConcurrentHashMapOpen(){ this(64, 16); }
+    public ConcurrentHashMapOpen(int cap){ this(cap, 16); }
+
+    /** @param stripes number of write locks (rounded up to a power of two) */
+    public ConcurrentHashMapOpen(int cap, int stripes){
+        int s = 1;
+        while (s < Math.max(1, stripes)) s <<= 1;
+        this.stripes = new ReentrantLock[s];
+        for (int i = 0; i < s; i++) this.stripes[i] = new ReentrantLock();
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(s);
+        // keep room for one in-flight claim per stripe above the load limit
+        int m = 1;
+        while (m < Math.max(cap, s * 4)) m <<= 1;
+        this.minCapacity = m;
+        this.table = new Table(m);
+    }
+
+    private static int hash(String k){ return HashMix.mix(k.hashCode()); }
+
+    /** Stripe from the top bits of the mixed hash; slots use the low bits, so the two stay independent. */
+    private ReentrantLock stripeFor(int h){ return stripes[(h >>> stripeShift) & (stripes.length - 1)]; }
+
+    public int size(){ return size; }
+    public boolean isEmpty(){ return size == 0; }
+
+    // ---------------- lock-free reads ----------------
+
+    @SuppressWarnings("unchecked")
+    public T get(String k){
+        Table t = table;
+        int m = t.mask(), i = hash(k) & m;
+        for (int j = 0; j <= m; j++) {
+            Object kk = SLOT.getAcquire(t.keys, i);
+            if (kk == null) return null;
+            if (((String) kk).equals(k)) return (T) SLOT.getAcquire(t.values, i);
+            i = (i + 1) & m;
+        }
+        return null;
+    }
+
+    public boolean containsKey(String k){ return get(k) != null; }
+
+    /** Weakly consistent: sees every entry present for the whole call, may or may not see concurrent changes. */
+    @SuppressWarnings("unchecked")
+    public void forEach(HashMapOpen.EntryConsumer<T> c){
+        Table t = table;
+        for (int i = 0; i < t.keys.length; i++) {
+            Object kk = SLOT.getAcquire(t.keys, i);
+            if (kk == null) continue;
+            Object v = SLOT.getAcquire(t.values, i);
+            if (v != null) c.accept((String) kk, (T) v);
+        }
+    }
+
+    // ---------------- striped writes ----------------
+
+    /** Insert or overwrite; returns the previous value or null. */
+    public T put(String k, T v){
+        if (v == null) throw new IllegalArgumentException("null value");
+        return write(k, v, MODE_PUT, null);
+    }
+
+    /** Insert only if absent; returns the existing value, or null if v was inserted. */
+    public T putIfAbsent(String k, T v){
+        if (v == null) throw new IllegalArgumentException("null value");
+        return write(k, v, MODE_IF_ABSENT, null);
+    }
+
+    /** Overwrite only if present; returns the previous value or null (nothing written). */
+    public T replace(String k, T v){
+        if (v == null) throw new IllegalArgumentException("null value");
+        return write(k, v, MODE_IF_PRESENT, null);
+    }
+
+    /** Atomically swap expected → v (compared with equals); true if swapped. */
+    public boolean replace(String k, T expected, T v){
+        if (v == null || expected == null) throw new IllegalArgumentException("null value");
+        return write(k, v, MODE_IF_EQUALS, expected) != null;
+    }
+
+    /** Remove; returns the previous value or null. */
+    public T remove(String k){
+        return write(k, null, MODE_REMOVE, null);
+    }
+
+    /**
+     * Returns the current value, computing and inserting it if absent. The mapping
+     * runs at most once per absent key, under the key's stripe lock, so it must be
+     * quick and must not touch this map. A null result inserts nothing.
+     */
+    public T computeIfAbsent(String k, KeyOf<String, T> mapping){
+        T cur = get(k);
+        if (cur != null) return cur;
+        int h = hash(k);
+        ReentrantLock lock = stripeFor(h);
+        T computed = null;
+        while (true) {
+            lock.lock();
+            try {
+                Table t = table;
+                int i = findOrClaim(t, k, h, false);
+                if (i >= 0) {
+                    @SuppressWarnings("unchecked") T v = (T) SLOT.getAcquire(t.values, i);
+                    if (v != null) return v;
+                }
+                // a dead slot for k can be revived without growing
+                if (i >= 0 || hasRoom(t)) {
+                    if (computed == null) computed = mapping.key(k);
+                    if (computed == null) return null;
+                    if (i < 0) i = findOrClaim(t, k, h, true);
+                    if (i >= 0) {
+                        SLOT.setRelease(t.values, i, computed);
+                        SIZE.getAndAdd(this, 1);
+                        return computed;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            grow(table);
+        }
+    }
+
+    private static final int MODE_PUT = 0, MODE_IF_ABSENT = 1, MODE_IF_PRESENT = 2,
+            MODE_IF_EQUALS = 3, MODE_REMOVE = 4;
+
+    @SuppressWarnings("unchecked")
+    private T write(String k, T v, int mode, T expected){
+        int h = hash(k);
+        ReentrantLock lock = stripeFor(h);
+        boolean claim = mode == MODE_PUT || mode == MODE_IF_ABSENT;
+        while (true) {
+            lock.lock();
+            try {
+                Table t = table;
+                if (!claim || hasRoom(t)) {
+                    int i = findOrClaim(t, k, h, claim);
+                    if (i < 0 && !claim) return null; // absent
+                    if (i >= 0) {
+                        T old = (T) SLOT.getAcquire(t.values, i);
+                        switch (mode) {
+                            case MODE_IF_ABSENT:
+                                if (old != null) return old;
+                                break;
+                            case MODE_IF_PRESENT:
+                                if (old == null) return null;
+                                break;
+                            case MODE_IF_EQUALS:
+                                if (old == null || !old.equals(expected)) return null;
+                                break;
+                            default:
+                                break;
+                        }
+                        SLOT.setRelease(t.values, i, v);
+                        if (old == null && v != null) SIZE.getAndAdd(this, 1);
+                        else if (old != null && v == null) SIZE.getAndAdd(this, -1);
+                        // MODE_IF_EQUALS reports success with a non-null return
+                        return mode == MODE_IF_EQUALS ? v : old;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            grow(table); // full or over the load limit; retry on the new table
+        }
+    }
+
+    private static boolean hasRoom(Table t){
+        return t.claimed * 4 < t.keys.length * 3;
+    }
+
+    /**
+     * Slot index holding k; with claim=true an empty slot on the chain is claimed
+     * for k. Returns -1 if absent (claim=false) or the table is full (claim=true).
+     */
+    private static int findOrClaim(Table t, String k, int h, boolean claim){
+        int m = t.mask(), i = h & m;
+        for (int j = 0; j <= m; j++) {
+            Object kk = SLOT.getAcquire(t.keys, i);
+            if (kk == null) {
+                if (!claim) return -1;
+                kk = SLOT.compareAndExchange(t.keys, i, null, k);
+                if (kk == null) {
+                    CLAIMED.getAndAdd(t, 1);
+                    return i;
+                }
+                // lost the race to another stripe; kk is the winner's key
+            }
+            if (((String) kk).equals(k)) return i;
+            i = (i + 1) & m;
+        }
+        return -1;
+    }
+
+    /** Rebuild with only live entries; sized so live entries fill at most half. */
+    private void grow(Table seen){
+        for (int s = 0; s < stripes.length; s++) stripes[s].lock();
+        try {
+            if (table != seen) return; // another writer already rebuilt it
+            int live = 0;
+            for (int i = 0; i < seen.keys.length; i++) if (seen.values[i] != null) live++;
+            int cap = minCapacity;
+            while (cap < (live + 1) * 2) cap <<= 1;
+            Table nt = new Table(cap);
+            int m = nt.mask(), claimed = 0;
+            for (int i = 0; i < seen.keys.length; i++) {
+                Object v = seen.values[i];
+                if (v == null) continue;
+                Object kk = seen.keys[i];
+                int j = hash((String) kk) & m;
+                while (nt.keys[j] != null) j = (j + 1) & m;
+                nt.keys[j] = kk;
+                nt.values[j] = v;
+                claimed++;
+            }
+            nt.claimed = claimed;
+            table = nt; // volatile publish (keys/values written before this store)
+        } finally {
+            for (int s = stripes.length - 1; s >= 0; s--) stripes[s].unlock();
+        }
+    }
+}
@@ -1,48 +1,103 @@
 package atinka.dsa;
 
-/** Simple String→T hash map with linear probing. Not thread-safe. */
+/**
+ * Simple String→T hash map with open addressing. Not thread-safe.
+ *
+ * Two probing modes:
+ * - linear (default): removals leave TOMBSTONE markers; they are purged by a
+ *   same-size rehash once live + tombstones reach the load limit.
+ * - Robin Hood: inserts displace entries that sit closer to their home slot,
+ *   and removals use backward-shift deletion, so there are no tombstones and
+ *   probe lengths stay short and even under heavy churn.
+ *
+ * Instrumentation: probeStats() snapshots probe lengths (average, max, histogram),
+ * load factor, tombstones and resize counts; recordStats(true) additionally counts
+ * every get (hits, misses, slots inspected) until turned off or reset.
+ */
 public final class HashMapOpen<T> {
     private static final Object TOMBSTONE = new Object();
     private Object[] keys;     // String or TOMBSTONE or null
     private Object[] values;   // T
     private int n;             // number of live entries
+    private int tombstones;    // linear mode only
+    private int modCount;      // bumped when keys are added/removed or the table moves (cursors fail fast)
+    private final boolean robinHood;
+    private int resizes;       // grows
+    private int rehashes;      // same-size tombstone purges
+    private boolean counting;  // recordStats
+    private long lookups, hits, lookupProbes, missProbes;
+    private int maxLookupProbe;
 
     public HashMapOpen(){ this(16); }
-    public HashMapOpen(int cap){
+    public HashMapOpen(int cap){ this(cap, false); }
+
+    /** @param robinHood true for Robin Hood probing with backward-shift deletion */
+    public HashMapOpen(int cap, boolean robinHood){
         int m = 1;
         while (m < cap) m <<= 1;
         keys = new Object[m];
         values = new Object[m];
+        this.robinHood = robinHood;
     }
 
     private int mask(){ return keys.length - 1; }
 
+    // Multiplicative mix: with only h ^ (h >>> 16), sequential codes (P001, P002, ...)
+    // land in runs of adjacent slots and linear probes grow into the hundreds.
     private int slot(String k){
-        int h = k.hashCode();
-        h ^= (h >>> 16);
-        return h & mask();
+        return HashMix.mix(k.hashCode()) & mask();
+    }
+
+    /** Distance of the key stored at i from its home slot. */
+    private int probeDistance(int i){
+        return (i - slot((String) keys[i])) & mask();
     }
 
     public int size(){ return n; }
+    public boolean isRobinHood(){ return robinHood; }
 
     @SuppressWarnings("unchecked")
     public T get(String k){
         int i = slot(k), m = mask();
         for (int j = 0; j <= m; j++) {
             Object kk = keys[i];
-            if (kk == null) return null; // empty slot
-            if (kk != TOMBSTONE && ((String)kk).equals(k))
-                return (T) values[i];
+            if (kk == null) return miss(j + 1); // empty slot
+            if (kk != TOMBSTONE) {
+                if (((String)kk).equals(k)) {
+                    if (counting) count(j + 1, true);
+                    return (T) values[i];
+                }
+                // Robin Hood invariant: k would have displaced anything closer to home
+                if (robinHood && probeDistance(i) < j) return miss(j + 1);
+            }
             i = (i + 1) & m;
         }
+        return miss(m + 1);
+    }
+
+    private T miss(int probes){
+        if (counting) count(probes, false);
         return null;
     }
 
+    private void count(int probes, boolean hit){
+        lookups++;
+        lookupProbes += probes;
+        if (hit) hits++; else missProbes += probes;
+        if (probes > maxLookupProbe) maxLookupProbe = probes;
+    }
+
     public boolean containsKey(String k){ return get(k) != null; }
 
     public void put(String k, T v){
-        if ((n + 1) * 4 >= keys.length * 3) resize(keys.length << 1);
-        insert(k, v);
+        if ((n + tombstones + 1) * 4 >= keys.length * 3) {
+            // mostly tombstones → rehash in place; otherwise grow
+            boolean grow = (n + 1) * 2 >= keys.length;
+            if (grow) resizes++; else rehashes++;
+            resize(grow ? keys.length << 1 : keys.length);
+        }
+        if (robinHood) insertRobinHood(k, v);
+        else insert(k, v);
     }
 
     @SuppressWarnings("unchecked")
@@ -51,12 +106,21 @@ public final class HashMapOpen<T> {
         for (int j = 0; j <= m; j++) {
             Object kk = keys[i];
             if (kk == null) return null;
-            if (kk != TOMBSTONE && ((String)kk).equals(k)) {
-                T old = (T) values[i];
-                keys[i] = TOMBSTONE;
-                values[i] = null;
-                n--;
-                return old;
+            if (kk != TOMBSTONE) {
+                if (((String)kk).equals(k)) {
+                    T old = (T) values[i];
+                    if (robinHood) {
+                        backwardShift(i);
+                    } else {
+                        keys[i] = TOMBSTONE;
+                        values[i] = null;
+                        tombstones++;
+                    }
+                    n--;
+                    modCount++;
+                    return old;
+                }
+                if (robinHood && probeDistance(i) < j) return null;
             }
             i = (i + 1) & m;
         }
@@ -69,10 +133,11 @@ public final class HashMapOpen<T> {
         for (int j = 0; j <= m; j++) {
             Object kk = keys[i];
             if (kk == null) {
-                if (tomb != -1) i = tomb;
+                if (tomb != -1) { i = tomb; tombstones--; }
                 keys[i] = k;
                 values[i] = v;
                 n++;
+                modCount++;
                 return;
             }
             if (kk == TOMBSTONE) {
@@ -85,18 +150,71 @@ public final class HashMapOpen<T> {
         }
     }
 
+    /** Insert/replace; an entry that is further from home takes the slot ("rob the rich"). */
+    private void insertRobinHood(String k, Object v){
+        int i = slot(k), m = mask();
+        Object ck = k, cv = v;
+        int dist = 0;
+        boolean carrying = false; // true once we are re-homing a displaced entry
+        while (true) {
+            Object kk = keys[i];
+            if (kk == null) {
+                keys[i] = ck;
+                values[i] = cv;
+                n++;
+                modCount++;
+                return;
+            }
+            if (!carrying && ((String)kk).equals(k)) {
+                values[i] = cv;
+                return;
+            }
+            int d = probeDistance(i);
+            if (d < dist) {
+                Object tk = keys[i], tv = values[i];
+                keys[i] = ck; values[i] = cv;
+                ck = tk; cv = tv;
+                dist = d;
+                carrying = true;
+            }
+            i = (i + 1) & m;
+            dist++;
+        }
+    }
+
+    /** Pull following entries one slot back until an empty slot or an entry already at home. */
+    private void backwardShift(int hole){
+        int m = mask();
+        int next = (hole + 1) & m;
+        while (keys[next] != null && probeDistance(next) != 0) {
+            keys[hole] = keys[next];
+            values[hole] = values[next];
+            hole = next;
+            next = (next + 1) & m;
+        }
+        keys[hole] = null;
+        values[hole] = null;
+    }
+
     private void resize(int newCap){
         Object[] ok = keys, ov = values;
         keys = new Object[newCap];
         values = new Object[newCap];
         n = 0;
+        tombstones = 0;
+        modCount++;
         for (int i = 0; i < ok.length; i++) {
             Object kk = ok[i];
-            if (kk != null && kk != TOMBSTONE)
-                insert((String) kk, ov[i]);
+            if (kk != null && kk != TOMBSTONE) {
+                if (robinHood) insertRobinHood((String) kk, ov[i]);
+                else insert((String) kk, ov[i]);
+            }
         }
     }
 
+    /** Fresh cursor over the current entries (see {@link Cursor}). */
+    public Cursor<T> cursor(){ return new Cursor<T>().over(this); }
+
     // Simple iterator (index-based)
     public void forEach(EntryConsumer<T> c){
         for (int i = 0; i < keys.length; i++) {
@@ -112,4 +230,116 @@ public final class HashMapOpen<T> {
     public interface EntryConsumer<V>{
         void accept(String k, V v);
     }
+
+    /**
+     * Allocation-free iteration: {@code while (c.advance()) use(c.key(), c.value());}
+     * Stop early by simply not advancing. One cursor can be kept and pointed at
+     * another map (or rewound) with over(map) / reset(). Adding or removing keys
+     * while a cursor is open makes its next advance() throw IllegalStateException;
+     * replacing values (put on an existing key, setValue) is fine.
+     */
+    public static final class Cursor<V> {
+        private HashMapOpen<V> map;
+        private int i, expectedMod;
+
+        public Cursor<V> over(HashMapOpen<V> m){
+            map = m;
+            i = -1;
+            expectedMod = m.modCount;
+            return this;
+        }
+
+        public Cursor<V> reset(){ return over(map); }
+
+        /** Moves to the next entry; false when there are no more. */
+        public boolean advance(){
+            if (map.modCount != expectedMod) throw new IllegalStateException("HashMapOpen changed during iteration");
+            Object[] ks = map.keys;
+            while (++i < ks.length) {
+                Object kk = ks[i];
+                if (kk != null && kk != TOMBSTONE) return true;
+            }
+            i = ks.length;
+            return false;
+        }
+
+        public String key(){ check(); return (String) map.keys[i]; }
+
+        @SuppressWarnings("unchecked")
+        public V value(){ check(); return (V) map.values[i]; }
+
+        /** Replaces the current entry's value in place. */
+        public void setValue(V v){ check(); map.values[i] = v; }
+
+        private void check(){
+            if (i < 0 || i >= map.keys.length) throw new IllegalStateException("cursor not on an entry");
+        }
+    }
+
+    // ---------------- probe statistics ----------------
+
+    /** Longest probe length with its own histogram bucket; longer ones share the last. */
+    public static final int HISTOGRAM_MAX = 16;
+
+    /** Counts every get from now on (a branch and a few adds per call) until turned off. */
+    public void recordStats(boolean on){ counting = on; }
+
+    public boolean isRecordingStats(){ return counting; }
+
+    /** Zeroes the lookup counters (resize counts are kept). */
+    public void resetStats(){
+        lookups = hits = lookupProbes = missProbes = 0;
+        maxLookupProbe = 0;
+    }
+
+    /**
+     * Snapshot of probe lengths for the current contents. Probe length = slots
+     * inspected by a successful get (1 = found at its home slot). O(capacity).
+     * Lookup fields are filled from the recordStats counters (zero if never on).
+     */
+    public ProbeStats probeStats(){
+        ProbeStats s = new ProbeStats();
+        s.entries = n;
+        s.capacity = keys.length;
+        s.tombstones = tombstones;
+        s.loadFactor = (double) n / keys.length;
+        s.resizes = resizes;
+        s.rehashes = rehashes;
+        s.histogram = new int[HISTOGRAM_MAX];
+        long total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            Object kk = keys[i];
+            if (kk == null || kk == TOMBSTONE) continue;
+            int len = probeDistance(i) + 1;
+            total += len;
+            if (len > s.maxProbe) s.maxProbe = len;
+            s.histogram[Math.min(len, HISTOGRAM_MAX) - 1]++;
+        }
+        s.averageProbe = n == 0 ? 0.0 : (double) total / n;
+        s.lookups = lookups;
+        s.hits = hits;
+        s.averageLookupProbe = lookups == 0 ? 0.0 : (double) lookupProbes / lookups;
+        s.averageMissProbe = lookups == hits ? 0.0 : (double) missProbes / (lookups - hits);
+        s.maxLookupProbe = maxLookupProbe;
+        return s;
+    }
+
+    public static final class ProbeStats {
+        public int entries;
+        public int capacity;
+        public int tombstones;
+        public double loadFactor;       // entries / capacity
+        public int resizes;             // table grows so far
+        public int rehashes;            // same-size tombstone purges so far
+        public int maxProbe;
+        public double averageProbe;
+        /** histogram[i] = entries found after i + 1 probes; the last bucket holds HISTOGRAM_MAX or more. */
+        public int[] histogram;
+        // recordStats counters
+        public long lookups;
+        public long hits;
+        public double averageLookupProbe;
+        public double averageMissProbe;
+        public int maxLookupProbe;
+    }
 }
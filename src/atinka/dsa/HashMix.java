@@ -0,0 +1,25 @@
+package atinka.dsa;
+
+/** Bit mixers shared by the open-addressing maps, so sequential keys spread over the table. */
+final class HashMix {
+    private HashMix(){}
+
+    static int mix(int h){
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long k){
+        k *= 0x9E3779B97F4A7C15L;
+        int h = (int) (k ^ (k >>> 32));
+        return h ^ (h >>> 16);
+    }
+
+    /** Smallest power of two holding n entries under a 3/4 load limit. */
+    static int tableSizeFor(int n){
+        int need = Math.max(4, (int) Math.min(1 << 30, (long) n * 4 / 3 + 1));
+        int m = 1;
+        while (m < need) m <<= 1;
+        return m;
+    }
+}
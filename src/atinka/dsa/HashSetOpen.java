@@ -8,9 +8,29 @@ public final class HashSetOpen {
     public boolean contains(String k){ return map.get(k) != null; }
     public void remove(String k){ map.remove(k); }
     public int size(){ return map.size(); }
-    public void forEach(StringConsumer c){ map.forEach((k,v) -> c.accept(k)); }
+
+    public void forEach(StringConsumer c){
+        HashMapOpen.Cursor<Object> it = map.cursor();
+        while (it.advance()) c.accept(it.key());
+    }
+
+    /** Fresh cursor over the current members (see {@link Cursor}). */
+    public Cursor cursor(){ return new Cursor().over(this); }
 
     public interface StringConsumer{
         void accept(String s);
     }
+
+    /**
+     * Allocation-free iteration over the members: {@code while (c.advance()) use(c.key());}
+     * Reusable across sets via over(set); same fail-fast rules as HashMapOpen.Cursor.
+     */
+    public static final class Cursor {
+        private final HashMapOpen.Cursor<Object> it = new HashMapOpen.Cursor<>();
+
+        public Cursor over(HashSetOpen s){ it.over(s.map); return this; }
+        public Cursor reset(){ it.reset(); return this; }
+        public boolean advance(){ return it.advance(); }
+        public String key(){ return it.key(); }
+    }
 }
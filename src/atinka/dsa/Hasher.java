@@ -0,0 +1,33 @@
+package atinka.dsa;
+
+/** Hash + equality strategy for ObjectMap keys (no java.util.function). */
+public interface Hasher<K> {
+    int hash(K key);
+    boolean equals(K a, K b);
+
+    /** key.hashCode() / key.equals(), i.e. the key's own notion of equality. */
+    static <K> Hasher<K> natural(){
+        return new Hasher<K>() {
+            public int hash(K key){ return key.hashCode(); }
+            public boolean equals(K a, K b){ return a.equals(b); }
+        };
+    }
+
+    /** ASCII case-insensitive Strings (e.g. drug codes typed in any case). */
+    static Hasher<String> ignoreCase(){
+        return new Hasher<String>() {
+            public int hash(String key){
+                int h = 0;
+                for (int i = 0; i < key.length(); i++) {
+                    char c = key.charAt(i);
+                    if (c >= 'A' && c <= 'Z') c = (char) (c + 32);
+                    h = 31 * h + c;
+                }
+                return h;
+            }
+            public boolean equals(String a, String b){
+                return a.length() == b.length() && Strings.compareIgnoreCase(a, b) == 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,195 @@
+package atinka.dsa;
+
+/**
+ * IndexedMinHeap<T> — binary min-heap that knows where each element sits.
+ * - Elements are identified by a String key (e.g. drug code)
+ * - insert / remove(key) / update(key): O(log n); contains/peek: O(1)
+ * - update(key) re-positions an element after its ordering fields changed
+ * - smallest(k): the k smallest in order without disturbing the heap, O(k log k)
+ * Not thread-safe.
+ */
+public final class IndexedMinHeap<T> {
+    private static final class Node<E> {
+        final String key;
+        E value;
+        int pos;
+        Node(String key, E value){ this.key = key; this.value = value; }
+    }
+
+    private Node<T>[] heap;
+    private int n;
+    private final HashMapOpen<Node<T>> byKey;
+    private final Comparator<T> cmp;
+    private final KeyOf<T, String> keyOf;
+
+    public IndexedMinHeap(Comparator<T> cmp, KeyOf<T, String> keyOf){ this(cmp, keyOf, 16); }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IndexedMinHeap(Comparator<T> cmp, KeyOf<T, String> keyOf, int capacity){
+        this.cmp = cmp;
+        this.keyOf = keyOf;
+        int cap = 1;
+        while (cap < Math.max(1, capacity)) cap <<= 1;
+        this.heap = (Node<T>[]) new Node[cap];
+        this.byKey = new HashMapOpen<>(cap * 2, true);
+    }
+
+    public int size(){ return n; }
+    public boolean isEmpty(){ return n == 0; }
+    public boolean contains(String key){ return key != null && byKey.get(key) != null; }
+    public T peek(){ return n == 0 ? null : heap[0].value; }
+
+    /** Adds v, or replaces and re-positions the element with the same key. */
+    public void insert(T v){
+        String k = keyOf.key(v);
+        Node<T> x = byKey.get(k);
+        if (x != null) {
+            x.value = v;
+            reposition(x.pos);
+            return;
+        }
+        x = new Node<>(k, v);
+        ensureCapacity(n + 1);
+        x.pos = n;
+        heap[n++] = x;
+        byKey.put(k, x);
+        siftUp(x.pos);
+    }
+
+    /** Re-positions the element for key after its ordering fields changed. False if absent. */
+    public boolean update(String key){
+        Node<T> x = key == null ? null : byKey.get(key);
+        if (x == null) return false;
+        reposition(x.pos);
+        return true;
+    }
+
+    /** Removes and returns the element for key, or null. */
+    public T remove(String key){
+        Node<T> x = key == null ? null : byKey.get(key);
+        if (x == null) return null;
+        removeAt(x.pos);
+        return x.value;
+    }
+
+    public T extractMin(){
+        if (n == 0) return null;
+        Node<T> x = heap[0];
+        removeAt(0);
+        return x.value;
+    }
+
+    public void clear(){
+        for (int i = 0; i < n; i++) { byKey.remove(heap[i].key); heap[i] = null; }
+        n = 0;
+    }
+
+    /**
+     * The k smallest elements in ascending order; the heap is left untouched.
+     * Walks the heap with a small frontier heap of positions: O(k log k).
+     */
+    public Vec<T> smallest(int k){
+        if (k > n) k = n;
+        Vec<T> out = new Vec<>(Math.max(k, 1));
+        if (k <= 0) return out;
+        int[] frontier = new int[2 * k + 1]; // heap positions, ordered by element
+        int f = 0;
+        frontier[f++] = 0;
+        while (out.size() < k) {
+            int top = frontier[0];
+            frontier[0] = frontier[--f];
+            frontierDown(frontier, f, 0);
+            out.add(heap[top].value);
+            int l = (top << 1) + 1, r = l + 1;
+            if (l < n) { frontier[f] = l; frontierUp(frontier, f++); }
+            if (r < n) { frontier[f] = r; frontierUp(frontier, f++); }
+        }
+        return out;
+    }
+
+    // ---------------- internals ----------------
+
+    private void removeAt(int i){
+        Node<T> x = heap[i];
+        byKey.remove(x.key);
+        int last = --n;
+        if (i != last) {
+            heap[i] = heap[last];
+            heap[i].pos = i;
+            heap[last] = null;
+            reposition(i);
+        } else {
+            heap[last] = null;
+        }
+    }
+
+    private void reposition(int i){
+        if (i > 0 && less(i, (i - 1) >> 1)) siftUp(i);
+        else siftDown(i);
+    }
+
+    private boolean less(int i, int j){ return cmp.compare(heap[i].value, heap[j].value) < 0; }
+
+    private void siftUp(int i){
+        Node<T> x = heap[i];
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (cmp.compare(x.value, heap[p].value) >= 0) break;
+            heap[i] = heap[p];
+            heap[i].pos = i;
+            i = p;
+        }
+        heap[i] = x;
+        x.pos = i;
+    }
+
+    private void siftDown(int i){
+        Node<T> x = heap[i];
+        while (true) {
+            int l = (i << 1) + 1;
+            if (l >= n) break;
+            int m = (l + 1 < n && less(l + 1, l)) ? l + 1 : l;
+            if (cmp.compare(heap[m].value, x.value) >= 0) break;
+            heap[i] = heap[m];
+            heap[i].pos = i;
+            i = m;
+        }
+        heap[i] = x;
+        x.pos = i;
+    }
+
+    private void frontierUp(int[] h, int i){
+        int v = h[i];
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (cmp.compare(heap[v].value, heap[h[p]].value) >= 0) break;
+            h[i] = h[p];
+            i = p;
+        }
+        h[i] = v;
+    }
+
+    private void frontierDown(int[] h, int size, int i){
+        if (size == 0) return;
+        int v = h[i];
+        while (true) {
+            int l = (i << 1) + 1;
+            if (l >= size) break;
+            int m = (l + 1 < size && cmp.compare(heap[h[l + 1]].value, heap[h[l]].value) < 0) ? l + 1 : l;
+            if (cmp.compare(heap[h[m]].value, heap[v].value) >= 0) break;
+            h[i] = h[m];
+            i = m;
+        }
+        h[i] = v;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void ensureCapacity(int needed){
+        if (needed <= heap.length) return;
+        int cap = heap.length;
+        while (cap < needed) cap <<= 1;
+        Node<T>[] b = (Node<T>[]) new Node[cap];
+        System.arraycopy(heap, 0, b, 0, n);
+        heap = b;
+    }
+}
@@ -4,14 +4,20 @@ public final class InsertionSort {
     private InsertionSort(){}
 
     public static <T> void sort(Vec<T> v, Comparator<T> cmp){
-        for (int i = 1; i < v.size(); i++) {
-            T key = v.get(i);
+        sort(v.array(), 0, v.size(), cmp);
+    }
+
+    /** Sorts a[lo, hi) in place; stable. Used directly by MergeSort leaves. */
+    @SuppressWarnings("unchecked")
+    static <T> void sort(Object[] a, int lo, int hi, Comparator<T> cmp){
+        for (int i = lo + 1; i < hi; i++) {
+            T key = (T) a[i];
             int j = i - 1;
-            while (j >= 0 && cmp.compare(v.get(j), key) > 0) {
-                v.set(j + 1, v.get(j));
+            while (j >= lo && cmp.compare((T) a[j], key) > 0) {
+                a[j + 1] = a[j];
                 j--;
             }
-            v.set(j + 1, key);
+            a[j + 1] = key;
         }
     }
 }
@@ -0,0 +1,145 @@
+package atinka.dsa;
+
+/**
+ * IntIntMap — int→int open-addressing map with no boxing (counters, id→index).
+ * - Linear probing on a power-of-two table, grows at 3/4 load
+ * - Backward-shift deletion (no tombstones)
+ * - get(k, missing) takes the value to return for absent keys; addTo() updates
+ *   a counter in one probe
+ * Not thread-safe.
+ */
+public final class IntIntMap {
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int n;
+
+    public IntIntMap(){ this(16); }
+
+    public IntIntMap(int cap){
+        int m = HashMix.tableSizeFor(cap);
+        keys = new int[m];
+        values = new int[m];
+        used = new boolean[m];
+    }
+
+    public int size(){ return n; }
+    public boolean isEmpty(){ return n == 0; }
+
+    private static int slot(int k, int mask){ return HashMix.mix(k) & mask; }
+
+    private int find(int k){
+        int m = keys.length - 1, i = slot(k, m);
+        while (used[i]) {
+            if (keys[i] == k) return i;
+            i = (i + 1) & m;
+        }
+        return -1;
+    }
+
+    public int get(int k, int missing){
+        int i = find(k);
+        return i < 0 ? missing : values[i];
+    }
+
+    public boolean containsKey(int k){ return find(k) >= 0; }
+
+    /** Insert or overwrite; returns the previous value, or missing if absent. */
+    public int put(int k, int v, int missing){
+        int i = slotFor(k);
+        if (i < 0) {
+            i = ~i;
+            keys[i] = k;
+            values[i] = v;
+            used[i] = true;
+            n++;
+            return missing;
+        }
+        int old = values[i];
+        values[i] = v;
+        return old;
+    }
+
+    public void put(int k, int v){ put(k, v, 0); }
+
+    /** values[k] += delta (absent counts as 0); returns the new value. */
+    public int addTo(int k, int delta){
+        int i = slotFor(k);
+        if (i < 0) {
+            i = ~i;
+            keys[i] = k;
+            values[i] = delta;
+            used[i] = true;
+            n++;
+            return delta;
+        }
+        return values[i] += delta;
+    }
+
+    /** Removes k; returns its value, or missing if absent. */
+    public int remove(int k, int missing){
+        int i = find(k);
+        if (i < 0) return missing;
+        int old = values[i];
+        shiftBack(i);
+        n--;
+        return old;
+    }
+
+    public void clear(){
+        for (int i = 0; i < used.length; i++) used[i] = false;
+        n = 0;
+    }
+
+    public void forEach(EntryConsumer c){
+        for (int i = 0; i < keys.length; i++)
+            if (used[i]) c.accept(keys[i], values[i]);
+    }
+
+    public interface EntryConsumer {
+        void accept(int k, int v);
+    }
+
+    /** Slot of k if present; otherwise ~(empty slot to insert at), growing first if needed. */
+    private int slotFor(int k){
+        int i = find(k);
+        if (i >= 0) return i;
+        if ((n + 1) * 4 > keys.length * 3) resize(keys.length << 1);
+        int m = keys.length - 1;
+        i = slot(k, m);
+        while (used[i]) i = (i + 1) & m;
+        return ~i;
+    }
+
+    private void shiftBack(int hole){
+        int m = keys.length - 1, j = hole;
+        while (true) {
+            j = (j + 1) & m;
+            if (!used[j]) break;
+            int home = slot(keys[j], m);
+            if (((j - home) & m) >= ((j - hole) & m)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        used[hole] = false;
+    }
+
+    private void resize(int cap){
+        int[] ok = keys, ov = values;
+        boolean[] ou = used;
+        keys = new int[cap];
+        values = new int[cap];
+        used = new boolean[cap];
+        int m = cap - 1;
+        for (int i = 0; i < ok.length; i++) {
+            if (!ou[i]) continue;
+            int j = slot(ok[i], m);
+            while (used[j]) j = (j + 1) & m;
+            keys[j] = ok[i];
+            values[j] = ov[i];
+            used[j] = true;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package atinka.dsa;
+
+/** int key extractor for RadixSort (no boxing, no java.util.function). */
+@FunctionalInterface
+public interface IntKeyOf<T> {
+    int key(T value);
+}
@@ -0,0 +1,7 @@
+package atinka.dsa;
+
+/** long key extractor for RadixSort, e.g. epoch day / epoch second (no boxing). */
+@FunctionalInterface
+public interface LongKeyOf<T> {
+    long key(T value);
+}
@@ -0,0 +1,150 @@
+package atinka.dsa;
+
+/**
+ * LongObjectMap<V> — long→V open-addressing map with no key boxing
+ * (e.g. epoch day or epoch second → bucket).
+ * - Linear probing on a power-of-two table, grows at 3/4 load
+ * - Backward-shift deletion (no tombstones)
+ * Null values are not allowed (get returns null for "absent"). Not thread-safe.
+ */
+public final class LongObjectMap<V> {
+    private long[] keys;
+    private Object[] values;   // null = empty slot
+    private int n;
+
+    public LongObjectMap(){ this(16); }
+
+    public LongObjectMap(int cap){
+        int m = HashMix.tableSizeFor(cap);
+        keys = new long[m];
+        values = new Object[m];
+    }
+
+    public int size(){ return n; }
+    public boolean isEmpty(){ return n == 0; }
+
+    private static int slot(long k, int mask){ return HashMix.mix(k) & mask; }
+
+    private int find(long k){
+        int m = keys.length - 1, i = slot(k, m);
+        while (values[i] != null) {
+            if (keys[i] == k) return i;
+            i = (i + 1) & m;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long k){
+        int i = find(k);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    public boolean containsKey(long k){ return find(k) >= 0; }
+
+    /** Insert or overwrite; returns the previous value or null. */
+    @SuppressWarnings("unchecked")
+    public V put(long k, V v){
+        if (v == null) throw new IllegalArgumentException("null value");
+        if ((n + 1) * 4 > keys.length * 3) resize(keys.length << 1);
+        int m = keys.length - 1, i = slot(k, m);
+        while (values[i] != null) {
+            if (keys[i] == k) {
+                V old = (V) values[i];
+                values[i] = v;
+                return old;
+            }
+            i = (i + 1) & m;
+        }
+        keys[i] = k;
+        values[i] = v;
+        n++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long k){
+        int i = find(k);
+        if (i < 0) return null;
+        V old = (V) values[i];
+        shiftBack(i);
+        n--;
+        return old;
+    }
+
+    public void clear(){
+        for (int i = 0; i < values.length; i++) values[i] = null;
+        n = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<V> c){
+        for (int i = 0; i < keys.length; i++)
+            if (values[i] != null) c.accept(keys[i], (V) values[i]);
+    }
+
+    public interface EntryConsumer<V> {
+        void accept(long k, V v);
+    }
+
+    /** Fresh cursor over the current entries (see {@link Cursor}). */
+    public Cursor<V> cursor(){ return new Cursor<V>().over(this); }
+
+    /**
+     * Allocation-free iteration: {@code while (c.advance()) use(c.key(), c.value());}
+     * Reusable via over(map) / reset(). Don't add or remove keys while it is open.
+     */
+    public static final class Cursor<V> {
+        private LongObjectMap<V> map;
+        private int i;
+
+        public Cursor<V> over(LongObjectMap<V> m){ map = m; i = -1; return this; }
+        public Cursor<V> reset(){ return over(map); }
+
+        public boolean advance(){
+            Object[] vs = map.values;
+            while (++i < vs.length) if (vs[i] != null) return true;
+            i = vs.length;
+            return false;
+        }
+
+        public long key(){ check(); return map.keys[i]; }
+
+        @SuppressWarnings("unchecked")
+        public V value(){ check(); return (V) map.values[i]; }
+
+        private void check(){
+            if (i < 0 || i >= map.values.length) throw new IllegalStateException("cursor not on an entry");
+        }
+    }
+
+    private void shiftBack(int hole){
+        int m = keys.length - 1, j = hole;
+        while (true) {
+            j = (j + 1) & m;
+            if (values[j] == null) break;
+            int home = slot(keys[j], m);
+            if (((j - home) & m) >= ((j - hole) & m)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void resize(int cap){
+        long[] ok = keys;
+        Object[] ov = values;
+        keys = new long[cap];
+        values = new Object[cap];
+        int m = cap - 1;
+        for (int i = 0; i < ok.length; i++) {
+            if (ov[i] == null) continue;
+            int j = slot(ok[i], m);
+            while (values[j] != null) j = (j + 1) & m;
+            keys[j] = ok[i];
+            values[j] = ov[i];
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package atinka.dsa;
+
+/**
+ * LongVec — long-specialized sibling of {@link Vec} (no boxing, no java.util).
+ * - Amortized O(1) append, O(1) get/set, O(n) insert/removeAt
+ * - Bulk append from arrays or another LongVec
+ * - In-place sort + binary search over the flat long[]
+ *
+ * Meant for analytics columns (epoch millis/days, money in cents) where Vec<Long> would box every element.
+ */
+public final class LongVec {
+    private long[] a;
+    private int n;
+
+    public LongVec() { this(8); }
+
+    public LongVec(int capacity) {
+        if (capacity < 0) capacity = 0;
+        int cap = 1;
+        while (cap < Math.max(1, capacity)) cap <<= 1;
+        a = new long[cap];
+        n = 0;
+    }
+
+    public int size() { return n; }
+    public boolean isEmpty() { return n == 0; }
+
+    public long get(int index) {
+        checkIndex(index);
+        return a[index];
+    }
+
+    public void set(int index, long value) {
+        checkIndex(index);
+        a[index] = value;
+    }
+
+    public void add(long value) {
+        if (n == a.length) ensureCapacity(n + 1);
+        a[n++] = value;
+    }
+
+    public void insert(int index, long value) {
+        if (index < 0 || index > n)
+            throw new IndexOutOfBoundsException("insert index " + index + " out of [0," + n + "]");
+        ensureCapacity(n + 1);
+        System.arraycopy(a, index, a, index + 1, n - index);
+        a[index] = value;
+        n++;
+    }
+
+    public long removeAt(int index) {
+        checkIndex(index);
+        long old = a[index];
+        System.arraycopy(a, index + 1, a, index, n - index - 1);
+        n--;
+        return old;
+    }
+
+    public void clear() { n = 0; }
+
+    // ---------------- Bulk ----------------
+
+    /** Appends src[off, off+len). */
+    public void addAll(long[] src, int off, int len) {
+        if (off < 0 || len < 0 || off + len > src.length)
+            throw new IndexOutOfBoundsException("range [" + off + "," + (off + len) + ") out of [0," + src.length + "]");
+        ensureCapacity(n + len);
+        System.arraycopy(src, off, a, n, len);
+        n += len;
+    }
+
+    public void addAll(long[] src) { addAll(src, 0, src.length); }
+
+    public void addAll(LongVec other) {
+        ensureCapacity(n + other.n);
+        System.arraycopy(other.a, 0, a, n, other.n);
+        n += other.n;
+    }
+
+    /** Copy of the live elements, length == size(). */
+    public long[] toArray() {
+        long[] out = new long[n];
+        System.arraycopy(a, 0, out, 0, n);
+        return out;
+    }
+
+    /** Sum of all elements. */
+    public long sum() {
+        long s = 0;
+        for (int i = 0; i < n; i++) s += a[i];
+        return s;
+    }
+
+    // ---------------- Sort / search ----------------
+
+    /** Ascending in-place sort. O(n log n), no extra array. */
+    public void sort() { PrimitiveSort.sort(a, 0, n); }
+
+    /** Index of key in a sorted LongVec, or -1 (same contract as BinarySearch.indexOf). */
+    public int binarySearch(long key) {
+        int i = lowerBound(key);
+        return (i < n && a[i] == key) ? i : -1;
+    }
+
+    /** First index whose element is >= key (size() if none); requires sorted order. */
+    public int lowerBound(long key) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ---------------- internals ----------------
+
+    private void ensureCapacity(int needed) {
+        if (needed <= a.length) return;
+        int cap = a.length == 0 ? 1 : a.length;
+        while (cap < needed) cap <<= 1;
+        long[] b = new long[cap];
+        System.arraycopy(a, 0, b, 0, n);
+        a = b;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n)
+            throw new IndexOutOfBoundsException("index " + index + " out of [0," + (n - 1) + "]");
+    }
+}
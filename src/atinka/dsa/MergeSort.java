@@ -1,38 +1,109 @@
 package atinka.dsa;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable top-down merge sort over the Vec's backing array (no copy out/in).
+ * - One scratch buffer of n/2 slots per call, reused by every merge
+ * - Ranges of INSERTION_CUTOFF or fewer go to InsertionSort
+ * - Already-ordered halves skip the merge
+ * - parallelSort forks both halves on a ForkJoinPool above a size threshold
+ */
 @SuppressWarnings("unchecked")
 public final class MergeSort {
     private MergeSort(){}
 
+    static final int INSERTION_CUTOFF = 32;
+
     public static <T> void sort(Vec<T> v, Comparator<T> cmp){
         int n = v.size();
         if (n <= 1) return;
+        Object[] a = v.array();
+        Object[] tmp = new Object[(n >>> 1) + 1];
+        msort(a, tmp, 0, n, cmp);
+    }
 
-        Object[] a = new Object[n];
-        for (int i = 0; i < n; i++) a[i] = v.get(i);
-
+    /**
+     * Fork/join variant: ranges longer than threshold sort their halves in parallel
+     * on the common pool; shorter ranges run the sequential sort. The comparator is
+     * called from several threads, so it must be stateless or thread-safe.
+     */
+    public static <T> void parallelSort(Vec<T> v, Comparator<T> cmp, int threshold){
+        int n = v.size();
+        if (n <= 1) return;
+        if (threshold < INSERTION_CUTOFF) threshold = INSERTION_CUTOFF;
+        Object[] a = v.array();
+        if (n <= threshold || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            msort(a, new Object[(n >>> 1) + 1], 0, n, cmp);
+            return;
+        }
+        // scratch is indexed like a, so disjoint ranges never share slots
         Object[] tmp = new Object[n];
-        msort(a, tmp, 0, n, cmp);
+        ForkJoinPool.commonPool().invoke(new SortTask<>(a, tmp, 0, n, cmp, threshold));
+    }
+
+    private static final class SortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Object[] a, t;
+        private final int lo, hi, threshold;
+        private final Comparator<T> c;
 
-        for (int i = 0; i < n; i++) v.set(i, (T) a[i]);
+        SortTask(Object[] a, Object[] t, int lo, int hi, Comparator<T> c, int threshold){
+            this.a = a; this.t = t; this.lo = lo; this.hi = hi; this.c = c; this.threshold = threshold;
+        }
+
+        @Override protected void compute(){
+            if (hi - lo <= threshold) {
+                msortAt(a, t, lo, hi, c);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask<>(a, t, lo, mid, c, threshold),
+                      new SortTask<>(a, t, mid, hi, c, threshold));
+            mergeAt(a, t, lo, mid, hi, c);
+        }
     }
 
+    // ---------- sequential core: scratch holds the left run at offset 0 ----------
+
     private static <T> void msort(Object[] a, Object[] t, int lo, int hi, Comparator<T> c){
-        if (hi - lo <= 1) return;
+        if (hi - lo <= INSERTION_CUTOFF) { InsertionSort.sort(a, lo, hi, c); return; }
         int mid = (lo + hi) >>> 1;
         msort(a, t, lo, mid, c);
         msort(a, t, mid, hi, c);
-        merge(a, t, lo, mid, hi, c);
+        merge(a, t, 0, lo, mid, hi, c);
+    }
+
+    // ---------- parallel leaves: scratch is addressed with the same index as a ----------
+
+    private static <T> void msortAt(Object[] a, Object[] t, int lo, int hi, Comparator<T> c){
+        if (hi - lo <= INSERTION_CUTOFF) { InsertionSort.sort(a, lo, hi, c); return; }
+        int mid = (lo + hi) >>> 1;
+        msortAt(a, t, lo, mid, c);
+        msortAt(a, t, mid, hi, c);
+        mergeAt(a, t, lo, mid, hi, c);
+    }
+
+    private static <T> void mergeAt(Object[] a, Object[] t, int lo, int mid, int hi, Comparator<T> c){
+        merge(a, t, lo, lo, mid, hi, c);
     }
 
-    private static <T> void merge(Object[] a, Object[] t, int lo, int mid, int hi, Comparator<T> c){
-        int i = lo, j = mid, k = lo;
-        while (i < mid && j < hi) {
-            if (c.compare((T) a[i], (T) a[j]) <= 0) t[k++] = a[i++];
-            else t[k++] = a[j++];
+    /**
+     * Merge sorted a[lo,mid) and a[mid,hi) in place: the left run is parked in
+     * t[off, off+(mid-lo)) and merged back with the right run. Ties take the
+     * left element (stable).
+     */
+    private static <T> void merge(Object[] a, Object[] t, int off, int lo, int mid, int hi, Comparator<T> c){
+        if (c.compare((T) a[mid - 1], (T) a[mid]) <= 0) return; // already in order
+        int len = mid - lo;
+        System.arraycopy(a, lo, t, off, len);
+        int i = off, iEnd = off + len, j = mid, k = lo;
+        while (i < iEnd && j < hi) {
+            if (c.compare((T) t[i], (T) a[j]) <= 0) a[k++] = t[i++];
+            else a[k++] = a[j++];
         }
-        while (i < mid) t[k++] = a[i++];
-        while (j < hi) t[k++] = a[j++];
-        for (int x = lo; x < hi; x++) a[x] = t[x];
+        // right leftovers are already in place
+        if (i < iEnd) System.arraycopy(t, i, a, k, iEnd - i);
     }
 }
@@ -0,0 +1,147 @@
+package atinka.dsa;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * MpscQueue<T> — bounded lock-free multi-producer / single-consumer queue.
+ * - Preallocated ring of slots, each with its own sequence number (no Node per item)
+ * - Producers claim a slot with one CAS on the tail and publish it with a release store
+ * - The single consumer needs no CAS: it reads published slots in order
+ * - drain() hands a whole batch to the consumer in one call
+ * offer() never blocks: it returns false when the ring is full, so callers choose
+ * their own back-pressure (retry, yield, drop). Null items are not allowed.
+ * Only one thread may call poll/drain at a time.
+ */
+public final class MpscQueue<T> {
+    private static final VarHandle SEQ = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ITEM = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TAIL;
+    private static final VarHandle HEAD;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            TAIL = l.findVarHandle(MpscQueue.class, "tail", long.class);
+            HEAD = l.findVarHandle(MpscQueue.class, "head", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Object[] items;
+    /** seq[i] == p: slot free for the producer of position p; p + 1: holds item p. */
+    private final long[] seq;
+    private final int mask;
+
+    // padding (best effort: field layout is up to the JVM) keeps tail and head on separate cache lines
+    @SuppressWarnings("unused") private long p1, p2, p3, p4, p5, p6, p7;
+    private volatile long tail;   // next position to claim (producers)
+    @SuppressWarnings("unused") private long q1, q2, q3, q4, q5, q6, q7;
+    private volatile long head;   // next position to read (consumer)
+
+    /** @param capacity rounded up to a power of two (at least 2) */
+    public MpscQueue(int capacity){
+        int c = 2;
+        while (c < capacity) c <<= 1;
+        items = new Object[c];
+        seq = new long[c];
+        for (int i = 0; i < c; i++) seq[i] = i;
+        mask = c - 1;
+    }
+
+    public int capacity(){ return items.length; }
+
+    /** Approximate while producers are active. */
+    public int size(){
+        long s = (long) TAIL.getVolatile(this) - (long) HEAD.getVolatile(this);
+        return s < 0 ? 0 : (int) Math.min(s, items.length);
+    }
+
+    public boolean isEmpty(){ return size() == 0; }
+
+    // ---------------- producers (any thread) ----------------
+
+    /** Enqueue v; false if the queue is full. */
+    public boolean offer(T v){
+        if (v == null) throw new IllegalArgumentException("null item");
+        long t = (long) TAIL.getVolatile(this);
+        while (true) {
+            int i = (int) t & mask;
+            long s = (long) SEQ.getAcquire(seq, i);
+            long d = s - t;
+            if (d == 0) {
+                long w = (long) TAIL.compareAndExchange(this, t, t + 1);
+                if (w == t) {
+                    ITEM.set(items, i, v);
+                    SEQ.setRelease(seq, i, t + 1);   // publish
+                    return true;
+                }
+                t = w;                               // lost the race; retry at the winner's tail
+            } else if (d < 0) {
+                return false;                        // slot still holds an unread item: full
+            } else {
+                t = (long) TAIL.getVolatile(this);   // another producer moved on
+            }
+        }
+    }
+
+    // ---------------- consumer (one thread) ----------------
+
+    /** Dequeue one item, or null if none is published yet. */
+    @SuppressWarnings("unchecked")
+    public T poll(){
+        long h = head;
+        int i = (int) h & mask;
+        if ((long) SEQ.getAcquire(seq, i) != h + 1) return null;
+        T v = (T) ITEM.get(items, i);
+        ITEM.set(items, i, null);
+        SEQ.setRelease(seq, i, h + items.length);    // free the slot for the next lap
+        HEAD.setRelease(this, h + 1);
+        return v;
+    }
+
+    /** Peek at the next item without removing it (consumer thread only). */
+    @SuppressWarnings("unchecked")
+    public T peek(){
+        long h = head;
+        int i = (int) h & mask;
+        if ((long) SEQ.getAcquire(seq, i) != h + 1) return null;
+        return (T) ITEM.get(items, i);
+    }
+
+    /**
+     * Hands up to limit published items to c in FIFO order; returns how many.
+     * Slots are released to producers once the whole batch has been handed over;
+     * if c throws, nothing is released and the batch is handed over again next time.
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(ItemConsumer<T> c, int limit){
+        long h = head;
+        int n = 0;
+        while (n < limit) {
+            int i = (int) (h + n) & mask;
+            if ((long) SEQ.getAcquire(seq, i) != h + n + 1) break;
+            c.accept((T) ITEM.get(items, i));
+            n++;
+        }
+        for (int k = 0; k < n; k++) {
+            int i = (int) (h + k) & mask;
+            ITEM.set(items, i, null);
+            SEQ.setRelease(seq, i, h + k + items.length);
+        }
+        if (n > 0) HEAD.setRelease(this, h + n);
+        return n;
+    }
+
+    /** Everything published right now. */
+    public int drain(ItemConsumer<T> c){ return drain(c, items.length); }
+
+    /** Appends up to limit items to out; returns how many. */
+    public int drainTo(Vec<T> out, int limit){
+        return drain(out::add, limit);
+    }
+
+    public interface ItemConsumer<E> {
+        void accept(E item);
+    }
+}
@@ -0,0 +1,131 @@
+package atinka.dsa;
+
+/**
+ * ObjectMap<K,V> — open-addressing hash map for any key type, with a pluggable
+ * Hasher (hash + equality). Generic sibling of the String-keyed HashMapOpen.
+ * - Linear probing on a power-of-two table, grows at 3/4 load
+ * - Backward-shift deletion: no tombstones, probe chains stay short under churn
+ * Null keys and null values are not allowed (get returns null for "absent").
+ * Not thread-safe.
+ */
+public final class ObjectMap<K, V> {
+    private Object[] keys;
+    private Object[] values;
+    private int n;
+    private final Hasher<K> hasher;
+
+    public ObjectMap(){ this(16); }
+    public ObjectMap(int cap){ this(cap, Hasher.natural()); }
+
+    public ObjectMap(int cap, Hasher<K> hasher){
+        if (hasher == null) throw new IllegalArgumentException("hasher is null");
+        this.hasher = hasher;
+        int m = HashMix.tableSizeFor(cap);
+        keys = new Object[m];
+        values = new Object[m];
+    }
+
+    public int size(){ return n; }
+    public boolean isEmpty(){ return n == 0; }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int i){ return (K) keys[i]; }
+
+    private int slot(K k, int mask){ return HashMix.mix(hasher.hash(k)) & mask; }
+
+    /** Slot holding k, or -1. */
+    private int find(K k){
+        if (k == null) throw new IllegalArgumentException("null key");
+        int m = keys.length - 1, i = slot(k, m);
+        while (keys[i] != null) {
+            if (hasher.equals(keyAt(i), k)) return i;
+            i = (i + 1) & m;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(K k){
+        int i = find(k);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    public boolean containsKey(K k){ return find(k) >= 0; }
+
+    /** Insert or overwrite; returns the previous value or null. */
+    @SuppressWarnings("unchecked")
+    public V put(K k, V v){
+        if (k == null) throw new IllegalArgumentException("null key");
+        if (v == null) throw new IllegalArgumentException("null value");
+        if ((n + 1) * 4 > keys.length * 3) resize(keys.length << 1);
+        int m = keys.length - 1, i = slot(k, m);
+        while (keys[i] != null) {
+            if (hasher.equals(keyAt(i), k)) {
+                V old = (V) values[i];
+                values[i] = v;
+                return old;
+            }
+            i = (i + 1) & m;
+        }
+        keys[i] = k;
+        values[i] = v;
+        n++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(K k){
+        int i = find(k);
+        if (i < 0) return null;
+        V old = (V) values[i];
+        shiftBack(i);
+        n--;
+        return old;
+    }
+
+    public void clear(){
+        for (int i = 0; i < keys.length; i++) { keys[i] = null; values[i] = null; }
+        n = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<K, V> c){
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != null) c.accept((K) keys[i], (V) values[i]);
+    }
+
+    public interface EntryConsumer<K, V> {
+        void accept(K k, V v);
+    }
+
+    /** Close the hole at i by pulling back later entries whose home is at or before it. */
+    private void shiftBack(int hole){
+        int m = keys.length - 1, j = hole;
+        while (true) {
+            j = (j + 1) & m;
+            if (keys[j] == null) break;
+            int home = slot(keyAt(j), m);
+            if (((j - home) & m) >= ((j - hole) & m)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+    }
+
+    private void resize(int cap){
+        Object[] ok = keys, ov = values;
+        keys = new Object[cap];
+        values = new Object[cap];
+        int m = cap - 1;
+        for (int i = 0; i < ok.length; i++) {
+            if (ok[i] == null) continue;
+            @SuppressWarnings("unchecked") int j = slot((K) ok[i], m);
+            while (keys[j] != null) j = (j + 1) & m;
+            keys[j] = ok[i];
+            values[j] = ov[i];
+        }
+    }
+}
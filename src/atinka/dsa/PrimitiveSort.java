@@ -0,0 +1,233 @@
+package atinka.dsa;
+
+/**
+ * In-place introsort for primitive arrays (used by IntVec / LongVec / DoubleVec).
+ * Quicksort with median-of-three pivots, insertion sort for short ranges and a
+ * heapsort fallback when recursion gets too deep, so worst case stays O(n log n).
+ * Not stable (irrelevant for primitives). No java.util.
+ */
+final class PrimitiveSort {
+    private PrimitiveSort(){}
+
+    private static final int INSERTION_CUTOFF = 24;
+
+    private static int log2(int n) { return 31 - Integer.numberOfLeadingZeros(n); }
+
+    private static boolean lt(int a, int b) { return a < b; }
+    private static boolean lt(long a, long b) { return a < b; }
+    /** Total order matching Double.compare (-0.0 < 0.0, NaN greatest). */
+    private static boolean lt(double a, double b) { return Double.compare(a, b) < 0; }
+
+    // ---------------- int[] ----------------
+
+    static void sort(int[] a, int lo, int hi) {
+        if (hi - lo < 2) return;
+        introSort(a, lo, hi - 1, 2 * log2(hi - lo));
+    }
+
+    private static void introSort(int[] a, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_CUTOFF) {
+            if (depth-- == 0) { heapSort(a, lo, hi + 1); return; }
+            int p = partition(a, lo, hi);
+            // recurse into the smaller side, loop on the larger (bounded stack)
+            if (p - lo < hi - p) { introSort(a, lo, p - 1, depth); lo = p + 1; }
+            else { introSort(a, p + 1, hi, depth); hi = p - 1; }
+        }
+        insertion(a, lo, hi);
+    }
+
+    /** Hoare-style partition around a median-of-three pivot; returns its final index. */
+    private static int partition(int[] a, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (lt(a[mid], a[lo])) swap(a, mid, lo);
+        if (lt(a[hi], a[lo])) swap(a, hi, lo);
+        if (lt(a[hi], a[mid])) swap(a, hi, mid);
+        // a[lo] <= a[mid] <= a[hi]; park pivot at hi-1
+        swap(a, mid, hi - 1);
+        int pivot = a[hi - 1];
+        int i = lo, j = hi - 1;
+        while (true) {
+            while (lt(a[++i], pivot)) { }
+            while (lt(pivot, a[--j])) { }
+            if (i >= j) break;
+            swap(a, i, j);
+        }
+        swap(a, i, hi - 1);
+        return i;
+    }
+
+    private static void insertion(int[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            int key = a[i];
+            int j = i - 1;
+            while (j >= lo && lt(key, a[j])) { a[j + 1] = a[j]; j--; }
+            a[j + 1] = key;
+        }
+    }
+
+    private static void heapSort(int[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int lo, int i, int n) {
+        int v = a[lo + i];
+        while (true) {
+            int c = (i << 1) + 1;
+            if (c >= n) break;
+            if (c + 1 < n && lt(a[lo + c], a[lo + c + 1])) c++;
+            if (!lt(v, a[lo + c])) break;
+            a[lo + i] = a[lo + c];
+            i = c;
+        }
+        a[lo + i] = v;
+    }
+
+    private static void swap(int[] a, int i, int j) { int t = a[i]; a[i] = a[j]; a[j] = t; }
+
+    // ---------------- long[] ----------------
+
+    static void sort(long[] a, int lo, int hi) {
+        if (hi - lo < 2) return;
+        introSort(a, lo, hi - 1, 2 * log2(hi - lo));
+    }
+
+    private static void introSort(long[] a, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_CUTOFF) {
+            if (depth-- == 0) { heapSort(a, lo, hi + 1); return; }
+            int p = partition(a, lo, hi);
+            // recurse into the smaller side, loop on the larger (bounded stack)
+            if (p - lo < hi - p) { introSort(a, lo, p - 1, depth); lo = p + 1; }
+            else { introSort(a, p + 1, hi, depth); hi = p - 1; }
+        }
+        insertion(a, lo, hi);
+    }
+
+    /** Hoare-style partition around a median-of-three pivot; returns its final index. */
+    private static int partition(long[] a, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (lt(a[mid], a[lo])) swap(a, mid, lo);
+        if (lt(a[hi], a[lo])) swap(a, hi, lo);
+        if (lt(a[hi], a[mid])) swap(a, hi, mid);
+        // a[lo] <= a[mid] <= a[hi]; park pivot at hi-1
+        swap(a, mid, hi - 1);
+        long pivot = a[hi - 1];
+        int i = lo, j = hi - 1;
+        while (true) {
+            while (lt(a[++i], pivot)) { }
+            while (lt(pivot, a[--j])) { }
+            if (i >= j) break;
+            swap(a, i, j);
+        }
+        swap(a, i, hi - 1);
+        return i;
+    }
+
+    private static void insertion(long[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            long key = a[i];
+            int j = i - 1;
+            while (j >= lo && lt(key, a[j])) { a[j + 1] = a[j]; j--; }
+            a[j + 1] = key;
+        }
+    }
+
+    private static void heapSort(long[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] a, int lo, int i, int n) {
+        long v = a[lo + i];
+        while (true) {
+            int c = (i << 1) + 1;
+            if (c >= n) break;
+            if (c + 1 < n && lt(a[lo + c], a[lo + c + 1])) c++;
+            if (!lt(v, a[lo + c])) break;
+            a[lo + i] = a[lo + c];
+            i = c;
+        }
+        a[lo + i] = v;
+    }
+
+    private static void swap(long[] a, int i, int j) { long t = a[i]; a[i] = a[j]; a[j] = t; }
+
+    // ---------------- double[] ----------------
+
+    static void sort(double[] a, int lo, int hi) {
+        if (hi - lo < 2) return;
+        introSort(a, lo, hi - 1, 2 * log2(hi - lo));
+    }
+
+    private static void introSort(double[] a, int lo, int hi, int depth) {
+        while (hi - lo >= INSERTION_CUTOFF) {
+            if (depth-- == 0) { heapSort(a, lo, hi + 1); return; }
+            int p = partition(a, lo, hi);
+            // recurse into the smaller side, loop on the larger (bounded stack)
+            if (p - lo < hi - p) { introSort(a, lo, p - 1, depth); lo = p + 1; }
+            else { introSort(a, p + 1, hi, depth); hi = p - 1; }
+        }
+        insertion(a, lo, hi);
+    }
+
+    /** Hoare-style partition around a median-of-three pivot; returns its final index. */
+    private static int partition(double[] a, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (lt(a[mid], a[lo])) swap(a, mid, lo);
+        if (lt(a[hi], a[lo])) swap(a, hi, lo);
+        if (lt(a[hi], a[mid])) swap(a, hi, mid);
+        // a[lo] <= a[mid] <= a[hi]; park pivot at hi-1
+        swap(a, mid, hi - 1);
+        double pivot = a[hi - 1];
+        int i = lo, j = hi - 1;
+        while (true) {
+            while (lt(a[++i], pivot)) { }
+            while (lt(pivot, a[--j])) { }
+            if (i >= j) break;
+            swap(a, i, j);
+        }
+        swap(a, i, hi - 1);
+        return i;
+    }
+
+    private static void insertion(double[] a, int lo, int hi) {
+        for (int i = lo + 1; i <= hi; i++) {
+            double key = a[i];
+            int j = i - 1;
+            while (j >= lo && lt(key, a[j])) { a[j + 1] = a[j]; j--; }
+            a[j + 1] = key;
+        }
+    }
+
+    private static void heapSort(double[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = (n >>> 1) - 1; i >= 0; i--) siftDown(a, lo, i, n);
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] a, int lo, int i, int n) {
+        double v = a[lo + i];
+        while (true) {
+            int c = (i << 1) + 1;
+            if (c >= n) break;
+            if (c + 1 < n && lt(a[lo + c], a[lo + c + 1])) c++;
+            if (!lt(v, a[lo + c])) break;
+            a[lo + i] = a[lo + c];
+            i = c;
+        }
+        a[lo + i] = v;
+    }
+
+    private static void swap(double[] a, int i, int j) { double t = a[i]; a[i] = a[j]; a[j] = t; }
+}
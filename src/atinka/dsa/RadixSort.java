@@ -0,0 +1,142 @@
+package atinka.dsa;
+
+/**
+ * LSD radix sort of a Vec by an int or long key: O(n) per byte of key, no comparisons.
+ * - Keys are extracted once per element into a primitive array, then sorted 8 bits
+ *   per pass (4 passes for int, 8 for long) together with the elements
+ * - Stable: equal keys keep their input order, so a previous sort acts as tie-break
+ * - Passes whose byte is the same for every key are skipped (e.g. the high bytes
+ *   of epoch days or stock counts), so small key ranges cost 2–3 passes
+ * - Signed order (negative keys first); for descending order sort by ~key
+ * An instance keeps its scratch buffers between calls, so repeated report sorts
+ * allocate nothing; the static byInt/byLong allocate per call. Not thread-safe.
+ */
+public final class RadixSort {
+    private static final int RADIX = 256;
+
+    private Object[] scratch = new Object[0];
+    private int[] ikeys = new int[0], ikeys2 = new int[0];
+    private long[] lkeys = new long[0], lkeys2 = new long[0];
+    private final int[] counts = new int[8 * RADIX];
+
+    /** Stable sort of v by an int key. */
+    public static <T> void byInt(Vec<T> v, IntKeyOf<T> key){ new RadixSort().sortByInt(v, key); }
+
+    /** Stable sort of v by a long key. */
+    public static <T> void byLong(Vec<T> v, LongKeyOf<T> key){ new RadixSort().sortByLong(v, key); }
+
+    /**
+     * Monotone map of a double to a long (same order as Double.compare, except that
+     * -0.0 and 0.0 are equal), for sorting by prices or amounts.
+     */
+    public static long sortableDouble(double x){
+        long b = Double.doubleToLongBits(x + 0.0);   // + 0.0 folds -0.0 into 0.0
+        return b < 0 ? b ^ Long.MAX_VALUE : b;       // negatives: reverse their magnitude order
+    }
+
+    // ---------------- int keys ----------------
+
+    public <T> void sortByInt(Vec<T> v, IntKeyOf<T> key){
+        int n = v.size();
+        if (n < 2) return;
+        Object[] a = v.array();
+        ensure(n, false);
+        int[] ks = ikeys, kd = ikeys2;
+        for (int i = 0; i < n; i++) ks[i] = key.key(cast(a[i])) ^ Integer.MIN_VALUE;   // signed → unsigned order
+
+        int[] c = counts;
+        clear(c, 4 * RADIX);
+        for (int i = 0; i < n; i++) {
+            int k = ks[i];
+            c[k & 0xFF]++;
+            c[RADIX + ((k >>> 8) & 0xFF)]++;
+            c[2 * RADIX + ((k >>> 16) & 0xFF)]++;
+            c[3 * RADIX + (k >>> 24)]++;
+        }
+
+        Object[] src = a, dst = scratch;
+        for (int p = 0; p < 4; p++) {
+            int off = p * RADIX, shift = p * 8;
+            if (c[off + ((ks[0] >>> shift) & 0xFF)] == n) continue;   // same byte everywhere
+            toOffsets(c, off);
+            for (int i = 0; i < n; i++) {
+                int k = ks[i];
+                int at = c[off + ((k >>> shift) & 0xFF)]++;
+                kd[at] = k;
+                dst[at] = src[i];
+            }
+            int[] kt = ks; ks = kd; kd = kt;
+            Object[] t = src; src = dst; dst = t;
+        }
+        finish(a, src, n);
+    }
+
+    // ---------------- long keys ----------------
+
+    public <T> void sortByLong(Vec<T> v, LongKeyOf<T> key){
+        int n = v.size();
+        if (n < 2) return;
+        Object[] a = v.array();
+        ensure(n, true);
+        long[] ks = lkeys, kd = lkeys2;
+        for (int i = 0; i < n; i++) ks[i] = key.key(cast(a[i])) ^ Long.MIN_VALUE;
+
+        int[] c = counts;
+        clear(c, 8 * RADIX);
+        for (int i = 0; i < n; i++) {
+            long k = ks[i];
+            for (int p = 0; p < 8; p++) c[p * RADIX + (int) ((k >>> (p * 8)) & 0xFF)]++;
+        }
+
+        Object[] src = a, dst = scratch;
+        for (int p = 0; p < 8; p++) {
+            int off = p * RADIX, shift = p * 8;
+            if (c[off + (int) ((ks[0] >>> shift) & 0xFF)] == n) continue;
+            toOffsets(c, off);
+            for (int i = 0; i < n; i++) {
+                long k = ks[i];
+                int at = c[off + (int) ((k >>> shift) & 0xFF)]++;
+                kd[at] = k;
+                dst[at] = src[i];
+            }
+            long[] kt = ks; ks = kd; kd = kt;
+            Object[] t = src; src = dst; dst = t;
+        }
+        finish(a, src, n);
+    }
+
+    // ---------------- internals ----------------
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object o){ return (T) o; }
+
+    /** Histogram → exclusive prefix sums (start index of each byte value). */
+    private static void toOffsets(int[] c, int off){
+        int sum = 0;
+        for (int d = off; d < off + RADIX; d++) {
+            int x = c[d];
+            c[d] = sum;
+            sum += x;
+        }
+    }
+
+    private static void clear(int[] c, int len){
+        for (int i = 0; i < len; i++) c[i] = 0;
+    }
+
+    /** Result may have ended in scratch; copy it home and drop scratch's references. */
+    private void finish(Object[] a, Object[] result, int n){
+        if (result != a) System.arraycopy(result, 0, a, 0, n);
+        Object[] s = scratch;
+        for (int i = 0; i < n; i++) s[i] = null;
+    }
+
+    private void ensure(int n, boolean longKeys){
+        if (scratch.length < n) scratch = new Object[n];
+        if (longKeys) {
+            if (lkeys.length < n) { lkeys = new long[n]; lkeys2 = new long[n]; }
+        } else {
+            if (ikeys.length < n) { ikeys = new int[n]; ikeys2 = new int[n]; }
+        }
+    }
+}
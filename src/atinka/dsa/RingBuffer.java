@@ -0,0 +1,204 @@
+package atinka.dsa;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * RingBuffer<E> — preallocated ring of mutable slots (Disruptor-style), many producers, one consumer.
+ * - Every slot is created once by a SlotFactory and then overwritten in place: no allocation per event
+ * - Producers claim sequence numbers with one CAS (next), fill get(seq), then publish(seq)
+ * - The consumer handles every published event in order, in batches, with an endOfBatch flag
+ *   so it can flush once per batch (see SaleLogCsv.batchWriter)
+ * - While idle the consumer waits by a WaitStrategy: BUSY_SPIN, YIELD or PARK
+ * A slot belongs to its producer between next() and publish(), and to the consumer during
+ * its callback; nobody may keep a reference to it afterwards. Only one thread may consume.
+ */
+public final class RingBuffer<E> {
+    private static final VarHandle AVAIL = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle CLAIMED;
+    private static final VarHandle CONSUMED;
+    static {
+        try {
+            MethodHandles.Lookup l = MethodHandles.lookup();
+            CLAIMED = l.findVarHandle(RingBuffer.class, "claimed", long.class);
+            CONSUMED = l.findVarHandle(RingBuffer.class, "consumed", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public interface SlotFactory<E> {
+        E newSlot();
+    }
+
+    /** Fills a claimed slot from arg (a non-capturing lambda keeps publishing allocation-free). */
+    public interface SlotWriter<E, A> {
+        void write(E slot, A arg);
+    }
+
+    public interface BatchHandler<E> {
+        void onEvent(E slot, long seq, boolean endOfBatch);
+    }
+
+    /** How the consumer waits for the next event: latency vs. CPU burnt while idle. */
+    public enum WaitStrategy {
+        /** Spins on the CPU: lowest hand-off latency, needs a core of its own. */
+        BUSY_SPIN,
+        /** Spins briefly, then yields to other threads. */
+        YIELD,
+        /** Spins briefly, then parks ~50 µs at a time: near-zero idle CPU, slowest to wake. */
+        PARK;
+
+        /** One idle step; round counts the steps taken so far. */
+        void idle(int round){
+            if (this == BUSY_SPIN || round < 100) Thread.onSpinWait();
+            else if (this == YIELD) Thread.yield();
+            else LockSupport.parkNanos(50_000L);
+        }
+    }
+
+    private final Object[] slots;
+    /** available[i] == lap of the sequence last published into slot i (-1 = never). */
+    private final int[] available;
+    private final int mask;
+    private final int shift;
+
+    // padding (best effort: field layout is up to the JVM) keeps the hot sequences apart
+    @SuppressWarnings("unused") private long p1, p2, p3, p4, p5, p6, p7;
+    private volatile long claimed = -1;   // highest sequence handed to a producer
+    @SuppressWarnings("unused") private long q1, q2, q3, q4, q5, q6, q7;
+    private volatile long consumed = -1;  // highest sequence the consumer is done with
+    @SuppressWarnings("unused") private long r1, r2, r3, r4, r5, r6, r7;
+    private volatile boolean halted;
+
+    /** @param capacity rounded up to a power of two (at least 2) */
+    public RingBuffer(int capacity, SlotFactory<E> factory){
+        if (factory == null) throw new IllegalArgumentException("factory is null");
+        int c = 2;
+        while (c < capacity) c <<= 1;
+        slots = new Object[c];
+        available = new int[c];
+        for (int i = 0; i < c; i++) {
+            slots[i] = factory.newSlot();
+            available[i] = -1;
+        }
+        mask = c - 1;
+        shift = Integer.numberOfTrailingZeros(c);
+    }
+
+    public int capacity(){ return slots.length; }
+
+    /** Claimed but not yet consumed; approximate while threads are active. */
+    public int size(){
+        long s = (long) CLAIMED.getVolatile(this) - (long) CONSUMED.getVolatile(this);
+        return s < 0 ? 0 : (int) Math.min(s, slots.length);
+    }
+
+    /** The slot for sequence seq (producer: after next(); consumer: inside onEvent). */
+    @SuppressWarnings("unchecked")
+    public E get(long seq){ return (E) slots[(int) seq & mask]; }
+
+    // ---------------- producers (any thread) ----------------
+
+    /** Claims the next sequence, waiting while the ring is full. */
+    public long next(){ return next(1); }
+
+    /** Claims n consecutive sequences and returns the highest; waits while the ring is full. */
+    public long next(int n){
+        if (n < 1 || n > slots.length) throw new IllegalArgumentException("n must be 1.." + slots.length);
+        while (true) {
+            long c = claimed;
+            long hi = c + n;
+            if (hi - slots.length > consumed) {       // would lap the consumer
+                LockSupport.parkNanos(1L);
+                continue;
+            }
+            if (CLAIMED.compareAndSet(this, c, hi)) return hi;
+        }
+    }
+
+    /** Claims the next sequence, or returns -1 at once if the ring is full. */
+    public long tryNext(){
+        while (true) {
+            long c = claimed;
+            long hi = c + 1;
+            if (hi - slots.length > consumed) return -1;
+            if (CLAIMED.compareAndSet(this, c, hi)) return hi;
+        }
+    }
+
+    /** Makes the slot for seq visible to the consumer. */
+    public void publish(long seq){
+        AVAIL.setRelease(available, (int) seq & mask, (int) (seq >>> shift));
+    }
+
+    /** Publishes lo..hi (as claimed by next(n)). */
+    public void publish(long lo, long hi){
+        for (long s = lo; s <= hi; s++) publish(s);
+    }
+
+    /** Claims a slot, fills it with w and publishes it. */
+    public <A> void publish(SlotWriter<E, A> w, A arg){
+        long seq = next();
+        try {
+            w.write(get(seq), arg);
+        } finally {
+            publish(seq);   // a claimed slot must always be published or the consumer stalls
+        }
+    }
+
+    /** As publish(w, arg), but false instead of waiting when the ring is full. */
+    public <A> boolean tryPublish(SlotWriter<E, A> w, A arg){
+        long seq = tryNext();
+        if (seq < 0) return false;
+        try {
+            w.write(get(seq), arg);
+        } finally {
+            publish(seq);
+        }
+        return true;
+    }
+
+    private boolean isPublished(long seq){
+        return (int) AVAIL.getAcquire(available, (int) seq & mask) == (int) (seq >>> shift);
+    }
+
+    // ---------------- consumer (one thread) ----------------
+
+    /**
+     * Hands every event published right now to h, in sequence order, without waiting; returns
+     * how many. Slots go back to producers after the whole batch, so if h throws, nothing is
+     * released and the batch is handed over again next time.
+     */
+    public int poll(BatchHandler<E> h){
+        long lo = consumed + 1;
+        long hi = lo - 1;
+        long top = claimed;
+        while (hi < top && isPublished(hi + 1)) hi++;
+        if (hi < lo) return 0;
+        for (long s = lo; s <= hi; s++) h.onEvent(get(s), s, s == hi);
+        CONSUMED.setRelease(this, hi);
+        return (int) (hi - lo + 1);
+    }
+
+    /** Waits (by w) until at least one event is published or the ring is halted, then poll(h). */
+    public int process(BatchHandler<E> h, WaitStrategy w){
+        int round = 0;
+        while (true) {
+            int n = poll(h);
+            if (n > 0 || halted) return n;
+            w.idle(round++);
+        }
+    }
+
+    /** Consumer loop: handles events until halt() is called and everything published is handled. */
+    public void run(BatchHandler<E> h, WaitStrategy w){
+        while (!halted || poll(h) > 0) process(h, w);
+    }
+
+    /** Asks run()/process() to return once the ring is drained. */
+    public void halt(){ halted = true; }
+
+    public boolean isHalted(){ return halted; }
+}
@@ -0,0 +1,239 @@
+package atinka.dsa;
+
+/**
+ * SkipList<K,V> — ordered key→value index (no java.util).
+ * - O(log n) expected put/remove/get/floor/ceiling; range scans O(log n + m)
+ * - Unique keys by default (put replaces the value)
+ * - With a tie comparator on values, equal keys are allowed and kept ordered by
+ *   (key, tie): a secondary index such as price→drug, where many drugs share a
+ *   price, is then a SkipList<Double, Drug> with ties broken by code
+ * Not thread-safe.
+ */
+public final class SkipList<K, V> {
+    private static final int MAX_LEVEL = 24;   // ample for 4^24 entries at p = 1/4
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        final Node<K, V>[] next;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node(K key, V value, int level){ this.key = key; this.value = value; this.next = (Node<K, V>[]) new Node[level]; }
+    }
+
+    private final Comparator<K> keyCmp;
+    private final Comparator<V> tieCmp;   // null = unique keys
+    private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Node<K, V>[] update = (Node<K, V>[]) new Node[MAX_LEVEL];
+    private int level = 1;
+    private int n;
+    private int seed = 0x2545F491;
+
+    /** Unique keys. */
+    public SkipList(Comparator<K> keyCmp){ this(keyCmp, null); }
+
+    /** Duplicate keys allowed, ordered among themselves by tieCmp on the values. */
+    public SkipList(Comparator<K> keyCmp, Comparator<V> tieCmp){
+        if (keyCmp == null) throw new IllegalArgumentException("comparator is null");
+        this.keyCmp = keyCmp;
+        this.tieCmp = tieCmp;
+    }
+
+    public int size(){ return n; }
+    public boolean isEmpty(){ return n == 0; }
+
+    /** Order of node x against (k, v); v is ignored for unique keys. */
+    private int cmp(Node<K, V> x, K k, V v){
+        int c = keyCmp.compare(x.key, k);
+        if (c != 0 || tieCmp == null) return c;
+        return tieCmp.compare(x.value, v);
+    }
+
+    /** Fills update[] with the last node before (k, v) on every level; returns the candidate. */
+    private Node<K, V> seek(K k, V v){
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && cmp(x.next[i], k, v) < 0) x = x.next[i];
+            update[i] = x;
+        }
+        return x.next[0];
+    }
+
+    /** Geometric level, p = 1/4 (xorshift; no java.util.Random). */
+    private int randomLevel(){
+        int s = seed;
+        s ^= s << 13; s ^= s >>> 17; s ^= s << 5;
+        seed = s;
+        int lvl = 1;
+        while ((s & 3) == 0 && lvl < MAX_LEVEL) { lvl++; s >>>= 2; }
+        return lvl;
+    }
+
+    // ---------------- updates ----------------
+
+    /**
+     * Inserts (k, v). Unique mode: replaces the value of an equal key. Tie mode:
+     * replaces an entry equal in both key and tie. Returns the replaced value or null.
+     */
+    public V put(K k, V v){
+        Node<K, V> x = seek(k, v);
+        if (x != null && cmp(x, k, v) == 0) {
+            V old = x.value;
+            x.value = v;
+            return old;
+        }
+        int lvl = randomLevel();
+        if (lvl > level) {
+            for (int i = level; i < lvl; i++) update[i] = head;
+            level = lvl;
+        }
+        Node<K, V> nn = new Node<>(k, v, lvl);
+        for (int i = 0; i < lvl; i++) {
+            nn.next[i] = update[i].next[i];
+            update[i].next[i] = nn;
+        }
+        n++;
+        return null;
+    }
+
+    /** Unique mode: removes key k. Tie mode: removes the first entry with key k. */
+    public V remove(K k){
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && keyCmp.compare(x.next[i].key, k) < 0) x = x.next[i];
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || keyCmp.compare(x.key, k) != 0) return null;
+        unlink(x);
+        return x.value;
+    }
+
+    /** Removes the entry (k, v) (tie mode: matched by key and tie). Returns its value or null. */
+    public V remove(K k, V v){
+        Node<K, V> x = seek(k, v);
+        if (x == null || cmp(x, k, v) != 0) return null;
+        unlink(x);
+        return x.value;
+    }
+
+    /** x must be update[0].next[0] with update[] filled by the preceding search. */
+    private void unlink(Node<K, V> x){
+        for (int i = 0; i < x.next.length; i++) {
+            if (update[i].next[i] != x) break;
+            update[i].next[i] = x.next[i];
+        }
+        while (level > 1 && head.next[level - 1] == null) level--;
+        n--;
+    }
+
+    public void clear(){
+        for (int i = 0; i < MAX_LEVEL; i++) head.next[i] = null;
+        level = 1;
+        n = 0;
+    }
+
+    // ---------------- point queries ----------------
+
+    /** Value of the first entry with key k, or null. */
+    public V get(K k){
+        Node<K, V> x = ceilingNode(k, true);
+        return (x != null && keyCmp.compare(x.key, k) == 0) ? x.value : null;
+    }
+
+    public boolean containsKey(K k){
+        Node<K, V> x = ceilingNode(k, true);
+        return x != null && keyCmp.compare(x.key, k) == 0;
+    }
+
+    public V first(){ return head.next[0] == null ? null : head.next[0].value; }
+    public K firstKey(){ return head.next[0] == null ? null : head.next[0].key; }
+
+    public V last(){ Node<K, V> x = lastNode(); return x == null ? null : x.value; }
+    public K lastKey(){ Node<K, V> x = lastNode(); return x == null ? null : x.key; }
+
+    /** First value with key >= k (null if none). */
+    public V ceiling(K k){ Node<K, V> x = ceilingNode(k, true); return x == null ? null : x.value; }
+    /** First value with key > k. */
+    public V higher(K k){ Node<K, V> x = ceilingNode(k, false); return x == null ? null : x.value; }
+    /** Last value with key <= k. */
+    public V floor(K k){ Node<K, V> x = floorNode(k, true); return x == null ? null : x.value; }
+    /** Last value with key < k. */
+    public V lower(K k){ Node<K, V> x = floorNode(k, false); return x == null ? null : x.value; }
+
+    public K ceilingKey(K k){ Node<K, V> x = ceilingNode(k, true); return x == null ? null : x.key; }
+    public K floorKey(K k){ Node<K, V> x = floorNode(k, true); return x == null ? null : x.key; }
+
+    private Node<K, V> ceilingNode(K k, boolean inclusive){
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i].key, k, inclusive)) x = x.next[i];
+        }
+        return x.next[0];
+    }
+
+    private Node<K, V> floorNode(K k, boolean inclusive){
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !after(x.next[i].key, k, inclusive)) x = x.next[i];
+        }
+        return x == head ? null : x;
+    }
+
+    private Node<K, V> lastNode(){
+        Node<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null) x = x.next[i];
+        }
+        return x == head ? null : x;
+    }
+
+    /** key lies strictly before the lower bound k (inclusive) or at/before it (exclusive). */
+    private boolean before(K key, K k, boolean inclusive){
+        int c = keyCmp.compare(key, k);
+        return inclusive ? c < 0 : c <= 0;
+    }
+
+    /** key lies past the upper bound k. */
+    private boolean after(K key, K k, boolean inclusive){
+        int c = keyCmp.compare(key, k);
+        return inclusive ? c > 0 : c >= 0;
+    }
+
+    // ---------------- ordered iteration ----------------
+
+    public interface EntryConsumer<K, V> {
+        void accept(K k, V v);
+    }
+
+    /** All entries in order. */
+    public void forEach(EntryConsumer<K, V> c){
+        for (Node<K, V> x = head.next[0]; x != null; x = x.next[0]) c.accept(x.key, x.value);
+    }
+
+    /**
+     * Entries between from and to (each bound inclusive or not), in order. A null bound is open-ended.
+     * O(log n + m) for m entries visited.
+     */
+    public void range(K from, boolean fromInclusive, K to, boolean toInclusive, EntryConsumer<K, V> c){
+        Node<K, V> x = from == null ? head.next[0] : ceilingNode(from, fromInclusive);
+        for (; x != null; x = x.next[0]) {
+            if (to != null && after(x.key, to, toInclusive)) break;
+            c.accept(x.key, x.value);
+        }
+    }
+
+    /** Values with from <= key <= to (null bound = open), in key order. */
+    public Vec<V> valuesBetween(K from, K to){
+        Vec<V> out = new Vec<>();
+        range(from, true, to, true, (k, v) -> out.add(v));
+        return out;
+    }
+
+    /** Values with key < to, in key order. */
+    public Vec<V> valuesBefore(K to){
+        Vec<V> out = new Vec<>();
+        range(null, true, to, false, (k, v) -> out.add(v));
+        return out;
+    }
+}
@@ -3,10 +3,24 @@ package atinka.dsa;
 public final class Sorting {
     private Sorting(){}
 
-    /** Uses insertion sort for tiny arrays, merge sort otherwise. */
+    /** Below this many elements parallelSort stays on the calling thread. */
+    public static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * Stable, run-adaptive sort (TimSort): near-linear on presorted or reversed
+     * input, O(n log n) otherwise; tiny inputs are binary-insertion sorted.
+     */
     public static <T> void sort(Vec<T> v, Comparator<T> cmp) {
-        int n = v.size();
-        if (n < 32) InsertionSort.sort(v, cmp);
-        else MergeSort.sort(v, cmp);
+        TimSort.sort(v, cmp);
+    }
+
+    /** Stable fork/join merge sort for large extracts (e.g. a sales log by time or revenue). */
+    public static <T> void parallelSort(Vec<T> v, Comparator<T> cmp) {
+        MergeSort.parallelSort(v, cmp, PARALLEL_THRESHOLD);
+    }
+
+    /** As parallelSort(v, cmp), with a custom per-task threshold (>= 32). */
+    public static <T> void parallelSort(Vec<T> v, Comparator<T> cmp, int threshold) {
+        MergeSort.parallelSort(v, cmp, threshold);
     }
 }
@@ -0,0 +1,126 @@
+package atinka.dsa;
+
+/**
+ * StringDict — dictionary encoder: each distinct String gets one canonical instance
+ * and a dense int id (0, 1, 2, ... in first-seen order).
+ * - intern(s) / id(s): look up or add; O(1) average
+ * - intern(line, from, to): same for a slice of a line, without creating a substring
+ *   unless the value is new (log readers call this per field)
+ * - Ids index plain arrays (e.g. per-code totals in a report) instead of a map
+ * Hashes are String.hashCode-compatible, so canonical instances reuse their cached hash
+ * and compare by identity first. Entries are never removed. Not thread-safe.
+ */
+public final class StringDict {
+    private String[] values = new String[16];   // id → string
+    private int[] hashes = new int[16];         // id → String.hashCode
+    private int[] slots;                        // id + 1, 0 = empty (linear probing)
+    private int n;
+
+    public StringDict(){ this(16); }
+
+    public StringDict(int expected){
+        int m = 16;
+        while (m < expected * 2) m <<= 1;
+        slots = new int[m];
+    }
+
+    public int size(){ return n; }
+
+    /** String with this id. */
+    public String get(int id){
+        if (id < 0 || id >= n) throw new IndexOutOfBoundsException("id " + id);
+        return values[id];
+    }
+
+    /** Id of s, or -1 if it was never added. */
+    public int idOf(String s){
+        if (s == null) return -1;
+        int h = s.hashCode(), m = slots.length - 1;
+        for (int i = mix(h) & m; ; i = (i + 1) & m) {
+            int e = slots[i];
+            if (e == 0) return -1;
+            String v = values[e - 1];
+            if (v == s || (hashes[e - 1] == h && v.equals(s))) return e - 1;
+        }
+    }
+
+    /** Id of s, adding it if new. */
+    public int id(String s){
+        if (s == null) throw new IllegalArgumentException("null string");
+        int h = s.hashCode(), m = slots.length - 1;
+        int i = mix(h) & m;
+        for (; ; i = (i + 1) & m) {
+            int e = slots[i];
+            if (e == 0) break;
+            String v = values[e - 1];
+            if (v == s || (hashes[e - 1] == h && v.equals(s))) return e - 1;
+        }
+        return insert(i, s, h);
+    }
+
+    /** Canonical instance equal to s (null stays null). */
+    public String intern(String s){
+        if (s == null) return null;
+        int id = id(s);          // may grow values: read the array after
+        return values[id];
+    }
+
+    /** Id of src[from, to), adding it if new. */
+    public int id(String src, int from, int to){
+        int h = 0;
+        for (int k = from; k < to; k++) h = 31 * h + src.charAt(k);
+        int m = slots.length - 1, len = to - from;
+        int i = mix(h) & m;
+        for (; ; i = (i + 1) & m) {
+            int e = slots[i];
+            if (e == 0) break;
+            if (hashes[e - 1] == h && sameChars(values[e - 1], src, from, len)) return e - 1;
+        }
+        return insert(i, src.substring(from, to), h);
+    }
+
+    /** Canonical instance equal to src.substring(from, to). */
+    public String intern(String src, int from, int to){
+        int id = id(src, from, to);
+        return values[id];
+    }
+
+    // ---------------- internals ----------------
+
+    private int insert(int slot, String s, int h){
+        if (n == values.length) {
+            String[] v = new String[n * 2];
+            int[] hs = new int[n * 2];
+            System.arraycopy(values, 0, v, 0, n);
+            System.arraycopy(hashes, 0, hs, 0, n);
+            values = v;
+            hashes = hs;
+        }
+        int id = n++;
+        values[id] = s;
+        hashes[id] = h;
+        slots[slot] = id + 1;
+        if (n * 2 > slots.length) rehash(slots.length * 2);
+        return id;
+    }
+
+    private void rehash(int m){
+        int[] s = new int[m];
+        for (int id = 0; id < n; id++) {
+            int i = mix(hashes[id]) & (m - 1);
+            while (s[i] != 0) i = (i + 1) & (m - 1);
+            s[i] = id + 1;
+        }
+        slots = s;
+    }
+
+    private static boolean sameChars(String v, String src, int from, int len){
+        return v.length() == len && src.regionMatches(from, v, 0, len);
+    }
+
+    /** Spreads String.hashCode's low bits (sequential codes differ only in the last chars). */
+    private static int mix(int h){
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,169 @@
+package atinka.dsa;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * StringPool — append-only UTF-8 strings in one direct (off-heap) ByteBuffer.
+ * - add(s) stores [int length][bytes] and returns the int offset as a reference
+ * - Comparisons and searches run on the stored bytes, so scans don't decode
+ *   (ASCII case folding, like Strings.compareIgnoreCase / indexOfIgnoreCase)
+ * - Replaced strings are released() as garbage; the owner rebuilds into a fresh
+ *   pool (copy) once garbage dominates
+ * NULL (-1) stands for a null String. Not thread-safe.
+ */
+public final class StringPool {
+    public static final int NULL = -1;
+
+    private ByteBuffer buf;
+    private int used;
+    private long garbage;
+    private byte[] scratch = new byte[64];   // containsIgnoreCase copy-out
+
+    public StringPool(int capacityBytes){
+        buf = ByteBuffer.allocateDirect(Math.max(64, capacityBytes)).order(ByteOrder.nativeOrder());
+    }
+
+    /** Bytes in use (live + garbage). */
+    public int used(){ return used; }
+    /** Bytes held by released strings. */
+    public long garbage(){ return garbage; }
+    /** Off-heap bytes reserved. */
+    public int capacity(){ return buf.capacity(); }
+
+    public int add(String s){
+        if (s == null) return NULL;
+        return addBytes(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Stores raw UTF-8 bytes; returns the reference. */
+    public int addBytes(byte[] b){
+        ensure(4 + b.length);
+        int ref = used;
+        buf.putInt(ref, b.length);
+        buf.put(ref + 4, b, 0, b.length);
+        used += 4 + b.length;
+        return ref;
+    }
+
+    /** Copies the string ref of another pool into this one (compaction). */
+    public int copyFrom(StringPool src, int ref){
+        if (ref == NULL) return NULL;
+        int n = src.byteLength(ref);
+        ensure(4 + n);
+        int out = used;
+        buf.putInt(out, n);
+        buf.put(out + 4, src.buf, ref + 4, n);
+        used += 4 + n;
+        return out;
+    }
+
+    /** Marks ref as no longer referenced. */
+    public void release(int ref){
+        if (ref != NULL) garbage += 4 + byteLength(ref);
+    }
+
+    public int byteLength(int ref){ return ref == NULL ? 0 : buf.getInt(ref); }
+
+    public String get(int ref){
+        if (ref == NULL) return null;
+        int n = buf.getInt(ref);
+        byte[] b = new byte[n];
+        buf.get(ref + 4, b, 0, n);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    // ---------------- byte-level queries ----------------
+
+    /** Stored string equals the UTF-8 bytes b exactly. */
+    public boolean equalsBytes(int ref, byte[] b){
+        if (ref == NULL) return b == null;
+        if (b == null || buf.getInt(ref) != b.length) return false;
+        int p = ref + 4;
+        for (int i = 0; i < b.length; i++) if (buf.get(p + i) != b[i]) return false;
+        return true;
+    }
+
+    /** ASCII case-insensitive order of two stored strings (NULL first). */
+    public int compareIgnoreCase(int a, int b){
+        if (a == b) return 0;
+        if (a == NULL) return -1;
+        if (b == NULL) return 1;
+        int na = buf.getInt(a), nb = buf.getInt(b), n = Math.min(na, nb);
+        for (int i = 0; i < n; i++) {
+            int x = lower(buf.get(a + 4 + i)), y = lower(buf.get(b + 4 + i));
+            if (x != y) return x < y ? -1 : 1;
+        }
+        return na == nb ? 0 : (na < nb ? -1 : 1);
+    }
+
+    /** Byte order of two stored strings (UTF-8 order = code point order), NULL first. */
+    public int compare(int a, int b){
+        if (a == b) return 0;
+        if (a == NULL) return -1;
+        if (b == NULL) return 1;
+        int na = buf.getInt(a), nb = buf.getInt(b), n = Math.min(na, nb);
+        for (int i = 0; i < n; i++) {
+            int x = buf.get(a + 4 + i) & 0xFF, y = buf.get(b + 4 + i) & 0xFF;
+            if (x != y) return x < y ? -1 : 1;
+        }
+        return na == nb ? 0 : (na < nb ? -1 : 1);
+    }
+
+    /** Stored string contains needle (UTF-8, ASCII lower-cased) ignoring ASCII case. */
+    public boolean containsIgnoreCase(int ref, byte[] needleLower){
+        if (ref == NULL) return false;
+        int n = buf.getInt(ref), m = needleLower.length;
+        if (m == 0) return true;
+        if (m > n) return false;
+        if (scratch.length < n) scratch = new byte[Math.max(n, scratch.length * 2)];
+        byte[] s = scratch;
+        buf.get(ref + 4, s, 0, n);                 // one bulk copy, then plain array reads
+        byte first = needleLower[0];
+        for (int i = 0, last = n - m; i <= last; i++) {
+            if (lower(s[i]) != first) continue;
+            int k = 1;
+            while (k < m && lower(s[i + k]) == needleLower[k]) k++;
+            if (k == m) return true;
+        }
+        return false;
+    }
+
+    /** Stored string, split on sep, has a part equal to token. */
+    public boolean containsToken(int ref, byte[] token, byte sep){
+        if (ref == NULL) return false;
+        int n = buf.getInt(ref), p = ref + 4, start = 0;
+        for (int i = 0; i <= n; i++) {
+            if (i == n || buf.get(p + i) == sep) {
+                if (i - start == token.length) {
+                    int k = 0;
+                    while (k < token.length && buf.get(p + start + k) == token[k]) k++;
+                    if (k == token.length) return true;
+                }
+                start = i + 1;
+            }
+        }
+        return false;
+    }
+
+    /** UTF-8 bytes of s with A–Z lowered, for containsIgnoreCase. */
+    public static byte[] lowerAscii(String s){
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < b.length; i++) b[i] = (byte) lower(b[i]);
+        return b;
+    }
+
+    private static int lower(byte c){
+        return (c >= 'A' && c <= 'Z') ? c + 32 : c;
+    }
+
+    private void ensure(int extra){
+        if ((long) used + extra <= buf.capacity()) return;
+        long cap = Math.max((long) buf.capacity() * 2, (long) used + extra);
+        if (cap > Integer.MAX_VALUE - 8) throw new IllegalStateException("string pool full");
+        ByteBuffer b = ByteBuffer.allocateDirect((int) cap).order(ByteOrder.nativeOrder());
+        b.put(0, buf, 0, used);
+        buf = b;
+    }
+}
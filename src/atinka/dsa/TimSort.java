@@ -0,0 +1,416 @@
+package atinka.dsa;
+
+/**
+ * TimSort — stable, natural-run-detecting merge sort (no java.util).
+ * - Scans for existing ascending runs; strictly descending runs are reversed in place
+ * - Short runs are extended to minRun with binary insertion sort
+ * - Runs are merged from a stack that keeps merges balanced
+ * - Merges "gallop" (exponential + binary search) when one run keeps winning
+ *
+ * Presorted or reverse-sorted input costs n-1 comparisons; random input stays
+ * O(n log n). Extra space is at most n/2 references. Works in place on the Vec
+ * backing array.
+ */
+@SuppressWarnings("unchecked")
+public final class TimSort<T> {
+    /** Arrays shorter than this are binary-insertion sorted in one go. */
+    private static final int MIN_MERGE = 32;
+    /** Consecutive wins before a merge switches to galloping. */
+    private static final int MIN_GALLOP = 7;
+
+    private final Object[] a;
+    private final Comparator<T> c;
+    private int minGallop = MIN_GALLOP;
+    private Object[] tmp;
+
+    // pending runs: run i spans a[runBase[i], runBase[i] + runLen[i])
+    private int stackSize = 0;
+    private final int[] runBase;
+    private final int[] runLen;
+
+    private TimSort(Object[] a, Comparator<T> c, int n){
+        this.a = a;
+        this.c = c;
+        this.tmp = new Object[Math.min(256, Math.max(1, n >>> 1))];
+        // enough for 2^64 elements given the run-length invariants
+        int stackLen = n < 120 ? 5 : n < 1542 ? 10 : n < 119151 ? 24 : 49;
+        runBase = new int[stackLen];
+        runLen = new int[stackLen];
+    }
+
+    public static <T> void sort(Vec<T> v, Comparator<T> cmp){
+        sort(v.array(), 0, v.size(), cmp);
+    }
+
+    /** Sorts a[lo, hi) in place; stable. */
+    static <T> void sort(Object[] a, int lo, int hi, Comparator<T> c){
+        int remaining = hi - lo;
+        if (remaining < 2) return;
+
+        if (remaining < MIN_MERGE) {
+            int initRun = countRunAndMakeAscending(a, lo, hi, c);
+            binaryInsertionSort(a, lo, hi, lo + initRun, c);
+            return;
+        }
+
+        TimSort<T> ts = new TimSort<>(a, c, remaining);
+        int minRun = minRunLength(remaining);
+        do {
+            int runLen = countRunAndMakeAscending(a, lo, hi, c);
+            if (runLen < minRun) {
+                int force = remaining <= minRun ? remaining : minRun;
+                binaryInsertionSort(a, lo, lo + force, lo + runLen, c);
+                runLen = force;
+            }
+            ts.pushRun(lo, runLen);
+            ts.mergeCollapse();
+            lo += runLen;
+            remaining -= runLen;
+        } while (remaining != 0);
+
+        ts.mergeForceCollapse();
+    }
+
+    // ---------------- runs ----------------
+
+    /**
+     * Length of the run starting at lo. A strictly descending run is reversed so
+     * it becomes ascending (strictness keeps equal elements in order).
+     */
+    private static <T> int countRunAndMakeAscending(Object[] a, int lo, int hi, Comparator<T> c){
+        int runHi = lo + 1;
+        if (runHi == hi) return 1;
+        if (c.compare((T) a[runHi++], (T) a[lo]) < 0) {
+            while (runHi < hi && c.compare((T) a[runHi], (T) a[runHi - 1]) < 0) runHi++;
+            reverseRange(a, lo, runHi);
+        } else {
+            while (runHi < hi && c.compare((T) a[runHi], (T) a[runHi - 1]) >= 0) runHi++;
+        }
+        return runHi - lo;
+    }
+
+    private static void reverseRange(Object[] a, int lo, int hi){
+        hi--;
+        while (lo < hi) {
+            Object t = a[lo];
+            a[lo++] = a[hi];
+            a[hi--] = t;
+        }
+    }
+
+    /** Sorts a[lo, hi) given that a[lo, start) is already sorted; stable. */
+    private static <T> void binaryInsertionSort(Object[] a, int lo, int hi, int start, Comparator<T> c){
+        if (start == lo) start++;
+        for (; start < hi; start++) {
+            T pivot = (T) a[start];
+            int left = lo, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(pivot, (T) a[mid]) < 0) right = mid;
+                else left = mid + 1; // equal → go right (stable)
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    /** Returns k in [16, 32] such that n / k is close to (and not above) a power of two. */
+    private static int minRunLength(int n){
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    // ---------------- run stack ----------------
+
+    private void pushRun(int base, int len){
+        runBase[stackSize] = base;
+        runLen[stackSize] = len;
+        stackSize++;
+    }
+
+    /**
+     * Merge until, for the top runs X, Y, Z (Z on top):
+     * len(X) > len(Y) + len(Z) and len(Y) > len(Z), also checked one level deeper.
+     */
+    private void mergeCollapse(){
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if ((n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]) ||
+                (n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])) {
+                if (runLen[n - 1] < runLen[n + 1]) n--;
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    private void mergeForceCollapse(){
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) n--;
+            mergeAt(n);
+        }
+    }
+
+    /** Merges runs i and i+1 (i is second or third from the top). */
+    private void mergeAt(int i){
+        int base1 = runBase[i], len1 = runLen[i];
+        int base2 = runBase[i + 1], len2 = runLen[i + 1];
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // elements of run1 that are <= run2[0] are already in place
+        int k = gallopRight((T) a[base2], a, base1, len1, 0, c);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) return;
+
+        // elements of run2 that are >= run1[last] are already in place
+        len2 = gallopLeft((T) a[base1 + len1 - 1], a, base2, len2, len2 - 1, c);
+        if (len2 == 0) return;
+
+        if (len1 <= len2) mergeLo(base1, len1, base2, len2);
+        else mergeHi(base1, len1, base2, len2);
+    }
+
+    // ---------------- galloping search ----------------
+
+    /**
+     * Leftmost insertion point for key in the sorted range a[base, base+len),
+     * searching outward from a[base+hint]. Returns k such that
+     * a[base+k-1] < key <= a[base+k].
+     */
+    private static <T> int gallopLeft(T key, Object[] a, int base, int len, int hint, Comparator<T> c){
+        int lastOfs = 0, ofs = 1;
+        if (c.compare(key, (T) a[base + hint]) > 0) {
+            // gallop right until a[base+hint+lastOfs] < key <= a[base+hint+ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && c.compare(key, (T) a[base + hint + ofs]) > 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs; // overflow
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            // gallop left until a[base+hint-ofs] < key <= a[base+hint-lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && c.compare(key, (T) a[base + hint - ofs]) <= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+        // binary search in (lastOfs, ofs]
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (c.compare(key, (T) a[base + m]) > 0) lastOfs = m + 1;
+            else ofs = m;
+        }
+        return ofs;
+    }
+
+    /** Like gallopLeft, but returns the rightmost insertion point (after equal elements). */
+    private static <T> int gallopRight(T key, Object[] a, int base, int len, int hint, Comparator<T> c){
+        int ofs = 1, lastOfs = 0;
+        if (c.compare(key, (T) a[base + hint]) < 0) {
+            // gallop left until a[base+hint-ofs] <= key < a[base+hint-lastOfs]
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && c.compare(key, (T) a[base + hint - ofs]) < 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            // gallop right until a[base+hint+lastOfs] <= key < a[base+hint+ofs]
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && c.compare(key, (T) a[base + hint + ofs]) >= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) ofs = maxOfs;
+            }
+            if (ofs > maxOfs) ofs = maxOfs;
+            lastOfs += hint;
+            ofs += hint;
+        }
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (c.compare(key, (T) a[base + m]) < 0) ofs = m;
+            else lastOfs = m + 1;
+        }
+        return ofs;
+    }
+
+    // ---------------- merges ----------------
+
+    /**
+     * Merge with run1 (the shorter) copied to tmp, filling a from the left.
+     * Preconditions from mergeAt: a[base1] > a[base2], and run1's last element is
+     * greater than every element of run2.
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2){
+        Object[] a = this.a;
+        Object[] t = ensureCapacity(len1);
+        System.arraycopy(a, base1, t, 0, len1);
+        int cur1 = 0, cur2 = base2, dest = base1;
+
+        a[dest++] = a[cur2++];
+        if (--len2 == 0) { System.arraycopy(t, cur1, a, dest, len1); return; }
+        if (len1 == 1) { System.arraycopy(a, cur2, a, dest, len2); a[dest + len2] = t[cur1]; return; }
+
+        Comparator<T> c = this.c;
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0, count2 = 0; // consecutive wins per run
+
+            // one-at-a-time until a run starts winning consistently
+            do {
+                if (c.compare((T) a[cur2], (T) t[cur1]) < 0) {
+                    a[dest++] = a[cur2++];
+                    count2++; count1 = 0;
+                    if (--len2 == 0) break outer;
+                } else {
+                    a[dest++] = t[cur1++];
+                    count1++; count2 = 0;
+                    if (--len1 == 1) break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // galloping: copy whole blocks found by exponential search
+            do {
+                count1 = gallopRight((T) a[cur2], t, cur1, len1, 0, c);
+                if (count1 != 0) {
+                    System.arraycopy(t, cur1, a, dest, count1);
+                    dest += count1; cur1 += count1; len1 -= count1;
+                    if (len1 <= 1) break outer;
+                }
+                a[dest++] = a[cur2++];
+                if (--len2 == 0) break outer;
+
+                count2 = gallopLeft((T) t[cur1], a, cur2, len2, 0, c);
+                if (count2 != 0) {
+                    System.arraycopy(a, cur2, a, dest, count2);
+                    dest += count2; cur2 += count2; len2 -= count2;
+                    if (len2 == 0) break outer;
+                }
+                a[dest++] = t[cur1++];
+                if (--len1 == 1) break outer;
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) minGallop = 0;
+            minGallop += 2; // penalty for leaving gallop mode
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (len1 == 1) {
+            System.arraycopy(a, cur2, a, dest, len2);
+            a[dest + len2] = t[cur1]; // run1's last element goes at the very end
+        } else if (len1 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract");
+        } else {
+            System.arraycopy(t, cur1, a, dest, len1);
+        }
+    }
+
+    /** Mirror of mergeLo: run2 (the shorter) copied to tmp, filling a from the right. */
+    private void mergeHi(int base1, int len1, int base2, int len2){
+        Object[] a = this.a;
+        Object[] t = ensureCapacity(len2);
+        System.arraycopy(a, base2, t, 0, len2);
+        int cur1 = base1 + len1 - 1, cur2 = len2 - 1, dest = base2 + len2 - 1;
+
+        a[dest--] = a[cur1--];
+        if (--len1 == 0) { System.arraycopy(t, 0, a, dest - (len2 - 1), len2); return; }
+        if (len2 == 1) {
+            dest -= len1; cur1 -= len1;
+            System.arraycopy(a, cur1 + 1, a, dest + 1, len1);
+            a[dest] = t[cur2];
+            return;
+        }
+
+        Comparator<T> c = this.c;
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            int count1 = 0, count2 = 0;
+
+            do {
+                if (c.compare((T) t[cur2], (T) a[cur1]) < 0) {
+                    a[dest--] = a[cur1--];
+                    count1++; count2 = 0;
+                    if (--len1 == 0) break outer;
+                } else {
+                    a[dest--] = t[cur2--];
+                    count2++; count1 = 0;
+                    if (--len2 == 1) break outer;
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = len1 - gallopRight((T) t[cur2], a, base1, len1, len1 - 1, c);
+                if (count1 != 0) {
+                    dest -= count1; cur1 -= count1; len1 -= count1;
+                    System.arraycopy(a, cur1 + 1, a, dest + 1, count1);
+                    if (len1 == 0) break outer;
+                }
+                a[dest--] = t[cur2--];
+                if (--len2 == 1) break outer;
+
+                count2 = len2 - gallopLeft((T) a[cur1], t, 0, len2, len2 - 1, c);
+                if (count2 != 0) {
+                    dest -= count2; cur2 -= count2; len2 -= count2;
+                    System.arraycopy(t, cur2 + 1, a, dest + 1, count2);
+                    if (len2 <= 1) break outer;
+                }
+                a[dest--] = a[cur1--];
+                if (--len1 == 0) break outer;
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) minGallop = 0;
+            minGallop += 2;
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (len2 == 1) {
+            dest -= len1; cur1 -= len1;
+            System.arraycopy(a, cur1 + 1, a, dest + 1, len1);
+            a[dest] = t[cur2]; // run2's first element goes at the very front
+        } else if (len2 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract");
+        } else {
+            System.arraycopy(t, 0, a, dest - (len2 - 1), len2);
+        }
+    }
+
+    private Object[] ensureCapacity(int need){
+        if (tmp.length < need) {
+            int cap = tmp.length;
+            while (cap < need) cap <<= 1;
+            if (cap < 0 || cap > (a.length >>> 1) + 1) cap = Math.max(need, (a.length >>> 1) + 1);
+            tmp = new Object[cap];
+        }
+        return tmp;
+    }
+}
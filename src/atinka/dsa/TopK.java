@@ -0,0 +1,137 @@
+package atinka.dsa;
+
+/**
+ * TopK<T> — bounded selection of the k "smallest" elements by a comparator
+ * (pass a reversed comparator for the k largest).
+ * - Keeps a size-k max-heap whose root is the worst kept element:
+ *   O(n log k) time and O(k) memory for n offers, instead of sorting all n.
+ * - Stable: among equal elements the earlier offer wins, and result() lists
+ *   ties in offer order (same output as a stable sort + take k).
+ * - Usable streaming (offer while scanning a log) or over a Vec via select().
+ * Not thread-safe.
+ */
+public final class TopK<T> {
+    private final int k;
+    private final Comparator<T> cmp;
+    private final Object[] items;
+    private final long[] seq;   // arrival order, for the stable tie-break
+    private int n;
+    private long offered;
+
+    public TopK(int k, Comparator<T> cmp){
+        if (cmp == null) throw new IllegalArgumentException("comparator is null");
+        this.k = k < 0 ? 0 : k;
+        this.cmp = cmp;
+        this.items = new Object[this.k];
+        this.seq = new long[this.k];
+    }
+
+    /** Order by an extracted key (e.g. quantity, timestamp). */
+    public static <T, K> TopK<T> by(int k, KeyOf<T, K> key, Comparator<K> keyCmp){
+        return new TopK<>(k, (a, b) -> keyCmp.compare(key.key(a), key.key(b)));
+    }
+
+    /** The k smallest of src by cmp, best first. */
+    public static <T> Vec<T> select(Vec<T> src, int k, Comparator<T> cmp){
+        TopK<T> t = new TopK<>(k, cmp);
+        for (int i = 0; i < src.size(); i++) t.offer(src.get(i));
+        return t.result();
+    }
+
+    /** The k smallest of src by an extracted key, best first. */
+    public static <T, K> Vec<T> select(Vec<T> src, int k, KeyOf<T, K> key, Comparator<K> keyCmp){
+        TopK<T> t = by(k, key, keyCmp);
+        for (int i = 0; i < src.size(); i++) t.offer(src.get(i));
+        return t.result();
+    }
+
+    public int size(){ return n; }
+    public int capacity(){ return k; }
+
+    /** Considers v; returns true if it is (for now) among the best k. */
+    public boolean offer(T v){
+        long s = offered++;
+        if (n < k) {
+            items[n] = v;
+            seq[n] = s;
+            siftUp(n++);
+            return true;
+        }
+        // full: v must beat the current worst; on a tie the earlier one stays
+        if (k == 0 || cmp.compare(v, at(0)) >= 0) return false;
+        items[0] = v;
+        seq[0] = s;
+        siftDown(0, items, seq, n);
+        return true;
+    }
+
+    /** Kept elements, best first; the selector is left as is. O(k log k). */
+    public Vec<T> result(){
+        Object[] h = new Object[n];
+        long[] q = new long[n];
+        System.arraycopy(items, 0, h, 0, n);
+        System.arraycopy(seq, 0, q, 0, n);
+        Object[] out = new Object[n];
+        // pop the worst to the back until the heap is empty
+        for (int m = n; m > 0; m--) {
+            out[m - 1] = h[0];
+            h[0] = h[m - 1];
+            q[0] = q[m - 1];
+            h[m - 1] = null;
+            siftDown(0, h, q, m - 1);
+        }
+        Vec<T> v = new Vec<>(Math.max(n, 1));
+        for (int i = 0; i < n; i++) v.add(cast(out[i]));
+        return v;
+    }
+
+    public void clear(){
+        for (int i = 0; i < n; i++) items[i] = null;
+        n = 0;
+        offered = 0;
+    }
+
+    // ---------------- internals ----------------
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object o){ return (T) o; }
+
+    private T at(int i){ return cast(items[i]); }
+
+    /** True if (a, sa) ranks after (b, sb): larger by cmp, or equal and offered later. */
+    private boolean worse(Object a, long sa, Object b, long sb){
+        int c = cmp.compare(cast(a), cast(b));
+        return c > 0 || (c == 0 && sa > sb);
+    }
+
+    private void siftUp(int i){
+        Object x = items[i];
+        long s = seq[i];
+        while (i > 0) {
+            int p = (i - 1) >> 1;
+            if (!worse(x, s, items[p], seq[p])) break;
+            items[i] = items[p];
+            seq[i] = seq[p];
+            i = p;
+        }
+        items[i] = x;
+        seq[i] = s;
+    }
+
+    private void siftDown(int i, Object[] h, long[] q, int size){
+        if (size == 0) return;
+        Object x = h[i];
+        long s = q[i];
+        while (true) {
+            int l = (i << 1) + 1;
+            if (l >= size) break;
+            int m = (l + 1 < size && worse(h[l + 1], q[l + 1], h[l], q[l])) ? l + 1 : l;
+            if (!worse(h[m], q[m], x, s)) break;
+            h[i] = h[m];
+            q[i] = q[m];
+            i = m;
+        }
+        h[i] = x;
+        q[i] = s;
+    }
+}
@@ -0,0 +1,196 @@
+package atinka.dsa;
+
+/**
+ * TrigramIndex<T> — inverted index for case-insensitive "contains" search.
+ * - Every indexed text is split into overlapping 3-char grams (ASCII lower-cased)
+ * - Each gram maps to a sorted posting list of document ids (IntVec)
+ * - search(term): intersect the term's posting lists (smallest first), then
+ *   confirm each candidate with a real substring check — so results are exact
+ * - Terms shorter than 3 chars have no grams and fall back to a scan of live docs
+ * Documents are addressed by a String key (e.g. drug code); results come back in
+ * insertion order, like a linear scan over an append-only list. Not thread-safe.
+ */
+public final class TrigramIndex<T> {
+    private static final class Doc<E> {
+        final String key;
+        E value;
+        String text;
+        int id;
+        Doc(String key, E value, String text, int id){ this.key = key; this.value = value; this.text = text; this.id = id; }
+    }
+
+    private final LongObjectMap<IntVec> postings = new LongObjectMap<>(256);
+    private HashMapOpen<Doc<T>> byKey = new HashMapOpen<>(64, true);
+    private final Vec<Doc<T>> docs = new Vec<>();   // index = id; null once removed
+    private int live;
+
+    public int size(){ return live; }
+
+    /** Number of distinct trigrams currently indexed. */
+    public int gramCount(){ return postings.size(); }
+
+    /** Adds or re-indexes the document for key. */
+    public void put(String key, T value, String text){
+        if (key == null) throw new IllegalArgumentException("null key");
+        if (text == null) text = "";
+        Doc<T> d = byKey.get(key);
+        if (d != null) {
+            d.value = value;
+            if (!d.text.equals(text)) {
+                unpost(d);
+                d.text = text;
+                post(d, false);
+            }
+            return;
+        }
+        d = new Doc<>(key, value, text, docs.size());
+        docs.add(d);
+        byKey.put(key, d);
+        live++;
+        post(d, true);
+    }
+
+    /** Removes the document for key; false if absent. */
+    public boolean remove(String key){
+        Doc<T> d = key == null ? null : byKey.remove(key);
+        if (d == null) return false;
+        unpost(d);
+        docs.set(d.id, null);
+        live--;
+        // ids are never reused; renumber once holes dominate
+        if (docs.size() > 1024 && live * 2 < docs.size()) compact();
+        return true;
+    }
+
+    public void clear(){
+        postings.clear();
+        docs.clear();
+        live = 0;
+        byKey = new HashMapOpen<>(64, true);
+    }
+
+    /** Docs whose text contains term (ASCII case-insensitive), in insertion order. */
+    public Vec<T> search(String term){
+        Vec<T> out = new Vec<>();
+        if (term == null || term.length() == 0) return out;
+        if (term.length() < 3) {
+            for (int i = 0; i < docs.size(); i++) {
+                Doc<T> d = docs.get(i);
+                if (d != null && Strings.indexOfIgnoreCase(d.text, term) >= 0) out.add(d.value);
+            }
+            return out;
+        }
+        IntVec cand = candidates(term);
+        for (int i = 0; i < cand.size(); i++) {
+            Doc<T> d = docs.get(cand.get(i));
+            if (Strings.indexOfIgnoreCase(d.text, term) >= 0) out.add(d.value);
+        }
+        return out;
+    }
+
+    /** How many docs survive the posting-list intersection for term (before the final check). */
+    public int candidateCount(String term){
+        if (term == null || term.length() < 3) return live;
+        return candidates(term).size();
+    }
+
+    // ---------------- internals ----------------
+
+    private static long gram(String s, int i){
+        return ((long) Strings.toLower(s.charAt(i)) << 32)
+                | ((long) Strings.toLower(s.charAt(i + 1)) << 16)
+                | Strings.toLower(s.charAt(i + 2));
+    }
+
+    /** Sorted ids whose posting lists contain every gram of term. */
+    private IntVec candidates(String term){
+        int g = term.length() - 2;
+        IntVec[] lists = new IntVec[g];
+        for (int i = 0; i < g; i++) {
+            IntVec p = postings.get(gram(term, i));
+            if (p == null) return new IntVec(1);
+            lists[i] = p;
+        }
+        // shortest list first keeps every intersection step small
+        for (int i = 1; i < g; i++) {
+            IntVec x = lists[i];
+            int j = i - 1;
+            while (j >= 0 && lists[j].size() > x.size()) { lists[j + 1] = lists[j]; j--; }
+            lists[j + 1] = x;
+        }
+        IntVec acc = new IntVec(lists[0].size());
+        acc.addAll(lists[0]);
+        for (int i = 1; i < g && acc.size() > 0; i++) {
+            if (lists[i] == lists[i - 1]) continue; // repeated gram in the term
+            acc = intersect(acc, lists[i]);
+        }
+        return acc;
+    }
+
+    /** a ∩ b for sorted lists; a is the shorter one, so probe b by galloping lower bounds. */
+    private static IntVec intersect(IntVec a, IntVec b){
+        IntVec out = new IntVec(a.size());
+        int j = 0, nb = b.size();
+        for (int i = 0; i < a.size() && j < nb; i++) {
+            int x = a.get(i);
+            // gallop from j, then binary search the bracket
+            int step = 1, hi = j;
+            while (hi < nb && b.get(hi) < x) { j = hi + 1; hi += step; step <<= 1; }
+            if (hi > nb) hi = nb;
+            int lo = j;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (b.get(mid) < x) lo = mid + 1; else hi = mid;
+            }
+            j = lo;
+            if (j < nb && b.get(j) == x) { out.add(x); j++; }
+        }
+        return out;
+    }
+
+    /** Adds d.id to the posting list of each of its grams. */
+    private void post(Doc<T> d, boolean newest){
+        String s = d.text;
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            long g = gram(s, i);
+            IntVec p = postings.get(g);
+            if (p == null) { p = new IntVec(4); postings.put(g, p); }
+            if (newest) {
+                // ids grow monotonically: append, skipping a gram repeated in this text
+                if (p.size() == 0 || p.get(p.size() - 1) != d.id) p.add(d.id);
+            } else {
+                int at = p.lowerBound(d.id);
+                if (at == p.size() || p.get(at) != d.id) p.insert(at, d.id);
+            }
+        }
+    }
+
+    private void unpost(Doc<T> d){
+        String s = d.text;
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            long g = gram(s, i);
+            IntVec p = postings.get(g);
+            if (p == null) continue; // already removed for a repeated gram
+            int at = p.lowerBound(d.id);
+            if (at < p.size() && p.get(at) == d.id) p.removeAt(at);
+            if (p.size() == 0) postings.remove(g);
+        }
+    }
+
+    /** Renumbers live docs 0..live-1 (order kept) and rebuilds the postings. */
+    private void compact(){
+        Vec<Doc<T>> keep = new Vec<>(live);
+        for (int i = 0; i < docs.size(); i++) {
+            Doc<T> d = docs.get(i);
+            if (d != null) keep.add(d);
+        }
+        docs.clear();
+        postings.clear();
+        for (int i = 0; i < keep.size(); i++) {
+            Doc<T> d = keep.get(i);
+            d.id = i;
+            docs.add(d);
+            post(d, true);
+        }
+    }
+}
@@ -4,7 +4,8 @@ package atinka.dsa;
  * Vec<T> — simple dynamic array (no java.util).
  * - Amortized O(1) append
  * - O(1) get/set
- * - O(n) insert/removeAt
+ * - O(n) insert/removeAt (System.arraycopy shifts)
+ * - Bulk addAll/removeRange/trimToSize, in-place sort, subList views
  *
  * NOTE: Not final so wrappers (e.g., counting) can extend if needed.
  */
@@ -45,7 +46,7 @@ public class Vec<T> {
         if (index < 0 || index > n)
             throw new IndexOutOfBoundsException("insert index " + index + " out of [0," + n + "]");
         ensureCapacity(n + 1);
-        for (int i = n; i > index; i--) a[i] = a[i - 1];
+        System.arraycopy(a, index, a, index + 1, n - index);
         a[index] = value;
         n++;
     }
@@ -54,12 +55,161 @@ public class Vec<T> {
     public T removeAt(int index) {
         checkIndex(index);
         T old = (T) a[index];
-        for (int i = index; i < n - 1; i++) a[i] = a[i + 1];
+        System.arraycopy(a, index + 1, a, index, n - index - 1);
         a[n - 1] = null;
         n--;
         return old;
     }
 
+    /** Appends every element of src (src may be this). */
+    public void addAll(Vec<? extends T> src) {
+        addAll(src, 0, src.size());
+    }
+
+    /** Appends src[from, to) (src may be this). */
+    public void addAll(Vec<? extends T> src, int from, int to) {
+        if (from < 0 || to > src.n || from > to)
+            throw new IndexOutOfBoundsException("range [" + from + "," + to + ") out of [0," + src.n + "]");
+        int len = to - from;
+        ensureCapacity(n + len);
+        System.arraycopy(src.a, from, a, n, len);
+        n += len;
+    }
+
+    /** Removes [from, to), shifting the tail down once. */
+    public void removeRange(int from, int to) {
+        if (from < 0 || to > n || from > to)
+            throw new IndexOutOfBoundsException("range [" + from + "," + to + ") out of [0," + n + "]");
+        int len = to - from;
+        if (len == 0) return;
+        System.arraycopy(a, to, a, from, n - to);
+        for (int i = n - len; i < n; i++) a[i] = null;
+        n -= len;
+    }
+
+    /** Shrinks the backing array to size() (e.g. after a bulk load). */
+    public void trimToSize() {
+        if (a.length == n) return;
+        Object[] b = new Object[n];
+        System.arraycopy(a, 0, b, 0, n);
+        a = b;
+    }
+
+    /** Stable in-place sort (TimSort on the backing array). */
+    public void sort(Comparator<T> cmp) {
+        TimSort.sort(a, 0, n, cmp);
+    }
+
+    /**
+     * View of [from, to) backed by this Vec: get/set/sort go straight to the
+     * backing array. Adding or removing elements here invalidates the view.
+     */
+    public View<T> subList(int from, int to) {
+        if (from < 0 || to > n || from > to)
+            throw new IndexOutOfBoundsException("range [" + from + "," + to + ") out of [0," + n + "]");
+        return new View<>(this, from, to);
+    }
+
+    /** Window over part of a Vec (no copy); see {@link Vec#subList}. */
+    public static final class View<T> {
+        private final Vec<T> owner;
+        private final int from, to, ownerSize;
+
+        private View(Vec<T> owner, int from, int to) {
+            this.owner = owner;
+            this.from = from;
+            this.to = to;
+            this.ownerSize = owner.n;
+        }
+
+        public int size() { return to - from; }
+        public boolean isEmpty() { return to == from; }
+
+        public T get(int index) {
+            check(index);
+            return owner.get(from + index);
+        }
+
+        public void set(int index, T value) {
+            check(index);
+            owner.a[from + index] = value;
+        }
+
+        /** Stable in-place sort of just this window. */
+        public void sort(Comparator<T> cmp) {
+            checkOwner();
+            TimSort.sort(owner.a, from, to, cmp);
+        }
+
+        /** Copies the window into a new Vec. */
+        public Vec<T> toVec() {
+            checkOwner();
+            Vec<T> c = new Vec<>(size());
+            c.addAll(owner, from, to);
+            return c;
+        }
+
+        private void check(int index) {
+            checkOwner();
+            if (index < 0 || index >= to - from)
+                throw new IndexOutOfBoundsException("index " + index + " out of [0," + (to - from - 1) + "]");
+        }
+
+        private void checkOwner() {
+            if (owner.n != ownerSize) throw new IllegalStateException("Vec changed size under subList view");
+        }
+    }
+
+    /** Fresh cursor over the elements (see {@link Cursor}). */
+    public Cursor<T> cursor() { return new Cursor<T>().over(this); }
+
+    /**
+     * Allocation-free forward iteration: {@code while (c.advance()) use(c.value());}
+     * Reusable across Vecs via over(vec) / reset(). set() writes the current slot;
+     * adding or removing elements while it is open makes advance() throw.
+     */
+    public static final class Cursor<T> {
+        private Vec<T> owner;
+        private int i, ownerSize;
+
+        public Cursor<T> over(Vec<T> v) {
+            owner = v;
+            i = -1;
+            ownerSize = v.n;
+            return this;
+        }
+
+        public Cursor<T> reset() { return over(owner); }
+
+        /** Moves to the next element; false at the end. */
+        public boolean advance() {
+            if (owner.n != ownerSize) throw new IllegalStateException("Vec changed size during iteration");
+            if (i < ownerSize) i++;
+            return i < ownerSize;
+        }
+
+        /** Position of the current element. */
+        public int index() { return i; }
+
+        @SuppressWarnings("unchecked")
+        public T value() {
+            check();
+            return (T) owner.a[i];
+        }
+
+        public void set(T value) {
+            check();
+            owner.a[i] = value;
+        }
+
+        private void check() {
+            if (i < 0 || i >= ownerSize) throw new IllegalStateException("cursor not on an element");
+        }
+    }
+
+    /** Backing array (length >= size()); for in-place algorithms in this package only. */
+    Object[] array() { return a; }
+
     public void clear() {
         for (int i = 0; i < n; i++) a[i] = null;
         n = 0;
@@ -70,7 +220,7 @@ public class Vec<T> {
         int cap = a.length == 0 ? 1 : a.length;
         while (cap < needed) cap <<= 1;
         Object[] b = new Object[cap];
-        for (int i = 0; i < n; i++) b[i] = a[i];
+        System.arraycopy(a, 0, b, 0, n);
         a = b;
     }
 
@@ -0,0 +1,397 @@
+package atinka.model;
+
+import atinka.dsa.HashSetOpen;
+import atinka.dsa.IntVec;
+import atinka.dsa.StringPool;
+import atinka.dsa.Vec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * DrugTable — the drug catalogue as struct-of-arrays columns in direct (off-heap) ByteBuffers.
+ * - One fixed-width column per field: price (double), stock, threshold, expiry epoch day
+ *   (int, NO_EXPIRY when unset), and int references into a StringPool for code, name and
+ *   the '|'-joined supplier IDs (the DrugCsvStore format)
+ * - Scans (low stock, price/expiry ranges, name contains) touch only the columns they
+ *   need, sequentially; a catalogue of N drugs is N * 36 bytes plus its strings, with
+ *   no per-drug objects for the GC to trace
+ * - code → row through an open-addressing int[] index (linear probing, code hashes kept
+ *   in their own column so rebuilds never decode strings)
+ * - Rows keep insertion order; remove shifts the rows after it down
+ * toDrug(row) materializes a detached Drug snapshot. Not thread-safe.
+ */
+public final class DrugTable {
+    public static final int NO_EXPIRY = Integer.MIN_VALUE;
+    private static final byte SEP = '|';
+
+    private ByteBuffer price;       // double
+    private ByteBuffer stock;       // int
+    private ByteBuffer threshold;   // int
+    private ByteBuffer expiry;      // int epoch day
+    private ByteBuffer code;        // int pool ref
+    private ByteBuffer name;        // int pool ref
+    private ByteBuffer suppliers;   // int pool ref ('|'-joined, NULL when none)
+    private ByteBuffer codeHash;    // int
+    private StringPool pool;
+    private int rows, cap;
+    private int[] slots;            // row + 1, 0 = empty
+
+    public DrugTable(int capacity){
+        cap = Math.max(16, capacity);
+        price = column(cap, 8);
+        stock = column(cap, 4);
+        threshold = column(cap, 4);
+        expiry = column(cap, 4);
+        code = column(cap, 4);
+        name = column(cap, 4);
+        suppliers = column(cap, 4);
+        codeHash = column(cap, 4);
+        pool = new StringPool(cap * 32);
+        slots = new int[slotsFor(cap)];
+    }
+
+    /** Table holding copies of the given drugs (a repeated code keeps its first row). */
+    public static DrugTable of(Vec<Drug> drugs){
+        int n = drugs == null ? 0 : drugs.size();
+        DrugTable t = new DrugTable(n);
+        for (int i = 0; i < n; i++) {
+            Drug d = drugs.get(i);
+            if (t.find(d.getCode()) < 0) t.add(d);
+        }
+        return t;
+    }
+
+    public int size(){ return rows; }
+
+    /** Off-heap bytes reserved by the columns and the string pool. */
+    public long offHeapBytes(){ return (long) cap * 36 + pool.capacity(); }
+
+    /** Off-heap bytes holding live data. */
+    public long usedBytes(){ return (long) rows * 36 + pool.used() - pool.garbage(); }
+
+    // ---------------- rows ----------------
+
+    /** Row of the drug with this exact code, or -1. */
+    public int find(String c){
+        if (c == null) return -1;
+        int h = hash(c), mask = slots.length - 1;
+        byte[] utf8 = null;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int s = slots[i];
+            if (s == 0) return -1;
+            int r = s - 1;
+            if (codeHash.getInt(r * 4) == h) {
+                if (utf8 == null) utf8 = c.getBytes(StandardCharsets.UTF_8);
+                if (pool.equalsBytes(code.getInt(r * 4), utf8)) return r;
+            }
+        }
+    }
+
+    /** Appends a copy of d; returns its row. */
+    public int add(Drug d){
+        if (d == null) throw new IllegalArgumentException("Drug is null");
+        if (find(d.getCode()) >= 0) throw new IllegalStateException("Code exists");
+        if (rows == cap) grow();
+        int r = rows++;
+        price.putDouble(r * 8, d.getPrice());
+        stock.putInt(r * 4, d.getStock());
+        threshold.putInt(r * 4, d.getThreshold());
+        expiry.putInt(r * 4, epochDay(d.getExpiry()));
+        code.putInt(r * 4, pool.add(d.getCode()));
+        name.putInt(r * 4, pool.add(d.getName()));
+        suppliers.putInt(r * 4, pool.add(joinSuppliers(d)));
+        codeHash.putInt(r * 4, hash(d.getCode()));
+        if (rows * 2 > slots.length) { slots = new int[slots.length * 2]; reindex(); }
+        else link(r);
+        return r;
+    }
+
+    /** Removes the drug with this code; rows after it move down one. */
+    public boolean remove(String c){
+        int r = find(c);
+        if (r < 0) return false;
+        pool.release(code.getInt(r * 4));
+        pool.release(name.getInt(r * 4));
+        pool.release(suppliers.getInt(r * 4));
+        int tail = rows - r - 1;
+        if (tail > 0) {
+            shift(price, r, tail, 8);
+            shift(stock, r, tail, 4);
+            shift(threshold, r, tail, 4);
+            shift(expiry, r, tail, 4);
+            shift(code, r, tail, 4);
+            shift(name, r, tail, 4);
+            shift(suppliers, r, tail, 4);
+            shift(codeHash, r, tail, 4);
+        }
+        rows--;
+        reindex();
+        maybeCompact();
+        return true;
+    }
+
+    /** Detached Drug with this row's values. */
+    public Drug toDrug(int r){
+        check(r);
+        int e = expiry.getInt(r * 4);
+        Drug d = new Drug(code(r), name(r), price(r), stock(r),
+                e == NO_EXPIRY ? null : LocalDate.ofEpochDay(e), threshold(r));
+        String s = pool.get(suppliers.getInt(r * 4));
+        if (s != null) {
+            int start = 0;
+            for (int i = 0; i <= s.length(); i++) {
+                if (i == s.length() || s.charAt(i) == SEP) {
+                    d.addSupplier(s.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        }
+        return d;
+    }
+
+    /** Snapshots of the given rows, in order. */
+    public Vec<Drug> toDrugs(IntVec rs){
+        Vec<Drug> out = new Vec<>(Math.max(1, rs.size()));
+        for (int i = 0; i < rs.size(); i++) out.add(toDrug(rs.get(i)));
+        return out;
+    }
+
+    /** Snapshots of every row, in insertion order. */
+    public Vec<Drug> toDrugs(){
+        Vec<Drug> out = new Vec<>(Math.max(1, rows));
+        for (int r = 0; r < rows; r++) out.add(toDrug(r));
+        return out;
+    }
+
+    // ---------------- columns ----------------
+
+    public String code(int r){ check(r); return pool.get(code.getInt(r * 4)); }
+    public String name(int r){ check(r); return pool.get(name.getInt(r * 4)); }
+    public double price(int r){ check(r); return price.getDouble(r * 8); }
+    public int stock(int r){ check(r); return stock.getInt(r * 4); }
+    public int threshold(int r){ check(r); return threshold.getInt(r * 4); }
+    /** Expiry as an epoch day, or NO_EXPIRY. */
+    public int expiryDay(int r){ check(r); return expiry.getInt(r * 4); }
+
+    /** Same guards as Drug's setters: blank names, negative prices/stock/thresholds are ignored. */
+    public void setName(int r, String v){
+        check(r);
+        if (v == null || v.trim().length() == 0) return;
+        pool.release(name.getInt(r * 4));
+        name.putInt(r * 4, pool.add(v.trim()));
+        maybeCompact();
+    }
+    public void setPrice(int r, double v){ check(r); if (v >= 0) price.putDouble(r * 8, v); }
+    public void setStock(int r, int v){ check(r); if (v >= 0) stock.putInt(r * 4, v); }
+    public void setThreshold(int r, int v){ check(r); if (v >= 0) threshold.putInt(r * 4, v); }
+    public void setExpiry(int r, LocalDate d){ check(r); expiry.putInt(r * 4, epochDay(d)); }
+
+    /** Links a supplier (trimmed); blank IDs and IDs containing '|' are ignored. */
+    public void addSupplier(int r, String id){
+        check(r);
+        if (id == null || id.trim().length() == 0 || id.indexOf(SEP) >= 0) return;
+        id = id.trim();
+        int ref = suppliers.getInt(r * 4);
+        byte[] tok = id.getBytes(StandardCharsets.UTF_8);
+        if (pool.containsToken(ref, tok, SEP)) return;
+        String cur = pool.get(ref);
+        pool.release(ref);
+        suppliers.putInt(r * 4, pool.add(cur == null ? id : cur + (char) SEP + id));
+        maybeCompact();
+    }
+
+    public void removeSupplier(int r, String id){
+        check(r);
+        if (id == null) return;
+        int ref = suppliers.getInt(r * 4);
+        if (!pool.containsToken(ref, id.getBytes(StandardCharsets.UTF_8), SEP)) return;
+        String cur = pool.get(ref);
+        StringBuilder sb = new StringBuilder(cur.length());
+        int start = 0;
+        for (int i = 0; i <= cur.length(); i++) {
+            if (i == cur.length() || cur.charAt(i) == SEP) {
+                String part = cur.substring(start, i);
+                if (!part.equals(id)) {
+                    if (sb.length() > 0) sb.append((char) SEP);
+                    sb.append(part);
+                }
+                start = i + 1;
+            }
+        }
+        pool.release(ref);
+        suppliers.putInt(r * 4, sb.length() == 0 ? StringPool.NULL : pool.add(sb.toString()));
+        maybeCompact();
+    }
+
+    public boolean hasSupplier(int r, String id){
+        check(r);
+        return id != null && pool.containsToken(suppliers.getInt(r * 4), id.getBytes(StandardCharsets.UTF_8), SEP);
+    }
+
+    // ---------------- column scans ----------------
+
+    /** Rows with stock <= threshold. */
+    public IntVec rowsLowStock(){
+        IntVec out = new IntVec();
+        for (int r = 0, o = 0; r < rows; r++, o += 4) if (stock.getInt(o) <= threshold.getInt(o)) out.add(r);
+        return out;
+    }
+
+    /** Rows with min <= price <= max, in row order. */
+    public IntVec rowsPricedBetween(double min, double max){
+        IntVec out = new IntVec();
+        for (int r = 0; r < rows; r++) {
+            double p = price.getDouble(r * 8);
+            if (p >= min && p <= max) out.add(r);
+        }
+        return out;
+    }
+
+    /** Rows with an expiry day before the given epoch day, in row order. */
+    public IntVec rowsExpiringBefore(long epochDay){
+        IntVec out = new IntVec();
+        for (int r = 0; r < rows; r++) {
+            int e = expiry.getInt(r * 4);
+            if (e != NO_EXPIRY && e < epochDay) out.add(r);
+        }
+        return out;
+    }
+
+    /** Rows whose name contains term, ignoring ASCII case, compared on the pooled bytes. */
+    public IntVec rowsNameContains(String term){
+        IntVec out = new IntVec();
+        byte[] needle = StringPool.lowerAscii(term);
+        for (int r = 0; r < rows; r++) if (pool.containsIgnoreCase(name.getInt(r * 4), needle)) out.add(r);
+        return out;
+    }
+
+    /** Rows linked to the exact supplier ID. */
+    public IntVec rowsWithSupplier(String id){
+        IntVec out = new IntVec();
+        byte[] tok = id.getBytes(StandardCharsets.UTF_8);
+        for (int r = 0; r < rows; r++) if (pool.containsToken(suppliers.getInt(r * 4), tok, SEP)) out.add(r);
+        return out;
+    }
+
+    /** The n rows with the lowest stock, ties by name (ASCII case-insensitive): one pass, O(N * n) worst case. */
+    public IntVec lowestStock(int n){
+        IntVec best = new IntVec(Math.max(1, n));
+        if (n <= 0) return best;
+        for (int r = 0; r < rows; r++) {
+            int k = best.size();
+            if (k == n && !before(r, best.get(k - 1))) continue;
+            if (k == n) best.removeAt(k - 1);
+            int at = best.size();
+            while (at > 0 && before(r, best.get(at - 1))) at--;
+            best.insert(at, r);
+        }
+        return best;
+    }
+
+    /** Sum of price * stock over all rows. */
+    public double stockValue(){
+        double sum = 0;
+        for (int r = 0; r < rows; r++) sum += price.getDouble(r * 8) * stock.getInt(r * 4);
+        return sum;
+    }
+
+    private boolean before(int a, int b){
+        int sa = stock.getInt(a * 4), sb = stock.getInt(b * 4);
+        if (sa != sb) return sa < sb;
+        return pool.compareIgnoreCase(name.getInt(a * 4), name.getInt(b * 4)) < 0;
+    }
+
+    // ---------------- internals ----------------
+
+    private static ByteBuffer column(int rows, int width){
+        return ByteBuffer.allocateDirect(rows * width).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer grown(ByteBuffer old, int rows, int newRows, int width){
+        ByteBuffer b = column(newRows, width);
+        b.put(0, old, 0, rows * width);
+        return b;
+    }
+
+    private void grow(){
+        int n = cap * 2;
+        price = grown(price, rows, n, 8);
+        stock = grown(stock, rows, n, 4);
+        threshold = grown(threshold, rows, n, 4);
+        expiry = grown(expiry, rows, n, 4);
+        code = grown(code, rows, n, 4);
+        name = grown(name, rows, n, 4);
+        suppliers = grown(suppliers, rows, n, 4);
+        codeHash = grown(codeHash, rows, n, 4);
+        cap = n;
+    }
+
+    /** Moves rows [r+1, r+1+count) to r. */
+    private static void shift(ByteBuffer col, int r, int count, int width){
+        col.put(r * width, col, (r + 1) * width, count * width);
+    }
+
+    private void link(int r){
+        int mask = slots.length - 1;
+        int i = codeHash.getInt(r * 4) & mask;
+        while (slots[i] != 0) i = (i + 1) & mask;
+        slots[i] = r + 1;
+    }
+
+    private void reindex(){
+        for (int i = 0; i < slots.length; i++) slots[i] = 0;
+        for (int r = 0; r < rows; r++) link(r);
+    }
+
+    /** Once released strings outweigh live ones, copy the live strings into a fresh pool. */
+    private void maybeCompact(){
+        if (pool.garbage() < 64 * 1024 || pool.garbage() * 2 < pool.used()) return;
+        StringPool p = new StringPool((int) (pool.used() - pool.garbage()) * 2);
+        for (int r = 0; r < rows; r++) {
+            code.putInt(r * 4, p.copyFrom(pool, code.getInt(r * 4)));
+            name.putInt(r * 4, p.copyFrom(pool, name.getInt(r * 4)));
+            suppliers.putInt(r * 4, p.copyFrom(pool, suppliers.getInt(r * 4)));
+        }
+        pool = p;
+    }
+
+    private void check(int r){
+        if (r < 0 || r >= rows) throw new IndexOutOfBoundsException("row " + r);
+    }
+
+    private static int slotsFor(int capacity){
+        int p = 16;
+        while (p < capacity * 2) p <<= 1;
+        return p;
+    }
+
+    private static int epochDay(LocalDate d){
+        return d == null ? NO_EXPIRY : (int) d.toEpochDay();
+    }
+
+    /** String hash, then a murmur finalizer so sequential codes spread over the slots. */
+    private static int hash(String s){
+        int h = s.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static String joinSuppliers(Drug d){
+        StringBuilder sb = new StringBuilder();
+        HashSetOpen.Cursor ids = d.suppliers().cursor();
+        while (ids.advance()) {
+            String id = ids.key();
+            if (id.indexOf(SEP) >= 0) continue;
+            if (sb.length() > 0) sb.append((char) SEP);
+            sb.append(id);
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+}
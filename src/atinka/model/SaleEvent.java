@@ -0,0 +1,67 @@
+package atinka.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Mutable sale record used as a preallocated RingBuffer slot.
+ * Same columns as SaleTxn, but overwritten in place for every sale instead of
+ * allocating a new object; the timestamp is kept as local wall-clock seconds plus
+ * nano-of-second (no zone) so the slot holds no LocalDateTime of its own, yet loses
+ * none of its precision.
+ */
+public final class SaleEvent {
+    private long epochSecond;
+    private int nano;
+    private String code;
+    private int qty;
+    private String customerId;
+    private double price;
+    private double total;
+
+    /** Whole-second timestamp (nano-of-second 0). */
+    public SaleEvent set(long epochSecond, String code, int qty, String customerId, double price, double total){
+        return set(epochSecond, 0, code, qty, customerId, price, total);
+    }
+
+    public SaleEvent set(long epochSecond, int nano, String code, int qty, String customerId, double price, double total){
+        this.epochSecond = epochSecond;
+        this.nano = nano;
+        this.code = code;
+        this.qty = qty;
+        this.customerId = customerId;
+        this.price = price;
+        this.total = total;
+        return this;
+    }
+
+    public SaleEvent set(LocalDateTime timestamp, String code, int qty, String customerId, double price, double total){
+        return set(toEpochSecond(timestamp), timestamp == null ? 0 : timestamp.getNano(), code, qty, customerId, price, total);
+    }
+
+    public SaleEvent set(SaleTxn t){
+        return set(t.getTimestamp(), t.getCode(), t.getQty(), t.getCustomerId(), t.getPrice(), t.getTotal());
+    }
+
+    /** Drops the String references so a consumed slot does not keep them alive. */
+    public void clear(){
+        code = null;
+        customerId = null;
+    }
+
+    public long getEpochSecond(){ return epochSecond; }
+    public int getNano(){ return nano; }
+    public String getCode(){ return code; }
+    public int getQty(){ return qty; }
+    public String getCustomerId(){ return customerId; }
+    public double getPrice(){ return price; }
+    public double getTotal(){ return total; }
+
+    public LocalDateTime getTimestamp(){ return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC); }
+
+    /** Immutable copy, for code paths that keep the sale beyond the slot's lifetime. */
+    public SaleTxn toTxn(){ return new SaleTxn(getTimestamp(), code, qty, customerId, price, total); }
+
+    /** Local wall-clock seconds of t (no time zone applied); 0 for null. */
+    public static long toEpochSecond(LocalDateTime t){ return t == null ? 0L : t.toEpochSecond(ZoneOffset.UTC); }
+}
@@ -2,11 +2,18 @@ package atinka.report;
 
 import atinka.dsa.BinarySearch;
 import atinka.dsa.Comparator;
+import atinka.dsa.HashMapOpen;
 import atinka.dsa.InsertionSort;
 import atinka.dsa.MergeSort;
+import atinka.dsa.RadixSort;
+import atinka.dsa.TimSort;
+import atinka.dsa.TrigramIndex;
 import atinka.dsa.Vec;
 import atinka.model.Drug;
+import atinka.model.DrugTable;
+import atinka.service.CustomerService;
 import atinka.service.DrugService;
+import atinka.service.SupplierService;
 import atinka.storage.ReportsFS;
 
 import java.time.LocalDate;
@@ -20,6 +27,11 @@ public final class PerformanceReport {
     private PerformanceReport(){}
 
     public static java.nio.file.Path generate(DrugService drugsSvc){
+        return generate(drugsSvc, null, null);
+    }
+
+    /** As above, plus probe stats for the supplier and customer id indexes (either may be null). */
+    public static java.nio.file.Path generate(DrugService drugsSvc, SupplierService suppliers, CustomerService customers){
         StringBuilder out = new StringBuilder();
 
         // ---------- data snapshot ----------
@@ -50,14 +62,56 @@ public final class PerformanceReport {
             long merComparisons = sortAndCountComparisonsMerge(v2, byName);
             long dt2 = now() - t2;
 
+            // TimSort (shuffled, then on its own output = presorted)
+            Vec<Drug> v3 = copyOf(data);
+            shuffle(v3);
+            long t3 = now();
+            long timComparisons = sortAndCountComparisonsTim(v3, byName);
+            long dt3 = now() - t3;
+            long t4 = now();
+            long timSortedComparisons = sortAndCountComparisonsTim(v3, byName);
+            long dt4 = now() - t4;
+
             out.append("- InsertionSort: comparisons=").append(insComparisons)
                     .append(", time=").append(toMillis(dt1)).append(" ms\n");
             out.append("- MergeSort:     comparisons=").append(merComparisons)
-                    .append(", time=").append(toMillis(dt2)).append(" ms\n\n");
+                    .append(", time=").append(toMillis(dt2)).append(" ms\n");
+            out.append("- TimSort:       comparisons=").append(timComparisons)
+                    .append(", time=").append(toMillis(dt3)).append(" ms\n");
+            out.append("- TimSort (presorted input): comparisons=").append(timSortedComparisons)
+                    .append(", time=").append(toMillis(dt4)).append(" ms\n\n");
 
             out.append("Theoretical\n");
             out.append("- InsertionSort:  O(n^2) worst, Ω(n) best (nearly-sorted).\n");
-            out.append("- MergeSort:      O(n log n) time, Ω(n log n); stable; O(n) extra space.\n\n");
+            out.append("- MergeSort:      O(n log n) time, Ω(n log n); stable; O(n) extra space.\n");
+            out.append("- TimSort:        O(n log n) worst, Ω(n) on presorted/reversed runs; stable; ≤ n/2 extra space.\n\n");
+        }
+
+        // ---------- Sorting (by stock: integer key) ----------
+        out.append("Sorting (by stock)\n");
+        if (data.size() == 0) {
+            out.append("No data to sort.\n\n");
+        } else {
+            Comparator<Drug> byStock = (a,b) -> Integer.compare(a.getStock(), b.getStock());
+
+            Vec<Drug> v1 = copyOf(data);
+            shuffle(v1);
+            long t1 = now();
+            long merComparisons = sortAndCountComparisonsMerge(v1, byStock);
+            long dt1 = now() - t1;
+
+            Vec<Drug> v2 = copyOf(data);
+            shuffle(v2);
+            long t2 = now();
+            RadixSort.byInt(v2, Drug::getStock);
+            long dt2 = now() - t2;
+
+            out.append("- MergeSort: comparisons=").append(merComparisons)
+                    .append(", time=").append(toMillis(dt1)).append(" ms\n");
+            out.append("- RadixSort: comparisons=0, time=").append(toMillis(dt2)).append(" ms\n\n");
+
+            out.append("Theoretical\n");
+            out.append("- RadixSort (LSD, 8-bit digits): O(n) per key byte, stable; bytes equal across all keys are skipped.\n\n");
         }
 
         // ---------- Searching (binary search vs hashmap) ----------
@@ -82,7 +136,7 @@ public final class PerformanceReport {
 
             // Hash map lookups timing (average O(1))
             long t0 = now();
-            for (int i=0;i<keys.length;i++){ drugsSvc.indexByCode().get(keys[i]); }
+            for (int i=0;i<keys.length;i++){ drugsSvc.getByCode(keys[i]); }
             long dt = now() - t0;
 
             out.append("- BinarySearch (on code): comparisons≈")
@@ -114,17 +168,52 @@ public final class PerformanceReport {
             long dt = now() - t;
             out.append("- Linear scan: elements_visited=").append(visited)
                     .append(", hits=").append(hits)
-                    .append(", time=").append(toMillis(dt)).append(" ms\n\n");
+                    .append(", time=").append(toMillis(dt)).append(" ms\n");
+
+            // same term through the trigram index (only candidates get the substring check)
+            TrigramIndex<Drug> grams = drugsSvc.indexByNameGram();
+            if (grams != null) {
+                long tg = now();
+                int gramHits = grams.search(term).size();
+                long dtg = now() - tg;
+                out.append("- Trigram index: candidates_checked=").append(grams.candidateCount(term))
+                        .append(", hits=").append(gramHits)
+                        .append(", grams=").append(grams.gramCount())
+                        .append(", time=").append(toMillis(dtg)).append(" ms\n\n");
+            } else {
+                // off-heap catalogue: byte scan of the pooled names, no index
+                DrugTable table = drugsSvc.table();
+                long tg = now();
+                int tableHits = table.rowsNameContains(term).size();
+                long dtg = now() - tg;
+                out.append("- Off-heap name scan: rows=").append(table.size())
+                        .append(", hits=").append(tableHits)
+                        .append(", off_heap_bytes=").append(table.offHeapBytes())
+                        .append(", time=").append(toMillis(dtg)).append(" ms\n\n");
+            }
 
             out.append("Theoretical\n");
-            out.append("- Linear search: O(n) worst/avg, Ω(1) best if first item matches.\n\n");
+            out.append("- Linear search: O(n) worst/avg, Ω(1) best if first item matches.\n");
+            out.append("- Trigram index: intersect posting lists (shortest first), then verify candidates; terms < 3 chars fall back to a scan.\n\n");
         }
 
+        // ---------- Hash index health ----------
+        out.append("Hash index health (HashMapOpen)\n");
+        HashMapOpen<Drug> codeIndex = drugsSvc.indexByCode();
+        if (codeIndex != null) appendProbeStats(out, "Drugs by code", codeIndex);
+        else out.append("- Drugs by code: off-heap table (DrugTable slots), no HashMapOpen index\n");
+        if (suppliers != null) appendProbeStats(out, "Suppliers by id", suppliers.indexById());
+        if (customers != null) appendProbeStats(out, "Customers by id", customers.indexById());
+        out.append("\nTheoretical\n");
+        out.append("- Probe length = slots inspected to find a key (1 = home slot); linear probing at load α\n");
+        out.append("  averages about (1 + 1/(1-α))/2 for hits. Long tails mean clustered hashes.\n\n");
+
         // ---------- Qualitative DS notes ----------
         out.append("Other structures (qualitative complexity)\n");
         out.append("- LinkedQueue enqueue/dequeue: O(1).\n");
         out.append("- LinkedStack push/pop:        O(1).\n");
-        out.append("- MinHeap insert/extractMin:   O(log n), peek O(1).\n\n");
+        out.append("- MinHeap insert/extractMin:   O(log n), peek O(1).\n");
+        out.append("- IndexedMinHeap update(key):  O(log n) reposition; smallest(k) O(k log k).\n\n");
 
         out.append("Notes\n");
         out.append("- Times depend on dataset size and machine.\n");
@@ -134,9 +223,44 @@ public final class PerformanceReport {
     }
 
     // -------- helpers (no java.util) --------
+    private static void appendProbeStats(StringBuilder out, String label, HashMapOpen<?> index){
+        HashMapOpen.ProbeStats s = index.probeStats();
+        out.append("- ").append(label).append(index.isRobinHood() ? " (Robin Hood)" : " (linear)").append('\n');
+        out.append("    entries=").append(s.entries).append(", capacity=").append(s.capacity)
+                .append(", load=").append(fixed2(s.loadFactor))
+                .append(", tombstones=").append(s.tombstones)
+                .append(", resizes=").append(s.resizes)
+                .append(", rehashes=").append(s.rehashes).append('\n');
+        out.append("    probe length: avg=").append(fixed2(s.averageProbe))
+                .append(", max=").append(s.maxProbe).append(", histogram=");
+        int last = s.histogram.length - 1;
+        while (last > 0 && s.histogram[last] == 0) last--;
+        for (int i = 0; i <= last; i++) {
+            if (i > 0) out.append(' ');
+            out.append(i + 1);
+            if (i == s.histogram.length - 1) out.append('+');
+            out.append(':').append(s.histogram[i]);
+        }
+        out.append('\n');
+        if (!index.isRecordingStats() && s.lookups == 0) {
+            out.append("    lookups: not recorded (run with -Datinka.indexstats=true)\n");
+            return;
+        }
+        out.append("    lookups=").append(s.lookups).append(", hits=").append(s.hits)
+                .append(", avg probes=").append(fixed2(s.averageLookupProbe))
+                .append(" (misses ").append(fixed2(s.averageMissProbe)).append(')')
+                .append(", max=").append(s.maxLookupProbe).append('\n');
+    }
+
+    private static String fixed2(double d){
+        long c = Math.round(d * 100.0);
+        long f = c % 100;
+        return (c / 100) + (f < 10 ? ".0" : ".") + f;
+    }
+
     private static Vec<Drug> copyOf(Vec<Drug> v){
         Vec<Drug> c = new Vec<>(v.size());
-        for (int i=0;i<v.size();i++) c.add(v.get(i));
+        c.addAll(v);
         return c;
     }
 
@@ -169,6 +293,11 @@ public final class PerformanceReport {
         MergeSort.sort(v, c);
         return c.count;
     }
+    private static long sortAndCountComparisonsTim(Vec<Drug> v, Comparator<Drug> base){
+        CountingComparator<Drug> c = new CountingComparator<>(base);
+        TimSort.sort(v, c);
+        return c.count;
+    }
 
     private static int compareIgnoreCase(String a, String b){
         if (a == null && b == null) return 0;
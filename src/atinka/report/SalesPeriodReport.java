@@ -1,14 +1,17 @@
 package atinka.report;
 
 import atinka.dsa.Comparator;
-import atinka.dsa.HashMapOpen;
+import atinka.dsa.LongObjectMap;
 import atinka.dsa.MergeSort;
+import atinka.dsa.RadixSort;
+import atinka.dsa.StringDict;
+import atinka.dsa.TopK;
 import atinka.dsa.Vec;
 import atinka.model.Drug;
-import atinka.model.SaleTxn;
 import atinka.service.DrugService;
 import atinka.storage.ReportsFS;
 import atinka.storage.SaleLogCsv;
+import atinka.storage.SaleSegments;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -20,62 +23,34 @@ import java.time.LocalDateTime;
 public final class SalesPeriodReport {
     private SalesPeriodReport(){}
 
+    private static final int TOP_SELLERS = 5;
+
     public static java.nio.file.Path generate(LocalDateTime from, LocalDateTime to,
                                               SaleLogCsv sales, DrugService drugs){
         if (from == null) from = LocalDateTime.MIN.plusYears(1); // avoid MIN overflow printing
         if (to == null)   to   = LocalDateTime.MAX.minusYears(1);
 
-        // 1) Read + filter
-        Vec<SaleTxn> all = sales.readAll();
-        Vec<SaleTxn> filt = new Vec<>();
-        for (int i=0;i<all.size();i++){
-            SaleTxn s = all.get(i);
-            LocalDateTime ts = s.getTimestamp();
-            if (ts == null) continue;
-            if ((ts.isAfter(from) || ts.isEqual(from)) && (ts.isBefore(to) || ts.isEqual(to))){
-                filt.add(s);
-            }
-        }
-
-        // 2) Accumulate totals, per-drug, per-day
-        Totals grand = new Totals();
-        HashMapOpen<Acc> perDrug = new HashMapOpen<>(64);
-        HashMapOpen<Day> perDay = new HashMapOpen<>(64);
+        // 1-2) Filter and accumulate totals, per-drug, per-day over the columnar copy of the
+        //      log (no text parsing; segments outside the period are skipped)
+        SaleSegments seg = sales.segments();
+        Aggregate agg = new Aggregate(seg.dictionary());
+        seg.scan(SaleSegments.toMicros(from), SaleSegments.toMicros(to), agg);
+        Totals grand = agg.grand;
+        Vec<Acc> rows = agg.rows;
+        LongObjectMap<Day> perDay = agg.perDay;
 
-        for (int i=0;i<filt.size();i++){
-            SaleTxn s = filt.get(i);
-            grand.count++;
-            grand.units += s.getQty();
-            grand.revenue += s.getTotal();
-
-            // per-drug
-            String code = s.getCode()==null? "": s.getCode();
-            Acc a = perDrug.get(code);
-            if (a == null){ a = new Acc(); a.code = code; a.qty = 0; a.revenue = 0; perDrug.put(code, a); }
-            a.qty += s.getQty();
-            a.revenue += s.getTotal();
-
-            // per-day
-            String day = toDayKey(s.getTimestamp());
-            Day d = perDay.get(day);
-            if (d == null){ d = new Day(); d.day = day; d.revenue = 0; perDay.put(day, d); }
-            d.revenue += s.getTotal();
-        }
-
-        // 3) Convert perDrug and perDay to Vecs
-        Vec<Acc> rows = new Vec<>();
-        perDrug.forEach((k,v) -> rows.add(v));
-        // enrich with drug name if available
+        // 3) Enrich per-drug rows with drug name if available; collect perDay into a Vec
         for (int i=0;i<rows.size();i++){
             Acc a = rows.get(i);
             Drug d = drugs.getByCode(a.code);
             a.name = (d==null? "" : d.getName());
         }
 
-        Vec<Day> days = new Vec<>();
-        perDay.forEach((k,v) -> days.add(v));
+        Vec<Day> days = new Vec<>(perDay.size());
+        LongObjectMap.Cursor<Day> dc = perDay.cursor();
+        while (dc.advance()) days.add(dc.value());
 
-        // 4) Sort per-drug by revenue desc; per-day by ascending date (lex OK)
+        // 4) Sort per-drug by revenue desc; per-day by ascending epoch day (radix)
         Comparator<Acc> byRevDesc = (x,y) -> {
             double diff = x.revenue - y.revenue;
             if (diff < 0) return 1;
@@ -87,8 +62,11 @@ public final class SalesPeriodReport {
         };
         MergeSort.sort(rows, byRevDesc);
 
-        Comparator<Day> byDayAsc = (x,y) -> compareIgnoreCase(x.day, y.day);
-        MergeSort.sort(days, byDayAsc);
+        // top sellers by units: bounded selection, ties keep revenue order from above
+        Comparator<Integer> unitsDesc = (x,y) -> Integer.compare(y, x);
+        Vec<Acc> topUnits = TopK.select(rows, TOP_SELLERS, a -> a.qty, unitsDesc);
+
+        RadixSort.byLong(days, d -> d.epochDay); // linear, no comparisons
 
         // 5) Emit
         StringBuilder out = new StringBuilder();
@@ -101,6 +79,17 @@ public final class SalesPeriodReport {
         out.append("- Units sold:   ").append(grand.units).append("\n");
         out.append("- Revenue:      ").append(toFixed2(grand.revenue)).append("\n\n");
 
+        out.append("Top ").append(TOP_SELLERS).append(" sellers (by units)\n");
+        for (int i=0;i<topUnits.size();i++){
+            Acc a = topUnits.get(i);
+            out.append(StringPad.padLeft(String.valueOf(i+1), 2)).append(". ")
+                    .append(StringPad.padRight(a.code, 10)).append("  ")
+                    .append(StringPad.padRight(limit(a.name,28), 28)).append("  ")
+                    .append(StringPad.padLeft(String.valueOf(a.qty), 6)).append("\n");
+        }
+        if (topUnits.size() == 0) out.append("(no sales)\n");
+        out.append("\n");
+
         out.append("Per-drug breakdown (sorted by revenue desc)\n");
         out.append(StringPad.padRight("CODE", 10)).append("  ")
                 .append(StringPad.padRight("NAME", 28)).append("  ")
@@ -120,7 +109,7 @@ public final class SalesPeriodReport {
                 .append(StringPad.padLeft("REVENUE", 10)).append("\n");
         for (int i=0;i<days.size();i++){
             Day d = days.get(i);
-            out.append(StringPad.padRight(d.day, 12)).append("  ")
+            out.append(StringPad.padRight(LocalDate.ofEpochDay(d.epochDay).toString(), 12)).append("  ")
                     .append(StringPad.padLeft(toFixed2(d.revenue), 10)).append("\n");
         }
 
@@ -130,12 +119,49 @@ public final class SalesPeriodReport {
     // -------- models for rows --------
     private static final class Totals { int count; int units; double revenue; }
     private static final class Acc { String code; String name; int qty; double revenue; }
-    private static final class Day { String day; double revenue; }
+    private static final class Day { long epochDay; double revenue; }
+
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    /** Row callback for the period: folds each sale into the buckets, so no list of sales is held. */
+    private static final class Aggregate implements SaleSegments.RowVisitor {
+        final StringDict codes;        // segment dictionary: code ids are dense
+        final Totals grand = new Totals();
+        Acc[] perDrug;                 // code id → bucket
+        final Vec<Acc> rows = new Vec<>();
+        final LongObjectMap<Day> perDay = new LongObjectMap<>(64); // epoch day → bucket
+
+        Aggregate(StringDict codes){
+            this.codes = codes;
+            this.perDrug = new Acc[Math.max(16, codes.size())];
+        }
+
+        @Override public void row(long micros, int codeId, int qty, int customerId, long priceCents, long totalCents){
+            double total = totalCents / 100.0;
+            grand.count++;
+            grand.units += qty;
+            grand.revenue += total;
+
+            // per-drug
+            if (codeId >= perDrug.length) perDrug = grow(perDrug, codeId + 1);
+            Acc a = perDrug[codeId];
+            if (a == null){ a = new Acc(); a.code = codes.get(codeId); a.qty = 0; a.revenue = 0; perDrug[codeId] = a; rows.add(a); }
+            a.qty += qty;
+            a.revenue += total;
+
+            // per-day (keyed by epoch day: no per-row key string)
+            long day = Math.floorDiv(micros, MICROS_PER_DAY);
+            Day d = perDay.get(day);
+            if (d == null){ d = new Day(); d.epochDay = day; d.revenue = 0; perDay.put(day, d); }
+            d.revenue += total;
+        }
+    }
 
     // -------- helpers (no java.util) --------
-    private static String toDayKey(LocalDateTime t){
-        LocalDate d = (t==null) ? null : t.toLocalDate();
-        return d==null ? "" : d.toString(); // yyyy-mm-dd (lexical = chronological)
+    private static Acc[] grow(Acc[] a, int min){
+        Acc[] b = new Acc[Math.max(min, a.length * 2)];
+        System.arraycopy(a, 0, b, 0, a.length);
+        return b;
     }
 
     private static int compareIgnoreCase(String a, String b){
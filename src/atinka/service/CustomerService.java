@@ -11,7 +11,7 @@ public final class CustomerService {
 
     public CustomerService(Vec<Customer> initial){
         this.list = (initial == null) ? new Vec<>() : initial;
-        this.byId = new HashMapOpen<>(nextPow2(Math.max(16, this.list.size() * 2)));
+        this.byId = new HashMapOpen<>(nextPow2(Math.max(16, this.list.size() * 2)), true); // Robin Hood: no tombstones under churn
         for (int i=0;i<this.list.size();i++){
             Customer c = this.list.get(i);
             byId.put(c.getId(), c);
@@ -24,7 +24,7 @@ public final class CustomerService {
 
     public Vec<Customer> all(){
         Vec<Customer> c = new Vec<>(list.size());
-        for (int i=0;i<list.size();i++) c.add(list.get(i));
+        c.addAll(list);
         return c;
     }
 
@@ -33,6 +33,9 @@ public final class CustomerService {
         return byId.get(id.trim());
     }
 
+    /** The id index (probe stats for reports). */
+    public HashMapOpen<Customer> indexById(){ return byId; }
+
     public boolean add(Customer c){
         if (c == null) return false;
         if (byId.get(c.getId()) != null) return false;
@@ -2,9 +2,16 @@ package atinka.service;
 
 import atinka.dsa.Comparator;
 import atinka.dsa.HashMapOpen;
+import atinka.dsa.IntVec;
+import atinka.dsa.IndexedMinHeap;
+import atinka.dsa.SkipList;
+import atinka.dsa.TrigramIndex;
 import atinka.dsa.Vec;
-import atinka.dsa.MergeSort;
+import atinka.dsa.RadixSort;
+import atinka.dsa.TimSort;
 import atinka.model.Drug;
+import atinka.model.DrugTable;
+import atinka.storage.DrugJournal;
 
 import java.time.LocalDate;
 
@@ -12,52 +19,122 @@ import java.time.LocalDate;
  * DrugService
  * - In-memory store using Vec<Drug>
  * - O(1) avg code→Drug lookup via HashMapOpen
+ * - Live low-stock priority via IndexedMinHeap (kept in step with stock/name edits)
+ * - Price and expiry range queries via SkipList secondary indexes
+ * - Name "contains" search via a TrigramIndex over drug names
  * - No java.util collections
+ * Off-heap mode (onTable): the catalogue lives in a DrugTable's columns instead, the
+ * heap indexes are not built, queries become column scans, and returned Drugs are
+ * snapshots (edit through this service, not the Drug objects).
+ * With journalTo(j), every successful change is also recorded in a DrugJournal, so
+ * persisting a sale is one short append instead of a catalogue rewrite.
  */
 public final class DrugService {
     private final Vec<Drug> list;             // primary store
     private final HashMapOpen<Drug> byCode;   // index
+    private final IndexedMinHeap<Drug> byStock; // lowest stock first, ties by name
+    private final SkipList<Double, Drug> byPrice;     // price → drugs, ties by code
+    private final SkipList<LocalDate, Drug> byExpiry; // expiry → drugs (no-expiry drugs not indexed)
+    private final TrigramIndex<Drug> byNameGram; // name trigrams → drugs
+    private final RadixSort radix = new RadixSort();  // scratch reused by price sorts
+    private final DrugTable table;                    // off-heap store; null = heap mode
+    private DrugJournal journal;                      // change records; null = not journalled
 
     public DrugService(Vec<Drug> initial) {
+        this.table = null;
+        this.byNameGram = new TrigramIndex<>();
         this.list = (initial == null) ? new Vec<>() : initial;
-        this.byCode = new HashMapOpen<>(nextPow2(Math.max(16, this.list.size() * 2)));
-        // build index
+        this.byCode = new HashMapOpen<>(nextPow2(Math.max(16, this.list.size() * 2)), true); // Robin Hood: no tombstones under churn
+        Comparator<Drug> stockThenName = (a,b) -> {
+            int x = a.getStock() - b.getStock();
+            if (x != 0) return (x < 0) ? -1 : 1;
+            return compareIgnoreCase(a.getName(), b.getName());
+        };
+        this.byStock = new IndexedMinHeap<>(stockThenName, Drug::getCode, Math.max(16, this.list.size()));
+        Comparator<Drug> byCodeTie = (a,b) -> a.getCode().compareTo(b.getCode());
+        this.byPrice = new SkipList<>((a,b) -> Double.compare(a, b), byCodeTie);
+        this.byExpiry = new SkipList<>((a,b) -> a.compareTo(b), byCodeTie);
+        // build indexes
         for (int i = 0; i < this.list.size(); i++) {
             Drug d = this.list.get(i);
             byCode.put(d.getCode(), d);
+            byStock.insert(d);
+            indexRanges(d);
+            byNameGram.put(d.getCode(), d, d.getName());
         }
     }
 
+    private DrugService(DrugTable table){
+        this.table = table;
+        this.list = null;
+        this.byCode = null;
+        this.byStock = null;
+        this.byPrice = null;
+        this.byExpiry = null;
+        this.byNameGram = null;
+    }
+
+    /** A service backed by an off-heap DrugTable (see DrugTable.of to load one). */
+    public static DrugService onTable(DrugTable table){
+        if (table == null) throw new IllegalArgumentException("table is null");
+        return new DrugService(table);
+    }
+
     private int nextPow2(int x) { int p=1; while(p<x) p<<=1; return p; }
 
     // ---------------- Basic accessors ----------------
-    public int size(){ return list.size(); }
+    public int size(){ return table != null ? table.size() : list.size(); }
 
     /** Returns a COPY to protect internal store. */
     public Vec<Drug> all() {
+        if (table != null) return table.toDrugs();
         Vec<Drug> c = new Vec<>(list.size());
-        for (int i=0;i<list.size();i++) c.add(list.get(i));
+        c.addAll(list);
         return c;
     }
 
     public Drug getByCode(String code) {
         if (code == null) return null;
+        if (table != null) { int r = table.find(code.trim()); return r < 0 ? null : table.toDrug(r); }
         return byCode.get(code.trim());
     }
 
+    /** Heap-mode indexes; null in off-heap mode. */
     public HashMapOpen<Drug> indexByCode(){ return byCode; }
+    public TrigramIndex<Drug> indexByNameGram(){ return byNameGram; }
+    /** The off-heap store, or null in heap mode. */
+    public DrugTable table(){ return table; }
+
+    /** Record every later change in j (null stops recording); the caller commits it. */
+    public void journalTo(DrugJournal j){ this.journal = j; }
+
+    private int row(String code){
+        return code == null ? -1 : table.find(code.trim());
+    }
 
     // ---------------- CRUD ----------------
 
     public void addDrug(Drug d){
         if (d == null) throw new IllegalArgumentException("Drug is null");
-        if (byCode.get(d.getCode()) != null) throw new IllegalStateException("Code exists");
-        list.add(d);
-        byCode.put(d.getCode(), d);
+        if (table != null) table.add(d);
+        else {
+            if (byCode.get(d.getCode()) != null) throw new IllegalStateException("Code exists");
+            list.add(d);
+            byCode.put(d.getCode(), d);
+            byStock.insert(d);
+            indexRanges(d);
+            byNameGram.put(d.getCode(), d, d.getName());
+        }
+        if (journal != null) journal.added(d);
     }
 
     public boolean removeByCode(String code){
         if (code == null) return false;
+        if (table != null) {
+            if (!table.remove(code.trim())) return false;
+            if (journal != null) journal.removed(code.trim());
+            return true;
+        }
         Drug found = byCode.get(code.trim());
         if (found == null) return false;
         // remove from list (linear scan)
@@ -68,61 +145,171 @@ public final class DrugService {
             }
         }
         byCode.remove(code.trim());
+        byStock.remove(found.getCode());
+        unindexRanges(found);
+        byNameGram.remove(found.getCode());
+        if (journal != null) journal.removed(found.getCode());
         return true;
     }
 
     public boolean updateName(String code, String newName){
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) return false;
+            table.setName(r, newName);
+            if (journal != null) journal.name(code.trim(), newName);
+            return true;
+        }
         Drug d = getByCode(code); if (d == null) return false;
         d.setName(newName);
+        byStock.update(d.getCode()); // name is the tie-break
+        byNameGram.put(d.getCode(), d, d.getName());
+        if (journal != null) journal.name(code.trim(), newName);
         return true;
     }
 
     public boolean updatePrice(String code, double newPrice){
         if (newPrice < 0) throw new IllegalArgumentException("price >= 0");
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) return false;
+            table.setPrice(r, newPrice);
+            if (journal != null) journal.price(code.trim(), newPrice);
+            return true;
+        }
         Drug d = getByCode(code); if (d == null) return false;
+        byPrice.remove(d.getPrice(), d);
         d.setPrice(newPrice);
+        byPrice.put(d.getPrice(), d);
+        if (journal != null) journal.price(code.trim(), newPrice);
         return true;
     }
 
     public boolean updateStockAbsolute(String code, int newStock){
         if (newStock < 0) throw new IllegalArgumentException("stock >= 0");
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) return false;
+            table.setStock(r, newStock);
+            if (journal != null) journal.stock(code.trim(), newStock);
+            return true;
+        }
         Drug d = getByCode(code); if (d == null) return false;
         d.setStock(newStock);
+        byStock.update(d.getCode());
+        if (journal != null) journal.stock(code.trim(), newStock);
         return true;
     }
 
     public boolean updateExpiry(String code, LocalDate expiry){
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) return false;
+            table.setExpiry(r, expiry);
+            if (journal != null) journal.expiry(code.trim(), expiry);
+            return true;
+        }
         Drug d = getByCode(code); if (d == null) return false;
+        if (d.getExpiry() != null) byExpiry.remove(d.getExpiry(), d);
         d.setExpiry(expiry);
+        if (d.getExpiry() != null) byExpiry.put(d.getExpiry(), d);
+        if (journal != null) journal.expiry(code.trim(), expiry);
         return true;
     }
 
     public boolean updateThreshold(String code, int t){
         if (t < 0) t = 0;
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) return false;
+            table.setThreshold(r, t);
+            if (journal != null) journal.threshold(code.trim(), t);
+            return true;
+        }
         Drug d = getByCode(code); if (d == null) return false;
         d.setThreshold(t);
+        if (journal != null) journal.threshold(code.trim(), t);
         return true;
     }
 
     public boolean linkSupplier(String code, String supplierId){
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) return false;
+            table.addSupplier(r, supplierId);
+            if (journal != null) journal.linked(code.trim(), supplierId);
+            return true;
+        }
         Drug d = getByCode(code); if (d == null) return false;
         d.addSupplier(supplierId);
+        if (journal != null) journal.linked(code.trim(), supplierId);
         return true;
     }
 
     public boolean unlinkSupplier(String code, String supplierId){
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) return false;
+            table.removeSupplier(r, supplierId);
+            if (journal != null) journal.unlinked(code.trim(), supplierId);
+            return true;
+        }
         Drug d = getByCode(code); if (d == null) return false;
         d.removeSupplier(supplierId);
+        if (journal != null) journal.unlinked(code.trim(), supplierId);
         return true;
     }
 
     /** Adjust stock by delta (can be negative). Throws if result < 0. */
     public void adjustStock(String code, int delta){
+        if (table != null) {
+            int r = row(code);
+            if (r < 0) throw new IllegalStateException("Drug not found");
+            int ns = table.stock(r) + delta;
+            if (ns < 0) throw new IllegalStateException("Stock would go negative");
+            table.setStock(r, ns);
+            if (journal != null) journal.stock(code.trim(), ns);
+            return;
+        }
         Drug d = getByCode(code);
         if (d == null) throw new IllegalStateException("Drug not found");
         int ns = d.getStock() + delta;
         if (ns < 0) throw new IllegalStateException("Stock would go negative");
         d.setStock(ns);
+        byStock.update(d.getCode());
+        if (journal != null) journal.stock(d.getCode(), ns);
+    }
+
+    /** The n lowest-stock drugs (ties by name), read off the live heap: O(n log n), independent of catalogue size. */
+    public Vec<Drug> lowestStock(int n){
+        if (table != null) return table.toDrugs(table.lowestStock(n));
+        return byStock.smallest(n);
+    }
+
+    private void indexRanges(Drug d){
+        byPrice.put(d.getPrice(), d);
+        if (d.getExpiry() != null) byExpiry.put(d.getExpiry(), d);
+    }
+
+    private void unindexRanges(Drug d){
+        byPrice.remove(d.getPrice(), d);
+        if (d.getExpiry() != null) byExpiry.remove(d.getExpiry(), d);
+    }
+
+    // ---------------- Range queries (SkipList) ----------------
+
+    /** Drugs with min <= price <= max, cheapest first: O(log n + m). */
+    public Vec<Drug> pricedBetween(double min, double max){
+        if (min > max) return new Vec<>();
+        if (table != null) return byKeyThenCode(table.rowsPricedBetween(min, max), true);
+        return byPrice.valuesBetween(min, max);
+    }
+
+    /** Drugs whose expiry is before the given date (already expired included), soonest first. */
+    public Vec<Drug> expiringBefore(LocalDate date){
+        if (date == null) return new Vec<>();
+        if (table != null) return byKeyThenCode(table.rowsExpiringBefore(date.toEpochDay()), false);
+        return byExpiry.valuesBefore(date);
     }
 
     // ---------------- Sorting / Searching ----------------
@@ -130,45 +317,61 @@ public final class DrugService {
     public Vec<Drug> sortedByName(){
         Vec<Drug> c = all();
         Comparator<Drug> byName = (a,b) -> compareIgnoreCase(a.getName(), b.getName());
-        MergeSort.sort(c, byName);
+        TimSort.sort(c, byName); // catalogue is usually close to name order already
         return c;
     }
 
+    /** By price, ties by name: stable name sort, then a stable radix pass on the price bits. */
     public Vec<Drug> sortedByPrice(){
         Vec<Drug> c = all();
-        Comparator<Drug> byPrice = (a,b) -> {
-            double x = a.getPrice() - b.getPrice();
-            if (x < 0) return -1;
-            if (x > 0) return 1;
-            return compareIgnoreCase(a.getName(), b.getName());
-        };
-        MergeSort.sort(c, byPrice);
+        Comparator<Drug> byName = (a,b) -> compareIgnoreCase(a.getName(), b.getName());
+        TimSort.sort(c, byName);
+        radix.sortByLong(c, d -> RadixSort.sortableDouble(d.getPrice()));
         return c;
     }
 
-    /** Case-insensitive "name contains" search using custom substring match. */
+    /**
+     * Case-insensitive "name contains" search. Terms of 3+ chars intersect trigram
+     * posting lists and only check the candidates; shorter terms scan every name.
+     */
     public Vec<Drug> searchNameContains(String term){
+        if (term == null || term.trim().length() == 0) return new Vec<>();
+        if (table != null) return table.toDrugs(table.rowsNameContains(term.trim()));
+        return byNameGram.search(term.trim());
+    }
+
+    /** All drugs linked to a supplier ID. */
+    public Vec<Drug> bySupplier(String supplierId){
         Vec<Drug> out = new Vec<>();
-        if (term == null || term.trim().length() == 0) return out;
-        String needle = term.trim().toLowerCase();
+        if (supplierId == null) return out;
+        if (table != null) return table.toDrugs(table.rowsWithSupplier(supplierId));
         for (int i=0;i<list.size();i++){
             Drug d = list.get(i);
-            if (indexOfIgnoreCase(d.getName(), needle) >= 0) out.add(d);
+            if (d.hasSupplier(supplierId)) out.add(d);
         }
         return out;
     }
 
-    /** All drugs linked to a supplier ID. */
-    public Vec<Drug> bySupplier(String supplierId){
+    /** Drugs with stock <= threshold, in catalogue order. */
+    public Vec<Drug> lowStock(){
+        if (table != null) return table.toDrugs(table.rowsLowStock());
         Vec<Drug> out = new Vec<>();
-        if (supplierId == null) return out;
         for (int i=0;i<list.size();i++){
             Drug d = list.get(i);
-            if (d.hasSupplier(supplierId)) out.add(d);
+            if (d.isLowStock()) out.add(d);
         }
         return out;
     }
 
+    /** Off-heap range results in the SkipList order: by price (or expiry), ties by code. */
+    private Vec<Drug> byKeyThenCode(IntVec rows, boolean price){
+        Vec<Drug> c = table.toDrugs(rows);
+        TimSort.sort(c, (a,b) -> a.getCode().compareTo(b.getCode()));
+        if (price) radix.sortByLong(c, d -> RadixSort.sortableDouble(d.getPrice()));
+        else radix.sortByLong(c, d -> d.getExpiry().toEpochDay());
+        return c;
+    }
+
     // ---------------- Helpers (no java.util) ----------------
 
     private int compareIgnoreCase(String a, String b){
@@ -189,21 +392,4 @@ public final class DrugService {
     private char toLower(char c){
         return (c >= 'A' && c <= 'Z') ? (char)(c + 32) : c;
     }
-
-    /** returns index or -1 */
-    private int indexOfIgnoreCase(String hay, String needleLower){
-        if (hay == null) return -1;
-        int n = hay.length(), m = needleLower.length();
-        if (m == 0) return 0;
-        for (int i=0;i+m<=n;i++){
-            int k=0; while(k<m){
-                char a = toLower(hay.charAt(i+k));
-                char b = needleLower.charAt(k);
-                if (a != b) break;
-                k++;
-            }
-            if (k==m) return i;
-        }
-        return -1;
-    }
 }
@@ -1,8 +1,7 @@
 package atinka.service;
 
 import atinka.dsa.Comparator;
-import atinka.dsa.MergeSort;
-import atinka.dsa.MinHeap;
+import atinka.dsa.TopK;
 import atinka.dsa.Vec;
 import atinka.model.Drug;
 import atinka.model.PurchaseTxn;
@@ -16,8 +15,9 @@ import java.time.LocalDateTime;
 /**
  * InventoryService
  * - Business rules for sales & purchases
- * - Low-stock priority via MinHeap
- * - Latest N purchases per drug
+ * - Low-stock priority via DrugService's IndexedMinHeap
+ * - Latest N purchases per drug via bounded TopK
+ * - Per-log Bloom filters skip scans for codes that never occur
  */
 public final class InventoryService {
     private final DrugService drugs;
@@ -65,74 +65,48 @@ public final class InventoryService {
         return pt;
     }
 
-    /** Top N lowest stock drugs via MinHeap. */
+    /** Puts back the stock taken by recordSale (the sale could not be logged). */
+    public void revertSale(SaleTxn t){
+        drugs.adjustStock(t.getCode(), t.getQty());
+    }
+
+    /** Takes back the stock added by recordPurchase (the purchase could not be logged). */
+    public void revertPurchase(PurchaseTxn t){
+        drugs.adjustStock(t.getCode(), -t.getQty());
+    }
+
+    /** Top N lowest stock drugs, read from the live IndexedMinHeap (no copy/rebuild). */
     public Vec<Drug> lowStockTopN(int n){
         if (n <= 0) n = 1;
-        Vec<Drug> all = drugs.all();
-        Comparator<Drug> byStock = (a,b) -> {
-            int x = a.getStock() - b.getStock();
-            if (x != 0) return (x < 0) ? -1 : 1;
-            return compareIgnoreCase(a.getName(), b.getName());
-        };
-        MinHeap<Drug> heap = new MinHeap<>(byStock);
-        for (int i=0;i<all.size();i++) heap.insert(all.get(i));
-        int take = n < all.size() ? n : all.size();
-        Vec<Drug> res = new Vec<>(take);
-        for (int i=0;i<take;i++){
-            Drug d = heap.extractMin();
-            if (d == null) break;
-            res.add(d);
-        }
-        return res;
+        return drugs.lowestStock(n);
     }
 
     /** Alert list of drugs currently at/below threshold. */
     public Vec<Drug> currentAlerts(){
-        Vec<Drug> all = drugs.all();
-        Vec<Drug> out = new Vec<>();
-        for (int i=0;i<all.size();i++){
-            if (all.get(i).isLowStock()) out.add(all.get(i));
-        }
-        return out;
+        return drugs.lowStock();
     }
 
     /** Latest k purchases for a code, sorted by time DESC. */
     public Vec<PurchaseTxn> latestPurchases(String code, int k){
         if (k <= 0) k = 5;
-        Vec<PurchaseTxn> all = purchaseLog.readAll();
-        // filter
-        Vec<PurchaseTxn> filt = new Vec<>();
-        for (int i=0;i<all.size();i++){
-            PurchaseTxn t = all.get(i);
-            if (t.getCode() != null && t.getCode().equalsIgnoreCase(code)) filt.add(t);
-        }
-        // sort DESC by timestamp
+        // Bloom filter: a code never purchased skips reading the log at all
+        if (!purchaseLog.mightContainCode(code)) return new Vec<>();
+        // keep only the k newest matches while streaming the log: O(n log k), O(k) extra
         Comparator<PurchaseTxn> byTimeDesc = (a,b) -> compareTimeDesc(a.getTimestamp(), b.getTimestamp());
-        MergeSort.sort(filt, byTimeDesc);
-        // take first k
-        int take = k < filt.size() ? k : filt.size();
-        Vec<PurchaseTxn> out = new Vec<>(take);
-        for (int i=0;i<take;i++) out.add(filt.get(i));
-        return out;
+        TopK<PurchaseTxn> newest = new TopK<>(k, byTimeDesc);
+        purchaseLog.forEach(t -> {
+            if (t.getCode() != null && t.getCode().equalsIgnoreCase(code)) newest.offer(t);
+        });
+        return newest.result();
     }
 
-    // ------------- helpers -------------
-
-    private int compareIgnoreCase(String a, String b){
-        if (a == null && b == null) return 0;
-        if (a == null) return -1;
-        if (b == null) return 1;
-        int na = a.length(), nb = b.length();
-        int n = na < nb ? na : nb;
-        for (int i=0;i<n;i++){
-            char ca = toLower(a.charAt(i));
-            char cb = toLower(b.charAt(i));
-            if (ca != cb) return (ca < cb) ? -1 : 1;
-        }
-        if (na == nb) return 0;
-        return (na < nb) ? -1 : 1;
+    /** Has code ever been sold or purchased? Bloom filters answer most "no"s without a scan. */
+    public boolean hasHistory(String code){
+        if (code == null) return false;
+        return saleLog.everSold(code) || purchaseLog.everPurchased(code);
     }
-    private char toLower(char c){ return (c>='A'&&c<='Z')?(char)(c+32):c; }
+
+    // ------------- helpers -------------
 
     private int compareTimeDesc(java.time.LocalDateTime a, java.time.LocalDateTime b){
         if (a == null && b == null) return 0;
@@ -30,7 +30,7 @@ public final class SupplierService {
 
     public Vec<Supplier> all(){
         Vec<Supplier> c = new Vec<>(list.size());
-        for (int i=0;i<list.size();i++) c.add(list.get(i));
+        c.addAll(list);
         return c;
     }
 
@@ -39,6 +39,9 @@ public final class SupplierService {
         return byId.get(id.trim());
     }
 
+    /** The id index (probe stats for reports). */
+    public HashMapOpen<Supplier> indexById(){ return byId; }
+
     public boolean add(Supplier s){
         if (s == null) return false;
         if (byId.get(s.getId()) != null) return false;
@@ -4,9 +4,13 @@ import atinka.dsa.HashSetOpen;
 import atinka.dsa.Vec;
 import atinka.model.Drug;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 
 /**
@@ -15,65 +19,129 @@ import java.time.LocalDate;
  * suppliers is pipe-separated supplier IDs, e.g.: S0001|S0003
  */
 public final class DrugCsvStore {
-    public DrugCsvStore(){}
+    private final Path file;
+    private final DrugJournal journal;
 
+    public DrugCsvStore(){ this(PathsFS.drugsPath()); }
+
+    /** A catalogue at another path (its journal sits next to it). */
+    public DrugCsvStore(Path file){
+        this.file = file;
+        this.journal = new DrugJournal(PathsFS.journalPath(file), this);
+    }
+
+    /**
+     * Mutation journal ("drugs.csv.wal"): edits, sales and restocks are appended to it
+     * and replayed by load(); saveAll is the checkpoint that folds it into drugs.csv.
+     */
+    public DrugJournal journal(){ return journal; }
+
+    /** drugs.csv, then every journalled change made since it was written. */
     public Vec<Drug> load(){
         Vec<Drug> out = new Vec<>();
-        Path p = PathsFS.drugsPath();
-        if (!Files.exists(p)) return out;
-        String[] lines = readAllLines(p);
-        for (int i = 0; i < lines.length; i++) {
-            String ln = lines[i].trim();
-            if (ln.length() == 0) continue;
-            if (ln.startsWith("#")) continue; // allow comments
-            String[] cols = splitCsv(ln, 7);
-            if (cols == null) continue;
-            String code = cols[0];
-            String name = cols[1];
-            double price = parseDouble(cols[2], 0.0);
-            int stock = parseInt(cols[3], 0);
-            LocalDate expiry = parseDate(cols[4]);
-            int threshold = parseInt(cols[5], 0);
-            Drug d = new Drug(code, name, price, stock, expiry, threshold);
-
-            // suppliers
-            String supField = cols[6];
-            if (supField != null && supField.length() > 0) {
-                String[] ids = splitPipe(supField);
-                for (int s = 0; s < ids.length; s++) {
-                    String id = ids[s].trim();
-                    if (id.length() > 0) d.addSupplier(id);
-                }
+        Path p = file;
+        if (Files.exists(p)) {
+            String[] lines = readAllLines(p);
+            for (int i = 0; i < lines.length; i++) {
+                String ln = lines[i].trim();
+                if (ln.length() == 0) continue;
+                if (ln.startsWith("#")) continue; // allow comments
+                Drug d = parseDrug(ln);
+                if (d != null) out.add(d);
             }
-            out.add(d);
         }
+        journal.replay(out);
         return out;
     }
 
+    /** One drugs.csv line (trimmed, not a comment); null if it has fewer than 7 columns. */
+    Drug parseDrug(String ln){
+        String[] cols = splitCsv(ln, 7);
+        if (cols == null) return null;
+        String code = cols[0];
+        String name = cols[1];
+        double price = parseDouble(cols[2], 0.0);
+        int stock = parseInt(cols[3], 0);
+        LocalDate expiry = parseDate(cols[4]);
+        int threshold = parseInt(cols[5], 0);
+        Drug d = new Drug(code, name, price, stock, expiry, threshold);
+
+        // suppliers
+        String supField = cols[6];
+        if (supField != null && supField.length() > 0) {
+            String[] ids = splitPipe(supField);
+            for (int s = 0; s < ids.length; s++) {
+                String id = ids[s].trim();
+                if (id.length() > 0) d.addSupplier(id);
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Checkpoint: rewrites drugs.csv atomically, then empties the journal. With the
+     * journal's setSync(true), the new file and its rename are forced to the device first.
+     */
     public void saveAll(Vec<Drug> drugs){
-        Path p = PathsFS.drugsPath();
-        Path tmp = p.resolveSibling("drugs.csv.tmp");
+        Path p = file;
+        Path tmp = p.resolveSibling(p.getFileName() + ".tmp");
         StringBuilder sb = new StringBuilder();
         sb.append("# code,name,price,stock,expiry,threshold,suppliers\n");
+        HashSetOpen.Cursor ids = new HashSetOpen.Cursor(); // one cursor for every drug's set
         for (int i = 0; i < drugs.size(); i++) {
-            Drug d = drugs.get(i);
-            sb.append(escape(d.getCode())).append(',')
-                    .append(escape(d.getName())).append(',')
-                    .append(toFixed2(d.getPrice())).append(',')
-                    .append(d.getStock()).append(',')
-                    .append(formatDate(d.getExpiry())).append(',')
-                    .append(d.getThreshold()).append(',')
-                    .append(joinSuppliers(d.suppliers()))
-                    .append('\n');
+            appendDrug(sb, drugs.get(i), ids);
+            sb.append('\n');
         }
         byte[] bytes;
         try { bytes = sb.toString().getBytes("UTF-8"); } catch(Exception e){ bytes = new byte[0]; }
+        boolean sync = journal.isSync();
+        boolean saved = false;
+        try {
+            if (sync) writeForced(tmp, bytes); else Files.write(tmp, bytes);
+        } catch (Exception e) {
+            return;                                    // drugs.csv untouched, journal kept
+        }
         try {
-            Files.write(tmp, bytes);
             Files.move(tmp, p, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            saved = true;
         } catch (Exception e) {
-            try { Files.move(tmp, p, StandardCopyOption.REPLACE_EXISTING); } catch(Exception ignored){}
+            try { Files.move(tmp, p, StandardCopyOption.REPLACE_EXISTING); saved = true; } catch(Exception ignored){}
         }
+        // with sync, the rename must be on the device before the journal is truncated
+        if (saved && sync) saved = forceDir(p.toAbsolutePath().getParent());
+        // drugs.csv now holds every change: the journal is redundant (kept if the write failed)
+        if (saved) journal.reset();
+    }
+
+    /** Writes bytes to f and forces them (contents and size) to the device. */
+    private static void writeForced(Path f, byte[] bytes) throws IOException {
+        try (FileChannel c = FileChannel.open(f, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer b = ByteBuffer.wrap(bytes);
+            while (b.hasRemaining()) c.write(b);
+            c.force(true);
+        }
+    }
+
+    /**
+     * Forces a directory's entries (a rename into it) to the device. False if that failed;
+     * true as well where directories can't be opened at all (Windows), as nothing more can be done.
+     */
+    private static boolean forceDir(Path dir){
+        if (dir == null) return true;
+        FileChannel c;
+        try { c = FileChannel.open(dir, StandardOpenOption.READ); } catch (Exception e){ return true; }
+        try (FileChannel d = c) { d.force(true); return true; } catch (Exception e){ return false; }
+    }
+
+    /** One drugs.csv line without its line break (also the payload of a journalled add). */
+    void appendDrug(StringBuilder sb, Drug d, HashSetOpen.Cursor ids){
+        sb.append(escape(d.getCode())).append(',')
+                .append(escape(d.getName())).append(',')
+                .append(toFixed2(d.getPrice())).append(',')
+                .append(d.getStock()).append(',')
+                .append(formatDate(d.getExpiry())).append(',')
+                .append(d.getThreshold()).append(',');
+        appendSuppliers(sb, d.suppliers(), ids);
     }
 
     // ---------- helpers (no java.util) ----------
@@ -108,7 +176,7 @@ public final class DrugCsvStore {
     }
 
     /** Trivial CSV split (no quotes). Expected columns = n. */
-    private String[] splitCsv(String line, int n){
+    String[] splitCsv(String line, int n){
         String[] out = new String[n];
         int idx = 0;
         int start = 0;
@@ -145,33 +213,34 @@ public final class DrugCsvStore {
         return out;
     }
 
-    private String joinSuppliers(HashSetOpen set){
-        final StringBuilder sb = new StringBuilder();
-        set.forEach(id -> {
-            if (sb.length() > 0) sb.append('|');
-            sb.append(escape(id));
-        });
-        return sb.toString();
+    /** Appends the IDs pipe-separated, straight into the line being built. */
+    private void appendSuppliers(StringBuilder sb, HashSetOpen set, HashSetOpen.Cursor ids){
+        int start = sb.length();
+        ids.over(set);
+        while (ids.advance()){
+            if (sb.length() > start) sb.append('|');
+            sb.append(escape(ids.key()));
+        }
     }
 
-    private LocalDate parseDate(String s){
+    LocalDate parseDate(String s){
         try { return (s == null || s.length() == 0) ? null : LocalDate.parse(s); }
         catch (Exception e){ return null; }
     }
 
-    private String formatDate(LocalDate d){
+    String formatDate(LocalDate d){
         return d == null ? "" : d.toString();
     }
 
-    private int parseInt(String s, int def){
+    int parseInt(String s, int def){
         try { return Integer.parseInt(s); } catch(Exception e){ return def; }
     }
 
-    private double parseDouble(String s, double def){
+    double parseDouble(String s, double def){
         try { return Double.parseDouble(s); } catch(Exception e){ return def; }
     }
 
-    private String escape(String s){
+    String escape(String s){
         if (s == null) return "";
         // very light sanitize for CSV: strip commas/newlines
         StringBuilder b = new StringBuilder(s.length());
@@ -183,7 +252,7 @@ public final class DrugCsvStore {
         return b.toString().trim();
     }
 
-    private String toFixed2(double x){
+    String toFixed2(double x){
         long m = Math.round(x * 100.0);
         String sign = m < 0 ? "-" : "";
         if (m < 0) m = -m;
@@ -0,0 +1,227 @@
+package atinka.storage;
+
+import atinka.dsa.HashMapOpen;
+import atinka.dsa.HashSetOpen;
+import atinka.dsa.Vec;
+import atinka.model.Drug;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Write-ahead journal for drugs.csv ("drugs.csv.wal", next to it). A sale or an edit
+ * appends one short record instead of rewriting the whole catalogue; DrugCsvStore.load
+ * replays the journal over drugs.csv, and saveAll (the checkpoint) folds it back in
+ * and empties it.
+ *
+ * One record per line, fields comma-separated (the last takes the rest):
+ *   A,&lt;drugs.csv line&gt;   add a drug (replaces one with the same code)
+ *   R,code               remove
+ *   N,code,name   P,code,price   S,code,stock   E,code,expiry   T,code,threshold
+ *   L,code,supplierId    U,code,supplierId (link / unlink)
+ * - Values are absolute (the new stock, not the change), so replaying a record twice is
+ *   harmless: a crash after a checkpoint's rename but before the journal truncate loses
+ *   nothing, provided the renamed drugs.csv is durable (with setSync(true) saveAll forces
+ *   it and its directory before calling reset)
+ * - Records are buffered as the DrugService mutates and written by commit() with one
+ *   append; with setSync(true) commit also forces them to the device
+ * - A torn last line (crash mid-append) is cut off before replay or the next append
+ * commit() reports when the journal has outgrown CHECKPOINT_BYTES / CHECKPOINT_RECORDS.
+ */
+public final class DrugJournal {
+    /** Checkpoint once the journal holds this many bytes... */
+    static final long CHECKPOINT_BYTES = 256 * 1024;
+    /** ...or this many records (replay cost stays a fraction of loading drugs.csv). */
+    static final int CHECKPOINT_RECORDS = 4096;
+
+    private final Path file;
+    private final DrugCsvStore codec;                         // drugs.csv line format
+    private final StringBuilder pending = new StringBuilder(256);
+    private final HashSetOpen.Cursor ids = new HashSetOpen.Cursor();
+    private int pendingRecords;
+    private FileChannel ch;                                   // open for appends after the first commit
+    private long bytes;                                       // journal length on disk (complete lines)
+    private int records;                                      // records on disk
+    private boolean scanned;
+    private boolean sync;
+
+    DrugJournal(Path file, DrugCsvStore codec){
+        this.file = file;
+        this.codec = codec;
+    }
+
+    /** Force every commit to the storage device (power-loss safe, ~ms per commit); off by default. */
+    public synchronized void setSync(boolean on){ sync = on; }
+
+    synchronized boolean isSync(){ return sync; }
+
+    /** Records written plus those waiting for commit(). */
+    public synchronized int records(){ scan(); return records + pendingRecords; }
+
+    /** Journal size on disk in bytes. */
+    public synchronized long bytes(){ scan(); return bytes; }
+
+    // ---------- records (called by DrugService after each successful change) ----------
+
+    public synchronized void added(Drug d){
+        pending.append("A,");
+        codec.appendDrug(pending, d, ids);
+        end();
+    }
+
+    public synchronized void removed(String code){ op('R', code); end(); }
+
+    public synchronized void name(String code, String name){ op('N', code).append(',').append(codec.escape(name)); end(); }
+
+    public synchronized void price(String code, double price){ op('P', code).append(',').append(codec.toFixed2(price)); end(); }
+
+    public synchronized void stock(String code, int stock){ op('S', code).append(',').append(stock); end(); }
+
+    public synchronized void expiry(String code, LocalDate expiry){ op('E', code).append(',').append(codec.formatDate(expiry)); end(); }
+
+    public synchronized void threshold(String code, int t){ op('T', code).append(',').append(t); end(); }
+
+    public synchronized void linked(String code, String supplierId){ op('L', code).append(',').append(codec.escape(supplierId)); end(); }
+
+    public synchronized void unlinked(String code, String supplierId){ op('U', code).append(',').append(codec.escape(supplierId)); end(); }
+
+    private StringBuilder op(char op, String code){
+        return pending.append(op).append(',').append(codec.escape(code));
+    }
+
+    private void end(){
+        pending.append('\n');
+        pendingRecords++;
+    }
+
+    // ---------- commit / checkpoint ----------
+
+    /**
+     * Appends the buffered records with one write (forced if setSync(true)).
+     * @return true when a checkpoint is due: the journal is over its size or record
+     *         limit, or could not be written (the caller then rewrites drugs.csv)
+     */
+    public synchronized boolean commit(){
+        scan();
+        if (pendingRecords > 0) {
+            try {
+                if (ch == null) ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                ByteBuffer b = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+                ch.position(bytes);
+                while (b.hasRemaining()) ch.write(b);
+                if (sync) ch.force(false);
+                bytes += b.limit();
+                records += pendingRecords;
+                pending.setLength(0);
+                pendingRecords = 0;
+            } catch (Exception e){
+                close();
+                return true;
+            }
+        }
+        return bytes >= CHECKPOINT_BYTES || records >= CHECKPOINT_RECORDS;
+    }
+
+    /** drugs.csv holds every change: drop the buffered records and empty the file. */
+    synchronized void reset(){
+        pending.setLength(0);
+        pendingRecords = 0;
+        records = 0;
+        bytes = 0;
+        scanned = true;
+        try {
+            if (ch != null) { ch.truncate(0); if (sync) ch.force(false); }
+            else Files.deleteIfExists(file);
+        } catch (Exception e){ close(); }
+    }
+
+    public synchronized void close(){
+        if (ch != null) { try { ch.close(); } catch (Exception ignored){} ch = null; }
+    }
+
+    /** Counts the complete records on disk and cuts off a torn last line. */
+    private void scan(){
+        if (scanned) return;
+        scanned = true;
+        records = 0;
+        bytes = 0;
+        if (!Files.exists(file)) return;
+        int[] n = new int[1];
+        bytes = LogLines.forEachComplete(file, 0, (ln, end) -> { n[0]++; return true; });
+        records = n[0];
+        try {
+            if (Files.size(file) > bytes) {
+                try (FileChannel c = FileChannel.open(file, StandardOpenOption.WRITE)) { c.truncate(bytes); }
+            }
+        } catch (Exception ignored){}
+    }
+
+    // ---------- replay ----------
+
+    /**
+     * Applies the journal to the drugs just read from drugs.csv (in place; adds go to the
+     * end, removals keep the order of the rest). Unknown codes and bad lines are skipped.
+     * @return records applied
+     */
+    synchronized int replay(Vec<Drug> drugs){
+        scan();
+        if (bytes == 0) return 0;
+        HashMapOpen<Drug> byCode = new HashMapOpen<>(Math.max(16, Integer.highestOneBit(Math.max(1, drugs.size())) * 4), true);
+        for (int i = 0; i < drugs.size(); i++) byCode.put(drugs.get(i).getCode(), drugs.get(i));
+        int[] applied = new int[1];
+        boolean[] removed = new boolean[1];
+        LogLines.forEachComplete(file, 0, (ln, end) -> {
+            if (apply(ln, drugs, byCode, removed)) applied[0]++;
+            return true;
+        });
+        if (removed[0]) {
+            // keep one Drug per code: the one the index points at (removed or replaced ones drop out)
+            int w = 0;
+            for (int i = 0; i < drugs.size(); i++) {
+                Drug d = drugs.get(i);
+                if (byCode.get(d.getCode()) == d) drugs.set(w++, d);
+            }
+            drugs.removeRange(w, drugs.size());
+        }
+        return applied[0];
+    }
+
+    private boolean apply(String ln, Vec<Drug> drugs, HashMapOpen<Drug> byCode, boolean[] removed){
+        if (ln.length() < 3 || ln.charAt(1) != ',') return false;
+        char op = ln.charAt(0);
+        if (op == 'A') {
+            Drug d = codec.parseDrug(ln.substring(2));
+            if (d == null) return false;
+            if (byCode.get(d.getCode()) != null) removed[0] = true;
+            byCode.put(d.getCode(), d);
+            drugs.add(d);
+            return true;
+        }
+        if (op == 'R') {
+            if (byCode.remove(ln.substring(2)) == null) return false;
+            removed[0] = true;
+            return true;
+        }
+        String[] f = codec.splitCsv(ln.substring(2), 2);
+        if (f == null) return false;
+        Drug d = byCode.get(f[0]);
+        if (d == null) return false;
+        String v = f[1];
+        switch (op) {
+            case 'N': d.setName(v); break;
+            case 'P': d.setPrice(codec.parseDouble(v, d.getPrice())); break;
+            case 'S': d.setStock(codec.parseInt(v, d.getStock())); break;
+            case 'E': d.setExpiry(codec.parseDate(v)); break;
+            case 'T': d.setThreshold(codec.parseInt(v, d.getThreshold())); break;
+            case 'L': d.addSupplier(v); break;
+            case 'U': d.removeSupplier(v); break;
+            default: return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,283 @@
+package atinka.storage;
+
+import atinka.dsa.MpscQueue;
+import atinka.dsa.Vec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Group commit for an append-only CSV log. Callers on any thread hand over encoded lines
+ * and get a future; one writer thread keeps the file open and writes whatever has queued
+ * up since its last write as one batch:
+ * - Lines travel through an MpscQueue (one CAS per append); a full queue makes the
+ *   caller yield until the writer catches up
+ * - A batch is one gathering FileChannel.write of up to MAX_BATCH appends, then
+ *   force() if setSync(true)
+ * - Every future in the batch completes after that, or fails with the write's exception
+ *   once the file is cut back to its length before the batch (so a failed append is not
+ *   in the log); if even that fails, they fail with InDoubtException instead
+ * - With a window (setWindowMicros), the writer waits that long after the first line
+ *   for more to arrive (or until MAX_BATCH_BYTES have queued); with none (the default)
+ *   batches form on their own while the previous write / force is running, so a lone
+ *   caller pays no extra latency
+ * "Durable" means written to the OS (survives a crash of the app), or to the device
+ * with setSync(true). The file is opened in append mode, so other writers of the same
+ * log never overwrite its lines (the log classes route all their writes through it). A
+ * new or empty file gets the header line first; a torn last line is cut off on opening.
+ */
+public final class GroupCommitLog {
+    static final int MAX_BATCH = 1024;
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+    private static final int QUEUE = 4096;
+
+    private final Path file;
+    private final byte[] header;
+    private final MpscQueue<Pending> queue = new MpscQueue<>(QUEUE);
+    private volatile boolean sync;
+    private volatile long windowNanos;
+    private volatile boolean stopping;
+    private volatile Thread writer;
+    private FileChannel ch;                       // writer thread only
+
+    private static final class Pending {
+        final byte[] line;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        Pending(byte[] line){ this.line = line; }
+    }
+
+    /** @param header first line of a new file, e.g. "# timestamp,code,...\n" */
+    public GroupCommitLog(Path file, String header){
+        this.file = file;
+        this.header = header.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** force() after every batch (power-loss safe); off by default. */
+    public void setSync(boolean on){ sync = on; }
+
+    /** Wait up to this long after a batch's first line for more (0 = don't wait). */
+    public void setWindowMicros(long micros){ windowNanos = Math.max(0, micros) * 1000L; }
+
+    /**
+     * Queues one or more complete lines (each ending in '\n'; the array is not copied, so
+     * don't reuse it). The future completes once they are written, or fails.
+     */
+    public CompletableFuture<Void> append(byte[] lines){
+        Pending p = new Pending(lines);
+        Thread w = start();
+        while (!queue.offer(p)) {
+            LockSupport.unpark(w);
+            Thread.yield();
+        }
+        LockSupport.unpark(w);
+        return p.done;
+    }
+
+    /**
+     * append(lines), then waits until they are written.
+     * @throws UncheckedIOException if their batch could not be written
+     */
+    public void appendAndWait(byte[] lines){
+        try {
+            append(lines).join();
+        } catch (CompletionException e){
+            Throwable c = e.getCause();
+            if (c instanceof IOException) throw new UncheckedIOException("Could not write " + file.getFileName() + ": " + c.getMessage(), (IOException) c);
+            if (c instanceof RuntimeException) throw (RuntimeException) c;
+            throw e;
+        }
+    }
+
+    /**
+     * Writes what is queued, stops the writer thread and closes the file. Call once no
+     * append is in flight; a later append starts a new writer.
+     */
+    public void close(){
+        Thread w;
+        synchronized (this) {
+            w = writer;
+            if (w == null) return;
+            stopping = true;
+        }
+        LockSupport.unpark(w);
+        boolean interrupted = false;
+        while (w.isAlive()) {
+            try { w.join(); } catch (InterruptedException e){ interrupted = true; }
+        }
+        synchronized (this) {
+            writer = null;
+            stopping = false;
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private Thread start(){
+        Thread w = writer;
+        if (w != null) return w;
+        synchronized (this) {
+            if (writer == null) {
+                Thread t = new Thread(this::run, "log-writer-" + file.getFileName());
+                t.setDaemon(true);
+                writer = t;
+                t.start();
+            }
+            return writer;
+        }
+    }
+
+    // ---------------- writer thread ----------------
+
+    private void run(){
+        Vec<Pending> batch = new Vec<>(MAX_BATCH);
+        ByteBuffer[] srcs = new ByteBuffer[MAX_BATCH];
+        while (true) {
+            if (queue.drainTo(batch, MAX_BATCH) == 0) {
+                if (stopping && queue.isEmpty()) break;
+                LockSupport.park(this);
+                continue;
+            }
+            gather(batch);
+            write(batch, srcs);
+            batch.clear();
+        }
+        closeChannel();
+    }
+
+    /** With a window: keep draining until it closes or the batch is full. */
+    private void gather(Vec<Pending> batch){
+        long window = windowNanos;
+        if (window == 0) return;
+        long deadline = System.nanoTime() + window;
+        int bytes = 0;
+        for (int i = 0; i < batch.size(); i++) bytes += batch.get(i).line.length;
+        while (batch.size() < MAX_BATCH && bytes < MAX_BATCH_BYTES && !stopping) {
+            int from = batch.size();
+            if (queue.drainTo(batch, MAX_BATCH - from) == 0) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) break;
+                LockSupport.parkNanos(this, left);
+                continue;
+            }
+            for (int i = from; i < batch.size(); i++) bytes += batch.get(i).line.length;
+        }
+    }
+
+    private void write(Vec<Pending> batch, ByteBuffer[] srcs){
+        int n = batch.size();
+        Exception failed = null;
+        long start = -1;                            // file length before this batch
+        try {
+            if (ch == null) open();
+            start = ch.size();
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                srcs[i] = ByteBuffer.wrap(batch.get(i).line);
+                total += srcs[i].remaining();
+            }
+            int first = 0;
+            while (total > 0) {
+                total -= ch.write(srcs, first, n - first);
+                while (first < n && !srcs[first].hasRemaining()) first++;
+            }
+            if (sync) ch.force(false);
+        } catch (Exception e){
+            // a failed future must mean "not in the log": cut off whatever part got written
+            failed = rollBack(start) ? e : new InDoubtException(file, e);
+            closeChannel();                         // reopened for the next batch
+        }
+        for (int i = 0; i < n; i++) {
+            srcs[i] = null;
+            Pending p = batch.get(i);
+            if (failed == null) p.done.complete(null);
+            else p.done.completeExceptionally(failed);
+        }
+    }
+
+    /** Truncates the file back to start (forced if sync); false if that failed. */
+    private boolean rollBack(long start){
+        if (ch == null || start < 0) return true;   // nothing of the batch was written
+        try {
+            ch.truncate(start);
+            if (sync) ch.force(false);
+            return true;
+        } catch (Exception e){
+            return false;
+        }
+    }
+
+    /**
+     * A batch failed and could not be cut off again: some of its lines may be in the
+     * log. Callers must not undo what they logged (the sale may well be recorded).
+     */
+    public static final class InDoubtException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        InDoubtException(Path file, Exception cause){
+            super("write to " + file.getFileName() + " failed part-way, some lines may have been logged: " + cause.getMessage(), cause);
+        }
+    }
+
+    /** True if e (or its cause) says an append may have been logged despite failing. */
+    public static boolean inDoubt(Throwable e){
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InDoubtException) return true;
+        }
+        return false;
+    }
+
+    private void open() throws IOException {
+        cutTornTail();
+        ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (ch.size() == 0) {
+            try {
+                ByteBuffer h = ByteBuffer.wrap(header);
+                while (h.hasRemaining()) ch.write(h);
+            } catch (IOException e){
+                closeChannel();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A batch that failed part-way and could not be rolled back may have left a line
+     * without its '\n' (so may a crash); cut it off so the next line isn't glued onto it.
+     */
+    private void cutTornTail() throws IOException {
+        if (!Files.exists(file)) return;
+        try (FileChannel c = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = c.size();
+            ByteBuffer b = ByteBuffer.allocate(4096);
+            long end = size;
+            while (end > 0) {
+                int len = (int) Math.min(b.capacity(), end);
+                long from = end - len;
+                b.clear().limit(len);
+                while (b.hasRemaining()) {
+                    if (c.read(b, from + b.position()) < 0) throw new IOException("short read");
+                }
+                for (int i = len - 1; i >= 0; i--) {
+                    if (b.get(i) == '\n') {
+                        if (from + i + 1 < size) c.truncate(from + i + 1);
+                        return;
+                    }
+                }
+                end = from;
+            }
+            c.truncate(0);                          // not one complete line: the header goes in again
+        }
+    }
+
+    private void closeChannel(){
+        if (ch != null) { try { ch.close(); } catch (Exception ignored){} ch = null; }
+    }
+}
@@ -0,0 +1,189 @@
+package atinka.storage;
+
+import atinka.dsa.BloomFilter;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Bloom filters over one append-only CSV log: drug codes (column 1) and party IDs
+ * (column 3, customer or buyer), both case-insensitive.
+ * Kept in a sidecar file next to the log ("sales.csv.bloom") together with how many
+ * bytes of the log it covers and a checksum of the log's first 4 KB:
+ * - log grew: only the new tail is scanned and added (appends are cheap)
+ * - log shrank or its head changed (rewritten/replaced): rebuilt from scratch
+ * - more distinct keys than planned: rebuilt 4x larger
+ * A negative answer means the value is nowhere in the log, so callers skip the scan.
+ */
+final class LogBloom {
+    private static final int MAGIC = 0x41424C4D;   // "ABLM"
+    private static final int HEAD_BYTES = 4096;
+    private static final int CHUNK = 64 * 1024;
+    private static final double FPP = 0.01;
+
+    private final Path log;
+    private final Path sidecar;
+    private BloomFilter codes;
+    private BloomFilter ids;
+    private long covered;     // bytes of the log already in the filters (whole lines)
+    private long headCrc;
+    private int expected = 4096;
+
+    LogBloom(Path log){
+        this.log = log;
+        this.sidecar = PathsFS.bloomPath(log);
+    }
+
+    synchronized boolean mightContainCode(String code){
+        refresh();
+        return codes.mightContain(code);
+    }
+
+    synchronized boolean mightContainId(String id){
+        refresh();
+        return ids.mightContain(id);
+    }
+
+    // ---------------- maintenance ----------------
+
+    /** Brings the filters up to date with the log on disk. */
+    private void refresh(){
+        if (codes == null && !load()) reset();
+        long size = sizeOf(log);
+        if (size < covered || (covered > 0 && headCrc != headCrc(Math.min(covered, HEAD_BYTES)))) {
+            reset();                                   // truncated or replaced
+        }
+        if (size == covered) return;
+        scanFrom(covered, size);
+        while ((codes.isSaturated() || ids.isSaturated()) && expected < (1 << 24)) {
+            expected *= 4;
+            reset();
+            scanFrom(0, size);
+        }
+        headCrc = headCrc(Math.min(covered, HEAD_BYTES));
+        save();
+    }
+
+    private void reset(){
+        codes = new BloomFilter(expected, FPP, true);
+        ids = new BloomFilter(expected, FPP, true);
+        covered = 0;
+        headCrc = 0;
+    }
+
+    /**
+     * Adds the keys of every complete line in [from, to); covered ends after the last line
+     * break. Lines end at '\n' or '\r', as in LogLines ("\r\n" leaves a blank line between).
+     */
+    private void scanFrom(long from, long to){
+        try (FileChannel ch = FileChannel.open(log, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(CHUNK);
+            byte[] line = new byte[256];
+            int len = 0;
+            long pos = from;
+            ch.position(from);
+            while (pos < to) {
+                buf.clear();
+                if (to - pos < buf.capacity()) buf.limit((int) (to - pos));
+                int r = ch.read(buf);
+                if (r <= 0) break;
+                byte[] a = buf.array();
+                for (int i = 0; i < r; i++) {
+                    byte c = a[i];
+                    if (c == '\n' || c == '\r') {
+                        addLine(line, len);
+                        len = 0;
+                        covered = pos + i + 1;
+                    } else {
+                        if (len == line.length) {
+                            byte[] g = new byte[line.length * 2];
+                            System.arraycopy(line, 0, g, 0, len);
+                            line = g;
+                        }
+                        line[len++] = c;
+                    }
+                }
+                pos += r;
+            }
+        } catch (Exception ignored){}
+    }
+
+    /** Same split as the log readers: a '#' line is a comment, fields are raw between commas. */
+    private void addLine(byte[] b, int len){
+        int s = 0;
+        while (s < len && (b[s] & 0xFF) <= ' ') s++;
+        if (s == len || b[s] == '#') return;
+        int col = 0, start = s;
+        for (int i = s; i <= len && col <= 3; i++) {
+            if (i == len || b[i] == ',') {
+                if (col == 1) codes.add(new String(b, start, i - start, StandardCharsets.UTF_8));
+                else if (col == 3) ids.add(trimEnd(new String(b, start, i - start, StandardCharsets.UTF_8)));
+                col++;
+                start = i + 1;
+            }
+        }
+    }
+
+    /** A short line ends at the ID column, where the readers' line trim applies. */
+    private static String trimEnd(String s){
+        int e = s.length();
+        while (e > 0 && s.charAt(e - 1) <= ' ') e--;
+        return e == s.length() ? s : s.substring(0, e);
+    }
+
+    // ---------------- sidecar file ----------------
+
+    /** magic, covered, headCrc, expected, then the two filters (length-prefixed). */
+    private void save(){
+        byte[] c = codes.toBytes(), d = ids.toBytes();
+        ByteBuffer b = ByteBuffer.allocate(4 + 8 + 8 + 4 + 4 + c.length + 4 + d.length);
+        b.putInt(MAGIC).putLong(covered).putLong(headCrc).putInt(expected);
+        b.putInt(c.length).put(c).putInt(d.length).put(d);
+        Path tmp = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try {
+            Files.write(tmp, b.array());
+            Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            try { Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING); } catch(Exception ignored){}
+        }
+    }
+
+    private boolean load(){
+        try {
+            if (!Files.exists(sidecar)) return false;
+            ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(sidecar));
+            if (b.getInt() != MAGIC) return false;
+            long cov = b.getLong();
+            long crc = b.getLong();
+            int exp = b.getInt();
+            int n = b.getInt();
+            BloomFilter c = BloomFilter.fromBytes(b.array(), b.position(), n);
+            b.position(b.position() + n);
+            n = b.getInt();
+            BloomFilter d = BloomFilter.fromBytes(b.array(), b.position(), n);
+            codes = c; ids = d; covered = cov; headCrc = crc; expected = Math.max(exp, 1);
+            return true;
+        } catch (Exception e){ return false; }   // unreadable sidecar: rebuild
+    }
+
+    private long headCrc(long n){
+        if (n <= 0) return 0;
+        try (InputStream in = Files.newInputStream(log)) {
+            byte[] b = in.readNBytes((int) n);
+            CRC32 crc = new CRC32();
+            crc.update(b, 0, b.length);
+            return crc.getValue();
+        } catch (Exception e){ return -1; }
+    }
+
+    private static long sizeOf(Path p){
+        try { return Files.exists(p) ? Files.size(p) : 0; } catch (Exception e){ return 0; }
+    }
+}
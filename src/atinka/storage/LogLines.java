@@ -0,0 +1,92 @@
+package atinka.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams the lines of a CSV log through one fixed 64 KB buffer, so memory stays
+ * constant however large the log grows (the readers used to hold the file as bytes,
+ * a String, two replace() copies and a String[] at once).
+ * - Lines end at '\n', '\r' or "\r\n"; the last line needs no terminator
+ * - Each line is trimmed and blank / '#' lines are skipped before a String is made
+ * - The handler may stop the scan early by returning false
+ * Unreadable files behave like empty ones (same as the old readers).
+ */
+final class LogLines {
+    static final int CHUNK = 64 * 1024;
+
+    private LogLines(){}
+
+    interface Handler {
+        /** @return false to stop reading */
+        boolean line(String ln);
+    }
+
+    interface OffsetHandler {
+        /** @param end file offset just past this line's break; @return false to stop */
+        boolean line(String ln, long end);
+    }
+
+    static void forEach(Path p, Handler h){
+        scan(p, 0, (ln, end) -> h.line(ln), false);
+    }
+
+    /**
+     * Lines from byte offset from on, but only those ended by a line break (a line still
+     * being appended is left for next time). Returns the offset just past the last line
+     * break read, i.e. where the next call should start; from if nothing was read.
+     */
+    static long forEachComplete(Path p, long from, OffsetHandler h){
+        return scan(p, from, h, true);
+    }
+
+    private static long scan(Path p, long from, OffsetHandler h, boolean completeOnly){
+        long done = from;
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(CHUNK);
+            byte[] a = buf.array();
+            byte[] line = new byte[256];
+            int len = 0;
+            long pos = from;
+            int r;
+            ch.position(from);
+            while ((r = ch.read(buf.clear())) > 0) {
+                for (int i = 0; i < r; i++) {
+                    byte c = a[i];
+                    if (c == '\n' || c == '\r') {
+                        // "\r\n" yields an empty line in between, which is skipped like any blank one
+                        done = pos + i + 1;
+                        if (!emit(line, len, h, done)) return done;
+                        len = 0;
+                    } else {
+                        if (len == line.length) {
+                            byte[] g = new byte[line.length * 2];
+                            System.arraycopy(line, 0, g, 0, len);
+                            line = g;
+                        }
+                        line[len++] = c;
+                    }
+                }
+                pos += r;
+            }
+            if (!completeOnly) emit(line, len, h, done);
+        } catch (Exception ignored){}
+        return done;
+    }
+
+    /** Trim (bytes <= ' ' are single UTF-8 bytes, so this matches String.trim), skip blanks and comments. Shared with MappedLogReader. */
+    static boolean emit(byte[] b, int len, Handler h){
+        return emit(b, len, (ln, end) -> h.line(ln), 0);
+    }
+
+    private static boolean emit(byte[] b, int len, OffsetHandler h, long end){
+        int s = 0, e = len;
+        while (s < e && (b[s] & 0xFF) <= ' ') s++;
+        while (e > s && (b[e - 1] & 0xFF) <= ' ') e--;
+        if (s == e || b[s] == '#') return true;
+        return h.line(new String(b, s, e - s, StandardCharsets.UTF_8), end);
+    }
+}
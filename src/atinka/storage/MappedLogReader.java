@@ -0,0 +1,175 @@
+package atinka.storage;
+
+import atinka.dsa.StringDict;
+import atinka.dsa.Vec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel read mode for large CSV logs (historical analytics).
+ * - The file is cut into chunks that end just after a line break, so no line is split
+ * - Each chunk is memory-mapped (FileChannel.map) and parsed on its own fork/join task
+ *   into a private accumulator, with a private StringDict for its codes and IDs
+ * - Accumulators are merged left to right, so results keep file order
+ * - Every chunk dictionary is folded into the log's dictionary afterwards (ids stay valid)
+ * Line splitting, trimming and comment rules are LogLines', so the results equal the
+ * streaming reader's. Small files, or a single-core pool, run as one chunk on the caller.
+ * A missing file folds to an empty result; a read or map failure in any chunk fails the
+ * whole fold with UncheckedIOException rather than returning part of the log.
+ */
+public final class MappedLogReader {
+    private MappedLogReader(){}
+
+    /** Below this many bytes per chunk, splitting costs more than it saves. */
+    static final int MIN_CHUNK = 1 << 20;
+    /** One mapping is limited to 2 GB; keep chunks well under it. */
+    static final int MAX_CHUNK = 1 << 28;
+
+    /**
+     * Accumulates parsed records: one accumulator per chunk, merged in file order.
+     * add runs on pool threads, one accumulator per thread at a time.
+     */
+    public interface Folder<T, A> {
+        A create();
+        void add(A acc, T t);
+        /** Combine two neighbouring chunks' results (left is earlier in the file). */
+        A merge(A left, A right);
+    }
+
+    /** Parses one trimmed, non-comment line; null to skip it. Must be thread-safe. */
+    interface LineParser<T> {
+        T parse(String ln, int[] at, StringDict dict);
+    }
+
+    /** Folder that collects records into one Vec in file order. */
+    static <T> Folder<T, Vec<T>> toVec(){
+        return new Folder<T, Vec<T>>() {
+            @Override public Vec<T> create(){ return new Vec<>(); }
+            @Override public void add(Vec<T> acc, T t){ acc.add(t); }
+            @Override public Vec<T> merge(Vec<T> left, Vec<T> right){ left.addAll(right); return left; }
+        };
+    }
+
+    static <T, A> A fold(Path p, LineParser<T> parser, Folder<T, A> folder, StringDict dict){
+        if (!Files.exists(p)) return folder.create();
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(ch, ch.size());
+            int chunks = bounds.length - 1;
+            Chunk<T, A>[] tasks = newChunks(chunks);
+            for (int i = 0; i < chunks; i++) tasks[i] = new Chunk<>(ch, bounds[i], bounds[i + 1], parser, folder);
+
+            if (chunks == 1 || ForkJoinPool.getCommonPoolParallelism() < 2) {
+                for (int i = 0; i < chunks; i++) tasks[i].compute();
+            } else {
+                ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                    @Override protected void compute(){ invokeAll(tasks); }
+                });
+            }
+
+            A acc = tasks[0].acc;
+            for (int i = 1; i < chunks; i++) acc = folder.merge(acc, tasks[i].acc);
+            synchronized (dict) {
+                for (int i = 0; i < chunks; i++) {
+                    StringDict local = tasks[i].dict;
+                    for (int id = 0; id < local.size(); id++) dict.id(local.get(id));
+                }
+            }
+            return acc;
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Chunk start offsets plus the file size: targets of ~size/chunks, each moved forward
+     * to just after the next '\n' or '\r'. Empty chunks are dropped.
+     */
+    private static long[] chunkBounds(FileChannel ch, long size) throws IOException {
+        int parallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        long want = Math.min(parallelism * 4L, size / MIN_CHUNK);
+        want = Math.max(want, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        int chunks = (int) Math.max(1, want);
+
+        long[] b = new long[chunks + 1];
+        int k = 1;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long at = Math.max(size * i / chunks, b[k - 1]);
+            long cut = nextLineStart(ch, at, size, probe);
+            if (cut > b[k - 1] && cut < size) b[k++] = cut;
+        }
+        b[k++] = size;
+        if (k == b.length) return b;
+        long[] t = new long[k];
+        System.arraycopy(b, 0, t, 0, k);
+        return t;
+    }
+
+    private static long nextLineStart(FileChannel ch, long from, long size, ByteBuffer probe) throws IOException {
+        long pos = from;
+        while (pos < size) {
+            probe.clear();
+            int r = ch.read(probe, pos);
+            if (r <= 0) break;
+            byte[] a = probe.array();
+            for (int i = 0; i < r; i++) if (a[i] == '\n' || a[i] == '\r') return pos + i + 1;
+            pos += r;
+        }
+        return size;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T, A> Chunk<T, A>[] newChunks(int n){ return (Chunk<T, A>[]) new Chunk[n]; }
+
+    private static final class Chunk<T, A> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final FileChannel ch;
+        private final long from, to;
+        private final LineParser<T> parser;
+        private final Folder<T, A> folder;
+        final StringDict dict = new StringDict(1024);
+        A acc;
+
+        Chunk(FileChannel ch, long from, long to, LineParser<T> parser, Folder<T, A> folder){
+            this.ch = ch; this.from = from; this.to = to;
+            this.parser = parser; this.folder = folder;
+        }
+
+        @Override protected void compute(){
+            A a = folder.create();
+            acc = a;
+            int[] at = new int[7];
+            LogLines.Handler h = ln -> {
+                T t = parser.parse(ln, at, dict);
+                if (t != null) folder.add(a, t);
+                return true;
+            };
+            MappedByteBuffer mb;
+            try { mb = ch.map(FileChannel.MapMode.READ_ONLY, from, to - from); }
+            catch (IOException e){ throw new UncheckedIOException(e); }
+            int n = (int) (to - from);
+            byte[] line = new byte[256];
+            int start = 0;
+            for (int i = 0; i <= n; i++) {
+                if (i < n) {
+                    byte c = mb.get(i);
+                    if (c != '\n' && c != '\r') continue;
+                }
+                int len = i - start;
+                if (len > line.length) line = new byte[Math.max(len, line.length * 2)];
+                mb.get(start, line, 0, len);
+                LogLines.emit(line, len, h);
+                start = i + 1;
+            }
+        }
+    }
+}
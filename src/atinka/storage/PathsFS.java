@@ -20,6 +20,15 @@ public final class PathsFS {
     public static Path purchaseLogPath(){ return dataDir().resolve("purchases.csv"); }
     public static Path salesLogPath(){ return dataDir().resolve("sales.csv"); }
 
+    /** Bloom filter sidecar kept next to a log, e.g. data/sales.csv.bloom. */
+    public static Path bloomPath(Path log){ return log.resolveSibling(log.getFileName() + ".bloom"); }
+
+    /** Binary columnar copy of a log (SaleSegments), e.g. data/sales.csv.seg. */
+    public static Path segmentsPath(Path log){ return log.resolveSibling(log.getFileName() + ".seg"); }
+
+    /** Write-ahead journal of a store's changes since its last full rewrite, e.g. data/drugs.csv.wal. */
+    public static Path journalPath(Path store){ return store.resolveSibling(store.getFileName() + ".wal"); }
+
     public static Path reportsDir(){
         Path p = dataDir().resolve("reports");
         try { if (!Files.exists(p)) Files.createDirectories(p); } catch(Exception ignored){}
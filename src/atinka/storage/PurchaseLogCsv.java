@@ -1,12 +1,15 @@
 package atinka.storage;
 
+import atinka.dsa.StringDict;
 import atinka.dsa.Vec;
 import atinka.model.PurchaseTxn;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * purchases.csv columns:
@@ -15,88 +18,154 @@ import java.time.LocalDateTime;
  */
 public final class PurchaseLogCsv {
 
+    private GroupCommitLog appender;
+
+    /** The group-commit writer behind append / appendAsync (file kept open). */
+    public synchronized GroupCommitLog appender(){
+        if (appender == null) appender = new GroupCommitLog(PathsFS.purchaseLogPath(), "# timestamp,code,qty,buyerId,unitCost,total\n");
+        return appender;
+    }
+
+    /**
+     * Appends one purchase and returns once it is written (concurrent appends share one write).
+     * @throws java.io.UncheckedIOException if it could not be written
+     */
     public void append(PurchaseTxn t){
-        Path p = PathsFS.purchaseLogPath();
-        StringBuilder sb = new StringBuilder();
+        appender().appendAndWait(encode(t));
+    }
+
+    /** Queues one purchase for the next group commit; the future completes once it is written. */
+    public CompletableFuture<Void> appendAsync(PurchaseTxn t){
+        return appender().append(encode(t));
+    }
+
+    private byte[] encode(PurchaseTxn t){
+        StringBuilder sb = new StringBuilder(64);
         sb.append(formatDateTime(t.getTimestamp())).append(',')
                 .append(esc(t.getCode())).append(',')
                 .append(t.getQty()).append(',')
                 .append(esc(t.getBuyerId())).append(',')
                 .append(toFixed2(t.getUnitCost())).append(',')
                 .append(toFixed2(t.getTotal())).append('\n');
-        try {
-            byte[] bytes = sb.toString().getBytes("UTF-8");
-            if (!Files.exists(p)) {
-                // create with header
-                String header = "# timestamp,code,qty,buyerId,unitCost,total\n";
-                Files.write(p, header.getBytes("UTF-8"));
-            }
-            Files.write(p, bytes, java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.APPEND);
-        } catch(Exception ignored){}
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
     }
 
+    /** Stops the appender's writer thread and closes the file (see GroupCommitLog.close). */
+    public void close(){
+        GroupCommitLog a;
+        synchronized (this) { a = appender; }
+        if (a != null) a.close();
+    }
+
+    // ---------- existence checks (Bloom filter sidecar) ----------
+
+    private LogBloom bloom;
+
+    private LogBloom bloom(){
+        if (bloom == null) bloom = new LogBloom(PathsFS.purchaseLogPath());
+        return bloom;
+    }
+
+    /** False: code (any case) was never purchased, no scan needed. True: maybe (~1% false positives). */
+    public boolean mightContainCode(String code){ return code != null && bloom().mightContainCode(code); }
+
+    /** Same for a buyer ID. */
+    public boolean mightContainBuyer(String buyerId){ return buyerId != null && bloom().mightContainId(buyerId); }
+
+    // ---------- read side: codes and buyer IDs are interned ----------
+
+    private final StringDict dict = new StringDict(1024);
+
+    /** Canonical code / buyer-ID strings of every line read so far, with dense ids. */
+    public StringDict dictionary(){ return dict; }
+
+    /** All purchases in file order; repeated codes and buyer IDs share one String each. */
     public Vec<PurchaseTxn> readAll(){
         Vec<PurchaseTxn> out = new Vec<>();
+        forEach(out::add);
+        return out;
+    }
+
+    public interface PurchaseConsumer {
+        void accept(PurchaseTxn t);
+    }
+
+    /**
+     * Streams every purchase in file order to c while the log is read (LogLines: one
+     * 64 KB buffer). c runs with the dictionary locked.
+     */
+    public void forEach(PurchaseConsumer c){
         Path p = PathsFS.purchaseLogPath();
-        if (!Files.exists(p)) return out;
-        String[] lines = readAllLines(p);
-        for (int i=0;i<lines.length;i++){
-            String ln = lines[i].trim();
-            if (ln.length()==0 || ln.startsWith("#")) continue;
-            String[] c = splitCsv(ln, 6);
-            if (c == null) continue;
-            LocalDateTime ts = parseDateTime(c[0]);
-            String code = c[1];
-            int qty = parseInt(c[2], 0);
-            String buyer = c[3];
-            double unit = parseDouble(c[4], 0.0);
-            double total = parseDouble(c[5], 0.0);
-            out.add(new PurchaseTxn(ts, code, qty, buyer, unit, total));
+        if (!Files.exists(p)) return;
+        int[] at = new int[7];
+        synchronized (dict) {
+            LogLines.forEach(p, ln -> {
+                PurchaseTxn t = parse(ln, at, dict);
+                if (t != null) c.accept(t);
+                return true;
+            });
         }
-        return out;
     }
 
-    // ---------- helpers ----------
+    /** All purchases in file order via MappedLogReader (mapped chunks, one fork/join task each). */
+    public Vec<PurchaseTxn> readAllParallel(){
+        return foldParallel(MappedLogReader.toVec());
+    }
 
-    private String[] readAllLines(Path p){
-        try {
-            byte[] b = Files.readAllBytes(p);
-            String s = new String(b, "UTF-8");
-            s = s.replace("\r\n","\n").replace('\r','\n');
-            return splitLines(s);
-        } catch (Exception e){ return new String[0]; }
+    /**
+     * Parallel fold over every purchase: one accumulator per chunk, merged in file order.
+     * @throws java.io.UncheckedIOException if the log cannot be read (never a partial result)
+     */
+    public <A> A foldParallel(MappedLogReader.Folder<PurchaseTxn, A> folder){
+        return MappedLogReader.fold(PathsFS.purchaseLogPath(), this::parse, folder, dict);
     }
 
-    private String[] splitLines(String s){
-        int count=1;
-        for (int i=0;i<s.length();i++) if (s.charAt(i)=='\n') count++;
-        String[] out=new String[count];
-        int idx=0,start=0;
-        for (int i=0;i<s.length();i++){
-            if (s.charAt(i)=='\n'){ out[idx++]=s.substring(start,i); start=i+1; }
-        }
-        out[idx]=s.substring(start);
-        return out;
+    /** One trimmed, non-comment line; null if it has fewer than 6 fields. */
+    private PurchaseTxn parse(String ln, int[] at, StringDict d){
+        if (!fieldBounds(ln, 6, at)) return null;
+        LocalDateTime ts = parseDateTime(field(ln, at, 0));
+        String code = d.intern(ln, at[1], at[2] - 1);
+        int qty = parseInt(field(ln, at, 2), 0);
+        String buyer = d.intern(ln, at[3], at[4] - 1);
+        double unit = parseDouble(field(ln, at, 4), 0.0);
+        double total = parseDouble(field(ln, at, 5), 0.0);
+        return new PurchaseTxn(ts, code, qty, buyer, unit, total);
     }
 
-    private String[] splitCsv(String line, int n){
-        String[] out=new String[n];
-        int idx=0,start=0;
-        for (int i=0;i<line.length();i++){
-            if (line.charAt(i)==','){
-                out[idx++]=safeSub(line,start,i);
-                start=i+1;
-                if (idx==n-1) break;
-            }
+    /** Has code ever been purchased? Bloom filter first, then a scan that stops at the first match. */
+    public boolean everPurchased(String code){
+        if (!mightContainCode(code)) return false;
+        Path p = PathsFS.purchaseLogPath();
+        if (!Files.exists(p)) return false;
+        boolean[] found = new boolean[1];
+        int[] at = new int[7];
+        LogLines.forEach(p, ln -> {
+            if (fieldBounds(ln, 6, at) && at[2] - 1 - at[1] == code.length()
+                    && ln.regionMatches(true, at[1], code, 0, code.length())) found[0] = true;
+            return !found[0];
+        });
+        return found[0];
+    }
+
+    // ---------- helpers ----------
+
+    /**
+     * Field k of a line split into n fields (the last takes the rest, commas included)
+     * spans [at[k], at[k+1] - 1). False if the line has fewer than n fields.
+     */
+    private boolean fieldBounds(String line, int n, int[] at){
+        at[0] = 0;
+        int idx = 1;
+        for (int i=0;i<line.length() && idx<n;i++){
+            if (line.charAt(i)==',') at[idx++] = i + 1;
         }
-        out[idx++]=safeSub(line,start,line.length());
-        if (idx!=n) return null;
-        return out;
+        if (idx != n) return false;
+        at[n] = line.length() + 1;
+        return true;
     }
 
-    private String safeSub(String s,int a,int b){
-        if (a<0) a=0; if (b<a) b=a; if (b>s.length()) b=s.length();
-        return s.substring(a,b);
+    private String field(String line, int[] at, int k){
+        return line.substring(at[k], at[k+1] - 1);
     }
 
     private String esc(String s){
@@ -0,0 +1,147 @@
+package atinka.storage;
+
+import atinka.model.SaleEvent;
+
+/**
+ * Encodes SaleEvents as sales.csv lines straight into one reusable byte buffer.
+ * Same columns and cleaning as SaleLogCsv.append (commas/newlines dropped from
+ * text, money to 2 decimals), but with no String, StringBuilder or byte[] per
+ * line: digits and UTF-8 are written by hand. Timestamps are written the way
+ * LocalDateTime.toString writes them (seconds omitted when zero along with the
+ * fraction; a fraction of 3, 6 or 9 digits). Not thread-safe; one per consumer.
+ */
+public final class SaleLineEncoder {
+    private byte[] buf;
+    private int len;
+
+    public SaleLineEncoder(){ this(8192); }
+
+    public SaleLineEncoder(int capacity){ buf = new byte[Math.max(64, capacity)]; }
+
+    /** Encoded bytes are buf()[0 .. length()). */
+    public byte[] buf(){ return buf; }
+    public int length(){ return len; }
+    public void reset(){ len = 0; }
+
+    /** Appends one line (with the trailing newline). */
+    public void encode(SaleEvent e){
+        dateTime(e.getEpochSecond(), e.getNano());
+        put(',');
+        text(e.getCode());
+        put(',');
+        number(e.getQty());
+        put(',');
+        text(e.getCustomerId());
+        put(',');
+        fixed2(e.getPrice());
+        put(',');
+        fixed2(e.getTotal());
+        put('\n');
+    }
+
+    // ---------------- fields ----------------
+
+    /** Local seconds + nanos → yyyy-MM-ddTHH:mm[:ss[.fff[fff[fff]]]] (civil-from-days, proleptic Gregorian). */
+    private void dateTime(long epochSecond, int nano){
+        long days = Math.floorDiv(epochSecond, 86400L);
+        int sod = (int) Math.floorMod(epochSecond, 86400L);
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int d = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int m = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        digits((int) y, 4);
+        put('-');
+        digits(m, 2);
+        put('-');
+        digits(d, 2);
+        put('T');
+        digits(sod / 3600, 2);
+        put(':');
+        digits(sod / 60 % 60, 2);
+        if (sod % 60 == 0 && nano == 0) return;
+        put(':');
+        digits(sod % 60, 2);
+        if (nano == 0) return;
+        put('.');
+        if (nano % 1_000_000 == 0) digits(nano / 1_000_000, 3);
+        else if (nano % 1000 == 0) digits(nano / 1000, 6);
+        else digits(nano, 9);
+    }
+
+    /** Like SaleLogCsv.esc: commas/CR/LF dropped, surrounding whitespace trimmed. */
+    private void text(String s){
+        if (s == null) return;
+        int a = 0, b = s.length();
+        // dropped chars don't count as content, so trim across them too
+        while (a < b && (s.charAt(a) <= ' ' || s.charAt(a) == ',')) a++;
+        while (b > a && (s.charAt(b - 1) <= ' ' || s.charAt(b - 1) == ',')) b--;
+        for (int i = a; i < b; i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '\n' || c == '\r') continue;
+            if (c < 0x80) { put(c); continue; }
+            ensure(4);
+            if (c < 0x800) {
+                buf[len++] = (byte) (0xC0 | (c >> 6));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < b && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf[len++] = (byte) (0xF0 | (cp >> 18));
+                buf[len++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[len++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[len++] = '?';                 // unpaired surrogate, as String.getBytes does
+            } else {
+                buf[len++] = (byte) (0xE0 | (c >> 12));
+                buf[len++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[len++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /** Like SaleLogCsv.toFixed2: rounded to cents, always two decimals. */
+    private void fixed2(double x){
+        long m = Math.round(x * 100.0);
+        if (m < 0) { put('-'); m = -m; }
+        number(m / 100);
+        put('.');
+        digits((int) (m % 100), 2);
+    }
+
+    private void number(long v){
+        if (v < 0) {
+            put('-');
+            if (v == Long.MIN_VALUE) { number(-(v / 10)); put((char) ('0' - (v % 10))); return; }
+            v = -v;
+        }
+        int n = 1;
+        for (long t = v; t >= 10; t /= 10) n++;
+        ensure(n);
+        for (int i = len + n - 1; i >= len; i--) { buf[i] = (byte) ('0' + v % 10); v /= 10; }
+        len += n;
+    }
+
+    /** v zero-padded to width digits (v >= 0 and fits). */
+    private void digits(int v, int width){
+        ensure(width);
+        for (int i = len + width - 1; i >= len; i--) { buf[i] = (byte) ('0' + v % 10); v /= 10; }
+        len += width;
+    }
+
+    private void put(char c){
+        ensure(1);
+        buf[len++] = (byte) c;
+    }
+
+    private void ensure(int extra){
+        if (len + extra <= buf.length) return;
+        byte[] b = new byte[Math.max(buf.length << 1, len + extra)];
+        System.arraycopy(buf, 0, b, 0, len);
+        buf = b;
+    }
+}
@@ -1,13 +1,18 @@
 package atinka.storage;
 
 import atinka.dsa.HashMapOpen;
+import atinka.dsa.RingBuffer;
+import atinka.dsa.StringDict;
 import atinka.dsa.Vec;
+import atinka.model.SaleEvent;
 import atinka.model.SaleTxn;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * sales.csv columns:
@@ -15,63 +20,223 @@ import java.time.LocalDateTime;
  * Example: 2025-07-01T10:22:45,AMOX500,2,C0001,5.00,10.00
  */
 public final class SaleLogCsv {
+    private final Path log;
+
+    public SaleLogCsv(){ this(PathsFS.salesLogPath()); }
+
+    /** A sales log at another path (sidecars sit next to it). */
+    public SaleLogCsv(Path log){ this.log = log; }
 
     // ---------- append & read ----------
 
+    private static final String HEADER = "# timestamp,code,qty,customerId,price,total\n";
+
+    private GroupCommitLog appender;
+
+    /** The group-commit writer behind append / appendAsync (one per log, file kept open). */
+    public synchronized GroupCommitLog appender(){
+        if (appender == null) appender = new GroupCommitLog(log, HEADER);
+        return appender;
+    }
+
+    /**
+     * Appends one sale and returns once it is written. Sales appended together from
+     * several tills share one write (GroupCommitLog).
+     * @throws java.io.UncheckedIOException if it could not be written
+     */
     public void append(SaleTxn t){
-        Path p = PathsFS.salesLogPath();
-        StringBuilder sb = new StringBuilder();
+        appender().appendAndWait(encode(t));
+    }
+
+    /** Queues one sale for the next group commit; the future completes once it is written. */
+    public CompletableFuture<Void> appendAsync(SaleTxn t){
+        return appender().append(encode(t));
+    }
+
+    private byte[] encode(SaleTxn t){
+        StringBuilder sb = new StringBuilder(64);
+        appendLine(sb, t);
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Stops the appender's writer thread and closes the file (see GroupCommitLog.close). */
+    public void close(){
+        GroupCommitLog a;
+        synchronized (this) { a = appender; }
+        if (a != null) a.close();
+    }
+
+    /**
+     * Appends a batch (e.g. drained from an MpscQueue) with a single file write.
+     * @throws java.io.UncheckedIOException if it could not be written
+     */
+    public void appendAll(Vec<SaleTxn> batch){
+        if (batch == null || batch.size() == 0) return;
+        StringBuilder sb = new StringBuilder(batch.size() * 48);
+        for (int i=0;i<batch.size();i++) appendLine(sb, batch.get(i));
+        appender().appendAndWait(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void appendLine(StringBuilder sb, SaleTxn t){
         sb.append(formatDateTime(t.getTimestamp())).append(',')
                 .append(esc(t.getCode())).append(',')
                 .append(t.getQty()).append(',')
                 .append(esc(t.getCustomerId())).append(',')
                 .append(toFixed2(t.getPrice())).append(',')
                 .append(toFixed2(t.getTotal())).append('\n');
-        try {
-            byte[] bytes = sb.toString().getBytes("UTF-8");
-            if (!Files.exists(p)) {
-                String header = "# timestamp,code,qty,customerId,price,total\n";
-                Files.write(p, header.getBytes("UTF-8"));
+    }
+
+    /**
+     * RingBuffer consumer for sale slots: each event is encoded into one reused byte
+     * buffer (SaleLineEncoder) and handed to the appender once per batch, or every
+     * 64 KB within a long batch. No per-sale SaleTxn, StringBuilder or byte[].
+     * A failed write throws UncheckedIOException; the ring then hands the batch over
+     * again, and events already written from it are skipped.
+     */
+    public RingBuffer.BatchHandler<SaleEvent> batchWriter(){
+        SaleLineEncoder enc = new SaleLineEncoder(FLUSH_BYTES + 256);
+        long[] written = { -1 };   // last sequence written
+        return (e, seq, endOfBatch) -> {
+            if (seq > written[0]) enc.encode(e);
+            if (endOfBatch || enc.length() >= FLUSH_BYTES) {
+                if (enc.length() > 0) {
+                    byte[] bytes = new byte[enc.length()];
+                    System.arraycopy(enc.buf(), 0, bytes, 0, bytes.length);
+                    enc.reset();
+                    appender().appendAndWait(bytes);
+                }
+                written[0] = seq;
             }
-            Files.write(p, bytes, java.nio.file.StandardOpenOption.CREATE, java.nio.file.StandardOpenOption.APPEND);
-        } catch (Exception ignored){}
+        };
     }
 
+    private static final int FLUSH_BYTES = 64 * 1024;
+
+    // ---------- existence checks (Bloom filter sidecar) ----------
+
+    private LogBloom bloom;
+
+    private LogBloom bloom(){
+        if (bloom == null) bloom = new LogBloom(log);
+        return bloom;
+    }
+
+    /** False: code (any case) was never sold, no scan needed. True: maybe (~1% false positives). */
+    public boolean mightContainCode(String code){ return code != null && bloom().mightContainCode(code); }
+
+    /** Same for a customer ID. */
+    public boolean mightContainCustomer(String customerId){ return customerId != null && bloom().mightContainId(customerId); }
+
+    /**
+     * Has code ever been sold? The Bloom filter answers most "no"s without reading the log;
+     * otherwise the log is streamed only up to the first matching line.
+     */
+    public boolean everSold(String code){
+        if (!mightContainCode(code)) return false;
+        if (!Files.exists(log)) return false;
+        boolean[] found = new boolean[1];
+        int[] at = new int[7];
+        LogLines.forEach(log, ln -> {
+            if (fieldBounds(ln, 6, at) && at[2] - 1 - at[1] == code.length()
+                    && ln.regionMatches(true, at[1], code, 0, code.length())) found[0] = true;
+            return !found[0];
+        });
+        return found[0];
+    }
+
+    // ---------- read side: codes and customer IDs are interned ----------
+
+    private final StringDict dict = new StringDict(1024);
+
+    /**
+     * Canonical code / customer-ID strings of every line read so far, with dense ids
+     * (e.g. for per-code arrays in reports). Every code in a readAll() result is in it.
+     */
+    public StringDict dictionary(){ return dict; }
+
+    /** All sales in file order; repeated codes and customer IDs share one String each. */
     public Vec<SaleTxn> readAll(){
         Vec<SaleTxn> out = new Vec<>();
-        Path p = PathsFS.salesLogPath();
-        if (!Files.exists(p)) return out;
-        String[] lines = readAllLines(p);
-        for (int i=0;i<lines.length;i++){
-            String ln = lines[i].trim();
-            if (ln.length()==0 || ln.startsWith("#")) continue;
-            String[] c = splitCsv(ln, 6);
-            if (c == null) continue;
-            LocalDateTime ts = parseDateTime(c[0]);
-            String code = c[1];
-            int qty = parseInt(c[2], 0);
-            String cust = c[3];
-            double price = parseDouble(c[4], 0.0);
-            double total = parseDouble(c[5], 0.0);
-            out.add(new SaleTxn(ts, code, qty, cust, price, total));
-        }
+        forEach(out::add);
         return out;
     }
 
-    // ---------- period totals (accounting) ----------
+    public interface SaleConsumer {
+        void accept(SaleTxn t);
+    }
+
+    /**
+     * Streams every sale in file order to c while the log is read (LogLines: one 64 KB
+     * buffer, memory independent of the log size). Codes and customer IDs are interned
+     * as in readAll(). c runs with the dictionary locked; don't call back into a reader
+     * on another thread from it.
+     */
+    public void forEach(SaleConsumer c){
+        if (!Files.exists(log)) return;
+        int[] at = new int[7];
+        synchronized (dict) {
+            LogLines.forEach(log, ln -> {
+                SaleTxn t = parse(ln, at, dict);
+                if (t != null) c.accept(t);
+                return true;
+            });
+        }
+    }
+
+    // ---------- parallel read mode (large logs, analytics) ----------
+
+    /**
+     * All sales in file order, parsed by MappedLogReader: the log is memory-mapped in
+     * newline-aligned chunks, one fork/join task each. Same result as readAll(); worth it
+     * for logs of many MB on a multi-core machine. Strings are shared per chunk, not globally.
+     */
+    public Vec<SaleTxn> readAllParallel(){
+        return foldParallel(MappedLogReader.toVec());
+    }
+
+    /**
+     * Parallel fold over every sale: one accumulator per chunk, merged in file order.
+     * @throws java.io.UncheckedIOException if the log cannot be read (never a partial result)
+     */
+    public <A> A foldParallel(MappedLogReader.Folder<SaleTxn, A> folder){
+        return MappedLogReader.fold(log, this::parse, folder, dict);
+    }
+
+    // ---------- columnar copy (report scans) ----------
+
+    private SaleSegments segments;
+
+    /**
+     * The binary columnar copy of this log (SaleSegments, "sales.csv.seg"), first brought
+     * up to date by importing any lines appended since the last call.
+     * @throws java.io.UncheckedIOException if that import failed (no stale copy is returned)
+     */
+    public SaleSegments segments(){
+        if (segments == null) segments = new SaleSegments(PathsFS.segmentsPath(log));
+        segments.refresh(log, this::parse);
+        return segments;
+    }
+
+    /** One trimmed, non-comment line; null if it has fewer than 6 fields. */
+    private SaleTxn parse(String ln, int[] at, StringDict d){
+        if (!fieldBounds(ln, 6, at)) return null;
+        LocalDateTime ts = parseDateTime(field(ln, at, 0));
+        String code = d.intern(ln, at[1], at[2] - 1);
+        int qty = parseInt(field(ln, at, 2), 0);
+        String cust = d.intern(ln, at[3], at[4] - 1);
+        double price = parseDouble(field(ln, at, 4), 0.0);
+        double total = parseDouble(field(ln, at, 5), 0.0);
+        return new SaleTxn(ts, code, qty, cust, price, total);
+    }
+
+    // ---------- period totals (accounting, streamed: no list of sales is built) ----------
 
     public Totals totalsForDay(LocalDate day){
-        Vec<SaleTxn> all = readAll();
         Totals t = new Totals();
-        for (int i=0;i<all.size();i++){
-            SaleTxn s = all.get(i);
+        forEach(s -> {
             LocalDate d = (s.getTimestamp()==null)? null : s.getTimestamp().toLocalDate();
-            if (d != null && d.equals(day)) {
-                t.count++;
-                t.units += s.getQty();
-                t.revenue += s.getTotal();
-            }
-        }
+            if (d != null && d.equals(day)) t.add(s);
+        });
         return t;
     }
 
@@ -79,19 +244,12 @@ public final class SaleLogCsv {
      * @param yearMonth "YYYY-MM"
      */
     public Totals totalsForMonth(String yearMonth){
-        Vec<SaleTxn> all = readAll();
         Totals t = new Totals();
-        for (int i=0;i<all.size();i++){
-            SaleTxn s = all.get(i);
+        if (yearMonth == null) return t;
+        forEach(s -> {
             LocalDateTime ts = s.getTimestamp();
-            if (ts == null) continue;
-            String ym = toYearMonth(ts);
-            if (yearMonth != null && yearMonth.equals(ym)){
-                t.count++;
-                t.units += s.getQty();
-                t.revenue += s.getTotal();
-            }
-        }
+            if (ts != null && yearMonth.equals(toYearMonth(ts))) t.add(s);
+        });
         return t;
     }
 
@@ -99,6 +257,12 @@ public final class SaleLogCsv {
         public int count;     // transactions
         public int units;     // total qty
         public double revenue;// sum of totals
+
+        void add(SaleTxn s){
+            count++;
+            units += s.getQty();
+            revenue += s.getTotal();
+        }
     }
 
     // Optional: per-drug aggregation in a range (used by SalesPeriodReport)
@@ -125,45 +289,23 @@ public final class SaleLogCsv {
         return sb.toString();
     }
 
-    private String[] readAllLines(Path p){
-        try {
-            byte[] b = Files.readAllBytes(p);
-            String s = new String(b, "UTF-8");
-            s = s.replace("\r\n","\n").replace('\r','\n');
-            return splitLines(s);
-        } catch (Exception e){ return new String[0]; }
-    }
-
-    private String[] splitLines(String s){
-        int count=1;
-        for (int i=0;i<s.length();i++) if (s.charAt(i)=='\n') count++;
-        String[] out=new String[count];
-        int idx=0,start=0;
-        for (int i=0;i<s.length();i++){
-            if (s.charAt(i)=='\n'){ out[idx++]=s.substring(start,i); start=i+1; }
-        }
-        out[idx]=s.substring(start);
-        return out;
-    }
-
-    private String[] splitCsv(String line, int n){
-        String[] out=new String[n];
-        int idx=0,start=0;
-        for (int i=0;i<line.length();i++){
-            if (line.charAt(i)==','){
-                out[idx++]=safeSub(line,start,i);
-                start=i+1;
-                if (idx==n-1) break;
-            }
+    /**
+     * Field k of a line split into n fields (the last takes the rest, commas included)
+     * spans [at[k], at[k+1] - 1). False if the line has fewer than n fields.
+     */
+    private boolean fieldBounds(String line, int n, int[] at){
+        at[0] = 0;
+        int idx = 1;
+        for (int i=0;i<line.length() && idx<n;i++){
+            if (line.charAt(i)==',') at[idx++] = i + 1;
         }
-        out[idx++]=safeSub(line,start,line.length());
-        if (idx!=n) return null;
-        return out;
+        if (idx != n) return false;
+        at[n] = line.length() + 1;
+        return true;
     }
 
-    private String safeSub(String s,int a,int b){
-        if (a<0) a=0; if (b<a) b=a; if (b>s.length()) b=s.length();
-        return s.substring(a,b);
+    private String field(String line, int[] at, int k){
+        return line.substring(at[k], at[k+1] - 1);
     }
 
     private String esc(String s){
@@ -0,0 +1,407 @@
+package atinka.storage;
+
+import atinka.dsa.IntVec;
+import atinka.dsa.LongVec;
+import atinka.dsa.StringDict;
+import atinka.dsa.Vec;
+import atinka.model.SaleTxn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * Binary columnar copy of sales.csv for report scans ("sales.csv.seg", next to the log).
+ * The CSV stays the log of record (appended by the tills, readable, auditable); this
+ * file is imported from it and kept current by importing only the new tail, the way
+ * the Bloom sidecar is. exportCsv writes it back out as CSV for audit.
+ *
+ * The file is an append-only run of segments (up to SEGMENT_ROWS rows each):
+ *   header  int MAGIC, int rows, int dictBytes, int colBytes, long csvEnd, long csvHeadCrc
+ *   dict    strings first seen in this segment, in id order: [int len][UTF-8]...
+ *   columns int code id[rows], int customer id[rows], int qty[rows],
+ *           long price cents[rows], long total cents[rows],
+ *           timestamps as zigzag varint deltas of epoch microseconds
+ *   footer  long min micros, long max micros, int CRC32(dict + columns), int END
+ * - code / customer ids index one StringDict, rebuilt from the segment dictionaries on open
+ * - scan(from, to) skips whole segments by their footer min/max and never parses text
+ * - csvEnd / csvHeadCrc say how much of which CSV is imported: a shrunk or rewritten log
+ *   is re-imported from scratch; a torn last segment (crash mid-write) fails its CRC
+ *   and is cut off
+ * Timestamps keep the log's microseconds (not just millis), so export round-trips.
+ * Money is stored as cents, which is all the CSV holds (2 decimals).
+ */
+public final class SaleSegments {
+    private static final int MAGIC = 0x41534547;   // "ASEG"
+    private static final int END = 0x47455341;
+    private static final int HEADER = 32, FOOTER = 24;
+    private static final int HEAD_BYTES = 4096;
+    static final int SEGMENT_ROWS = 1 << 16;
+    /** Re-import once this many segments average under SEGMENT_ROWS / 8 rows (many small tail imports). */
+    private static final int COMPACT_SEGMENTS = 64;
+
+    private final Path file;
+    private StringDict dict = new StringDict(1024);
+    private final Vec<Seg> segs = new Vec<>();
+    private long fileEnd;             // end of the last valid segment
+    private long rows;
+    private boolean opened;
+    private ByteBuffer cols = ByteBuffer.allocate(1 << 16);   // reused by scan
+
+    private static final class Seg {
+        long colsAt;                  // file offset of the columns
+        int rows, colBytes;
+        long min, max, csvEnd, csvHeadCrc;
+    }
+
+    public SaleSegments(Path file){ this.file = file; }
+
+    /** Code and customer-ID strings by the ids scan() hands out. */
+    public synchronized StringDict dictionary(){ open(); return dict; }
+
+    public synchronized long rows(){ open(); return rows; }
+    public synchronized int segmentCount(){ open(); return segs.size(); }
+
+    public interface RowVisitor {
+        void row(long epochMicros, int codeId, int qty, int customerId, long priceCents, long totalCents);
+    }
+
+    /**
+     * Visits every sale with from <= epochMicros <= to, in log order. Segments whose
+     * footer range misses [from, to] are not read. Exceptions thrown by v propagate.
+     * @throws UncheckedIOException if the file cannot be read (v may have seen some rows)
+     */
+    public synchronized void scan(long fromMicros, long toMicros, RowVisitor v){
+        open();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int s = 0; s < segs.size(); s++) {
+                Seg g = segs.get(s);
+                if (g.max < fromMicros || g.min > toMicros) continue;
+                ByteBuffer b = read(ch, g.colsAt, g.colBytes);
+                int n = g.rows;
+                int custAt = 4 * n, qtyAt = 8 * n, priceAt = 12 * n, totalAt = 20 * n;
+                int p = 28 * n;
+                byte[] a = b.array();
+                long ts = 0;
+                for (int r = 0; r < n; r++) {
+                    // zigzag varint delta
+                    long z = 0;
+                    int shift = 0;
+                    byte x;
+                    do { x = a[p++]; z |= (long) (x & 0x7F) << shift; shift += 7; } while (x < 0);
+                    ts += (z >>> 1) ^ -(z & 1);
+                    if (ts < fromMicros || ts > toMicros) continue;
+                    v.row(ts, b.getInt(4 * r), b.getInt(qtyAt + 4 * r), b.getInt(custAt + 4 * r),
+                            b.getLong(priceAt + 8 * r), b.getLong(totalAt + 8 * r));
+                }
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Could not read " + file.getFileName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes every sale back out in sales.csv format (header included); returns the row
+     * count, or -1 if anything failed (out is then left as it was).
+     */
+    public synchronized long exportCsv(Path out){
+        open();
+        long[] count = new long[1];
+        Path tmp = out.resolveSibling(out.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp)) {
+            StringBuilder sb = new StringBuilder(1 << 16);
+            sb.append("# timestamp,code,qty,customerId,price,total\n");
+            scan(Long.MIN_VALUE, Long.MAX_VALUE, (ts, code, qty, cust, price, total) -> {
+                sb.append(fromMicros(ts)).append(',').append(dict.get(code)).append(',')
+                        .append(qty).append(',').append(dict.get(cust)).append(',');
+                cents(sb, price).append(',');
+                cents(sb, total).append('\n');
+                count[0]++;
+                if (sb.length() >= 1 << 16) {
+                    try { flush(os, sb); } catch (IOException e){ throw new UncheckedIOException(e); }
+                    sb.setLength(0);
+                }
+            });
+            flush(os, sb);
+        } catch (Exception e){
+            deleteQuietly(tmp);                         // never rename a partial export into place
+            return -1;
+        }
+        try {
+            Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            try { Files.move(tmp, out, StandardCopyOption.REPLACE_EXISTING); }
+            catch (Exception ignored){ deleteQuietly(tmp); return -1; }
+        }
+        return count[0];
+    }
+
+    // ---------------- import from the CSV log ----------------
+
+    /**
+     * Imports lines of csv appended since the last call (everything, if the log was rewritten).
+     * @throws UncheckedIOException if the segments could not be written (nothing is served
+     *         from them until a later refresh succeeds)
+     */
+    synchronized void refresh(Path csv, MappedLogReader.LineParser<SaleTxn> parser){
+        open();
+        long size = sizeOf(csv);
+        Seg last = segs.size() == 0 ? null : segs.get(segs.size() - 1);
+        long covered = last == null ? 0 : last.csvEnd;
+        if (size < covered || (last != null && last.csvHeadCrc != headCrc(csv, Math.min(covered, HEAD_BYTES)))
+                || (segs.size() >= COMPACT_SEGMENTS && rows / segs.size() < SEGMENT_ROWS / 8)) {
+            reset();
+            covered = 0;
+        }
+        if (size == covered) return;
+
+        IOException[] failed = new IOException[1];
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            Batch b = new Batch(dict.size());
+            int[] at = new int[7];
+            LogLines.forEachComplete(csv, covered, (ln, end) -> {
+                SaleTxn t = parser.parse(ln, at, dict);
+                if (t == null) return true;
+                add(b, t);
+                b.csvEnd = end;
+                if (b.rows() == SEGMENT_ROWS) {
+                    try { write(ch, b, csv); }
+                    catch (IOException e){ failed[0] = e; return false; }
+                    b.clear(dict.size());
+                }
+                return true;
+            });
+            if (failed[0] == null && b.rows() > 0) write(ch, b, csv);
+        } catch (IOException e){
+            failed[0] = e;
+        } catch (RuntimeException e){
+            resetState();
+            opened = false;
+            throw e;
+        }
+        if (failed[0] != null) {
+            resetState();                               // dictionary may hold unwritten ids: reload the file
+            opened = false;
+            throw new UncheckedIOException("Could not update " + file.getFileName() + ": " + failed[0].getMessage(), failed[0]);
+        }
+    }
+
+    /** Rows of one segment being built; strings new since firstId go in its dictionary. */
+    private static final class Batch {
+        final IntVec code = new IntVec(1024), cust = new IntVec(1024), qty = new IntVec(1024);
+        final LongVec micros = new LongVec(1024), price = new LongVec(1024), total = new LongVec(1024);
+        int firstId;
+        long csvEnd;
+
+        Batch(int firstId){ this.firstId = firstId; }
+        int rows(){ return code.size(); }
+
+        void clear(int firstId){
+            code.clear(); cust.clear(); qty.clear();
+            micros.clear(); price.clear(); total.clear();
+            this.firstId = firstId;
+        }
+    }
+
+    /** t's code and customer were interned into dict by the parser. */
+    private void add(Batch b, SaleTxn t){
+        b.code.add(dict.idOf(t.getCode()));
+        b.cust.add(dict.idOf(t.getCustomerId()));
+        b.qty.add(t.getQty());
+        b.micros.add(toMicros(t.getTimestamp()));
+        b.price.add(Math.round(t.getPrice() * 100.0));
+        b.total.add(Math.round(t.getTotal() * 100.0));
+    }
+
+    private void write(FileChannel ch, Batch b, Path csv) throws IOException {
+        int n = b.rows();
+        // dictionary delta
+        int dictBytes = 0;
+        byte[][] strs = new byte[dict.size() - b.firstId][];
+        for (int i = 0; i < strs.length; i++) {
+            strs[i] = dict.get(b.firstId + i).getBytes(StandardCharsets.UTF_8);
+            dictBytes += 4 + strs[i].length;
+        }
+        // timestamps: zigzag varint deltas (<= 10 bytes each)
+        byte[] ts = new byte[n * 10];
+        int tsLen = 0;
+        long prev = 0, min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int r = 0; r < n; r++) {
+            long t = b.micros.get(r);
+            if (t < min) min = t;
+            if (t > max) max = t;
+            long d = t - prev;
+            prev = t;
+            long z = (d << 1) ^ (d >> 63);
+            while ((z & ~0x7FL) != 0) { ts[tsLen++] = (byte) ((z & 0x7F) | 0x80); z >>>= 7; }
+            ts[tsLen++] = (byte) z;
+        }
+        int colBytes = 28 * n + tsLen;
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER + dictBytes + colBytes + FOOTER);
+        long headCrc = headCrc(csv, Math.min(b.csvEnd, HEAD_BYTES));
+        out.putInt(MAGIC).putInt(n).putInt(dictBytes).putInt(colBytes).putLong(b.csvEnd).putLong(headCrc);
+        for (byte[] s : strs) out.putInt(s.length).put(s);
+        for (int r = 0; r < n; r++) out.putInt(b.code.get(r));
+        for (int r = 0; r < n; r++) out.putInt(b.cust.get(r));
+        for (int r = 0; r < n; r++) out.putInt(b.qty.get(r));
+        for (int r = 0; r < n; r++) out.putLong(b.price.get(r));
+        for (int r = 0; r < n; r++) out.putLong(b.total.get(r));
+        out.put(ts, 0, tsLen);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), HEADER, dictBytes + colBytes);
+        out.putLong(min).putLong(max).putInt((int) crc.getValue()).putInt(END);
+
+        out.flip();
+        long pos = fileEnd;
+        while (out.hasRemaining()) pos += ch.write(out, pos);
+
+        Seg g = new Seg();
+        g.colsAt = fileEnd + HEADER + dictBytes;
+        g.rows = n; g.colBytes = colBytes;
+        g.min = min; g.max = max;
+        g.csvEnd = b.csvEnd; g.csvHeadCrc = headCrc;
+        segs.add(g);
+        fileEnd = pos;
+        rows += n;
+    }
+
+    // ---------------- open / recover ----------------
+
+    /** Reads the segment index and dictionaries; cuts off anything after the last good segment. */
+    private void open(){
+        if (opened) return;
+        opened = true;
+        if (!Files.exists(file)) return;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size(), pos = 0;
+            while (pos + HEADER + FOOTER <= size) {
+                ByteBuffer h = read(ch, pos, HEADER);   // reads share one buffer: copy fields out first
+                int magic = h.getInt(0), n = h.getInt(4), dictBytes = h.getInt(8), colBytes = h.getInt(12);
+                long csvEnd = h.getLong(16), csvHeadCrc = h.getLong(24);
+                if (magic != MAGIC || n <= 0 || dictBytes < 0 || colBytes < 28 * n) break;
+                long next = pos + HEADER + (long) dictBytes + colBytes + FOOTER;
+                if (next > size) break;
+                ByteBuffer f = read(ch, next - FOOTER, FOOTER);
+                long min = f.getLong(0), max = f.getLong(8);
+                int crc = f.getInt(16);
+                if (f.getInt(20) != END) break;
+                // only the last segment can be torn: check its CRC
+                if (next + HEADER + FOOTER > size && !crcOk(ch, pos + HEADER, dictBytes + colBytes, crc)) break;
+                if (!readDict(read(ch, pos + HEADER, dictBytes), dictBytes)) {
+                    resetState();                      // ids no longer line up: re-import everything
+                    pos = 0;
+                    break;
+                }
+                Seg g = new Seg();
+                g.colsAt = pos + HEADER + dictBytes;
+                g.rows = n; g.colBytes = colBytes;
+                g.csvEnd = csvEnd; g.csvHeadCrc = csvHeadCrc;
+                g.min = min; g.max = max;
+                segs.add(g);
+                rows += n;
+                pos = next;
+            }
+            fileEnd = pos;
+            if (pos < size) ch.truncate(pos);
+        } catch (Exception e){ reset(); }
+    }
+
+    private boolean readDict(ByteBuffer b, int len){
+        int p = 0;
+        while (p < len) {
+            int sl = b.getInt(p);
+            if (sl < 0 || p + 4 + sl > len) return false;
+            int expect = dict.size();
+            if (dict.id(new String(b.array(), p + 4, sl, StandardCharsets.UTF_8)) != expect) return false;
+            p += 4 + sl;
+        }
+        return true;
+    }
+
+    private boolean crcOk(FileChannel ch, long at, int len, int want) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(read(ch, at, len).array(), 0, len);
+        return (int) crc.getValue() == want;
+    }
+
+    private void reset(){
+        resetState();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ch.truncate(0);
+        } catch (Exception ignored){}
+    }
+
+    private void resetState(){
+        dict = new StringDict(1024);
+        segs.clear();
+        fileEnd = 0;
+        rows = 0;
+    }
+
+    // ---------------- helpers ----------------
+
+    /** len bytes at pos into the reused buffer (grown as needed); absolute gets start at 0. */
+    private ByteBuffer read(FileChannel ch, long pos, int len) throws IOException {
+        if (cols.capacity() < len) cols = ByteBuffer.allocate(Math.max(len, cols.capacity() * 2));
+        ByteBuffer b = cols;
+        b.clear().limit(len);
+        while (b.hasRemaining()) {
+            int r = ch.read(b, pos + b.position());
+            if (r < 0) throw new IOException("short read");
+        }
+        return b;
+    }
+
+    /** Local date-time as microseconds since 1970-01-01T00:00 (saturates far outside that). */
+    public static long toMicros(LocalDateTime t){
+        long s = t.toEpochSecond(ZoneOffset.UTC);
+        if (s >= Long.MAX_VALUE / 1_000_000L) return Long.MAX_VALUE;
+        if (s <= Long.MIN_VALUE / 1_000_000L) return Long.MIN_VALUE;
+        return s * 1_000_000L + t.getNano() / 1000;
+    }
+
+    public static LocalDateTime fromMicros(long us){
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(us, 1_000_000L), (int) Math.floorMod(us, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static StringBuilder cents(StringBuilder sb, long c){
+        if (c < 0) { sb.append('-'); c = -c; }
+        sb.append(c / 100).append('.');
+        if (c % 100 < 10) sb.append('0');
+        return sb.append(c % 100);
+    }
+
+    private static void flush(OutputStream os, StringBuilder sb) throws IOException {
+        os.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long headCrc(Path p, long n){
+        if (n <= 0) return 0;
+        try (InputStream in = Files.newInputStream(p)) {
+            byte[] b = in.readNBytes((int) n);
+            CRC32 crc = new CRC32();
+            crc.update(b, 0, b.length);
+            return crc.getValue();
+        } catch (Exception e){ return -1; }
+    }
+
+    private static void deleteQuietly(Path p){
+        try { Files.deleteIfExists(p); } catch (Exception ignored){}
+    }
+
+    private static long sizeOf(Path p){
+        try { return Files.exists(p) ? Files.size(p) : 0; } catch (Exception e){ return 0; }
+    }
+}
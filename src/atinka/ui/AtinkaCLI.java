@@ -2,7 +2,6 @@ package atinka.ui;
 
 import atinka.dsa.Vec;
 import atinka.model.Customer;
-import atinka.model.Drug;
 import atinka.model.Supplier;
 import atinka.service.CustomerService;
 import atinka.service.DrugService;
@@ -64,6 +63,8 @@ public final class AtinkaCLI {
         this.reportUI = new ReportUI();
         ReportUI.DRUGS = drugs;
         ReportUI.SALES = saleLog;
+        ReportUI.SUPPLIERS = suppliers;
+        ReportUI.CUSTOMERS = customers;
     }
 
     public void run(){
@@ -96,7 +97,8 @@ public final class AtinkaCLI {
     }
 
     // -------- Persistence hooks --------
-    private void saveDrugs(){ Vec<Drug> all = drugs.all(); drugStore.saveAll(all); }
+    /** Appends the journalled changes; drugs.csv is only rewritten when a checkpoint is due. */
+    private void saveDrugs(){ if (drugStore.journal().commit()) drugStore.saveAll(drugs.all()); }
     private void saveSuppliers(){ Vec<Supplier> all = suppliers.all(); supplierStore.saveAll(all); }
     private void saveCustomers(){ Vec<Customer> all = customers.all(); customerStore.saveAll(all); }
 }
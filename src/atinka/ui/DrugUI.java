@@ -5,8 +5,10 @@ import atinka.model.Drug;
 import atinka.model.PurchaseTxn;
 import atinka.service.DrugService;
 import atinka.service.InventoryService;
+import atinka.storage.GroupCommitLog;
 import atinka.storage.PurchaseLogCsv;
 import atinka.util.ConsoleIO;
+import atinka.util.SafeParse;
 import atinka.util.Tui;
 
 import java.time.LocalDate;
@@ -32,28 +34,34 @@ public final class DrugUI {
             ConsoleIO.clearScreen();
             ConsoleIO.printHeader("Drugs");
             ConsoleIO.printBadges(
-                    "MergeSort (list by name/price)",
-                    "Linear scan (search/alerts/remove)",
+                    "TimSort (list by name)",
+                    "RadixSort (list by price)",
+                    "TrigramIndex (name search)",
+                    "Linear scan (alerts/remove)",
                     "HashMapOpen (lookup/index)",
-                    "MinHeap (top-N low stock)",
+                    "IndexedMinHeap (top-N low stock)",
+                    "TopK (latest purchases)",
+                    "SkipList (price/expiry ranges)",
                     "CSV append (purchases)"
             );
 
             // Menu (now includes Add new = #3)
-            ConsoleIO.println(" 1) List all (by name)           — MergeSort");
-            ConsoleIO.println(" 2) List all (by price)          — MergeSort");
+            ConsoleIO.println(" 1) List all (by name)           — TimSort");
+            ConsoleIO.println(" 2) List all (by price)          — RadixSort");
             ConsoleIO.println(" 3) Add new                      — O(1) insert + HashMapOpen");
-            ConsoleIO.println(" 4) Search name contains         — Linear scan");
+            ConsoleIO.println(" 4) Search name contains         — Trigram index");
             ConsoleIO.println(" 5) Edit / update                — HashMapOpen index");
             ConsoleIO.println(" 6) Link / unlink supplier       — HashMapOpen");
             ConsoleIO.println(" 7) Restock (record purchase)    — O(1) stock adjust; append CSV");
-            ConsoleIO.println(" 8) Latest 5 purchases (by time) — MergeSort (time desc)");
+            ConsoleIO.println(" 8) Latest 5 purchases (by time) — TopK (time desc)");
             ConsoleIO.println(" 9) Remove by code               — Linear scan + HashMapOpen");
             ConsoleIO.println("10) Low-stock alerts (<= thr)    — Linear scan");
-            ConsoleIO.println("11) Top N lowest stock           — MinHeap");
+            ConsoleIO.println("11) Top N lowest stock           — IndexedMinHeap");
+            ConsoleIO.println("12) Price range                  — SkipList index");
+            ConsoleIO.println("13) Expiring before date         — SkipList index");
             ConsoleIO.println("\n 0) Back");
 
-            int choice = ConsoleIO.readIntInRange("Choose: ", 0, 11);
+            int choice = ConsoleIO.readIntInRange("Choose: ", 0, 13);
             if (choice == 0) return;
             try {
                 switch (choice){
@@ -68,6 +76,8 @@ public final class DrugUI {
                     case 9:  remove();              break;
                     case 10: showAlerts();          break;
                     case 11: showTopN();            break;
+                    case 12: priceRange();          break;
+                    case 13: expiringBefore();      break;
                 }
             } catch (Exception e){
                 Tui.toastError("Error: " + e.getMessage());
@@ -110,7 +120,7 @@ public final class DrugUI {
     private void listAllByName(){
         ConsoleIO.clearScreen();
         ConsoleIO.printHeader("Drugs — All (by name)");
-        ConsoleIO.printBadges("MergeSort");
+        ConsoleIO.printBadges("TimSort");
         Vec<Drug> v = drugs.sortedByName();
         renderTableHeader(true);
         for (int i=0;i<v.size();i++) renderRow(v.get(i));
@@ -120,7 +130,7 @@ public final class DrugUI {
     private void listAllByPrice(){
         ConsoleIO.clearScreen();
         ConsoleIO.printHeader("Drugs — All (by price)");
-        ConsoleIO.printBadges("MergeSort");
+        ConsoleIO.printBadges("TimSort (name) + RadixSort (price)");
         Vec<Drug> v = drugs.sortedByPrice();
         renderTableHeader(true);
         for (int i=0;i<v.size();i++) renderRow(v.get(i));
@@ -130,7 +140,7 @@ public final class DrugUI {
     private void searchNameContains(){
         ConsoleIO.clearScreen();
         ConsoleIO.printHeader("Search — name contains");
-        ConsoleIO.printBadges("Linear scan");
+        ConsoleIO.printBadges("Trigram index", "short terms: linear scan");
         String term = ConsoleIO.readLineOrCancel("Term");
         if (term == null) return;
         Vec<Drug> v = drugs.searchNameContains(term);
@@ -235,7 +245,13 @@ public final class DrugUI {
         if (Double.isNaN(unit)) return;
 
         PurchaseTxn t = inv.recordPurchase(code, qty, buyer, unit);
-        purchaseLog.append(t);
+        try {
+            purchaseLog.append(t);
+        } catch (RuntimeException e){
+            if (GroupCommitLog.inDoubt(e)) saver.saveDrugs(); // may be logged: keep the stock change
+            else inv.revertPurchase(t); // not logged: keep stock and log in step
+            throw e;
+        }
         saver.saveDrugs();
 
         Tui.toastSuccess("Restocked " + qty + " units. Total cost: " + TextPad.toFixed2(t.getTotal()));
@@ -245,7 +261,7 @@ public final class DrugUI {
     private void latestPurchases(){
         ConsoleIO.clearScreen();
         ConsoleIO.printHeader("Latest Purchases");
-        ConsoleIO.printBadges("MergeSort (time desc)");
+        ConsoleIO.printBadges("BloomFilter", "TopK (time desc)");
         String code = ConsoleIO.readLineOrCancel("Drug code");
         if (code == null) return;
         Vec<PurchaseTxn> v = inv.latestPurchases(code, 5);
@@ -273,11 +289,15 @@ public final class DrugUI {
     private void remove(){
         ConsoleIO.clearScreen();
         ConsoleIO.printHeader("Remove Drug");
-        ConsoleIO.printBadges("Linear scan + HashMapOpen");
+        ConsoleIO.printBadges("Linear scan + HashMapOpen", "BloomFilter (log history)");
         String code = ConsoleIO.readLineOrCancel("Code");
         if (code == null) return;
         boolean ok = drugs.removeByCode(code);
-        if (ok){ saver.saveDrugs(); Tui.toastSuccess("Removed."); }
+        if (ok){
+            saver.saveDrugs();
+            Tui.toastSuccess("Removed.");
+            if (inv.hasHistory(code)) Tui.toastInfo("Its sales/purchase history stays in the logs.");
+        }
         else Tui.toastWarn("Not found.");
         pause();
     }
@@ -305,7 +325,7 @@ public final class DrugUI {
     private void showTopN(){
         ConsoleIO.clearScreen();
         ConsoleIO.printHeader("Top N Lowest Stock");
-        ConsoleIO.printBadges("MinHeap");
+        ConsoleIO.printBadges("IndexedMinHeap");
         int n = ConsoleIO.readIntInRange("N (1..1000): ", 1, 1000);
         Vec<Drug> v = inv.lowStockTopN(n);
         if (v.size()==0){ Tui.toastInfo("No data."); pause(); return; }
@@ -321,6 +341,38 @@ public final class DrugUI {
         pause();
     }
 
+    private void priceRange(){
+        ConsoleIO.clearScreen();
+        ConsoleIO.printHeader("Drugs — Price range");
+        ConsoleIO.printBadges("SkipList index", "O(log n + m)");
+        String minStr = ConsoleIO.readLine("Min price (empty=0, c=Cancel): ");
+        if (minStr == null || minStr.trim().equalsIgnoreCase("c")) return;
+        double min = SafeParse.isBlank(minStr) ? 0 : SafeParse.toDouble(minStr, -1);
+        if (min < 0){ Tui.toastWarn("Invalid price."); pause(); return; }
+        double max = ConsoleIO.readPositiveDoubleOrCancel("Max price");
+        if (Double.isNaN(max)) return;
+        Vec<Drug> v = drugs.pricedBetween(min, max);
+        if (v.size()==0){ Tui.toastInfo("No drugs in that range."); pause(); return; }
+        renderTableHeader(true);
+        for (int i=0;i<v.size();i++) renderRow(v.get(i));
+        pause();
+    }
+
+    private void expiringBefore(){
+        ConsoleIO.clearScreen();
+        ConsoleIO.printHeader("Drugs — Expiring before date");
+        ConsoleIO.printBadges("SkipList index", "O(log n + m)");
+        String s = ConsoleIO.readLine("Date [YYYY-MM-DD] (0=Cancel): ");
+        if (isCancel(s)) return;
+        LocalDate date = parseDateOrNull(s);
+        if (date == null){ Tui.toastWarn("Invalid date."); pause(); return; }
+        Vec<Drug> v = drugs.expiringBefore(date);
+        if (v.size()==0){ Tui.toastInfo("Nothing expires before " + date + "."); pause(); return; }
+        renderTableHeader(true);
+        for (int i=0;i<v.size();i++) renderRow(v.get(i));
+        pause();
+    }
+
     // -------- helpers --------
 
     private boolean isCancel(String s){
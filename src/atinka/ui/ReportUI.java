@@ -14,21 +14,24 @@ public final class ReportUI {
     // Injected from AtinkaCLI constructor (static holders)
     public static atinka.service.DrugService DRUGS;
     public static atinka.storage.SaleLogCsv SALES;
+    public static atinka.service.SupplierService SUPPLIERS;
+    public static atinka.service.CustomerService CUSTOMERS;
 
     public void show(){
         while (true){
             String[] algos = new String[]{ "MergeSort", "BinarySearch", "Vec", "HashMapOpen", "Linear scan" };
             String[] body = new String[]{
-                    " 1) Generate Performance Report   — InsertionSort vs MergeSort; BinarySearch vs HashMapOpen",
-                    " 2) Generate Sales Report         — Linear scan aggregate; per-drug HashMapOpen; MergeSort rows",
+                    " 1) Generate Performance Report   — InsertionSort vs MergeSort vs TimSort vs RadixSort; BinarySearch vs HashMapOpen",
+                    " 2) Generate Sales Report         — Columnar segment scan; per-drug dictionary ids; MergeSort rows; RadixSort days",
                     " 3) View last Performance Report",
                     " 4) View last Sales Report",
+                    " 5) Export sales archive to CSV   — SaleSegments → reports/sales_export.csv (audit copy)",
                     "",
                     " 0) Back"
             };
             SimpleScreen.render("Reports", algos, body);
 
-            int c = ConsoleIO.readIntInRange("Choose: ", 0, 4);
+            int c = ConsoleIO.readIntInRange("Choose: ", 0, 5);
             if (c == 0) return;
 
             try {
@@ -37,6 +40,7 @@ public final class ReportUI {
                     case 2: genSales(); break;
                     case 3: viewPerf(); break;
                     case 4: viewSales(); break;
+                    case 5: exportSales(); break;
                 }
             } catch (Exception e){
                 Tui.toastError("Error: " + e.getMessage());
@@ -47,15 +51,15 @@ public final class ReportUI {
 
     private void genPerf(){
         SimpleScreen.render("Generate Performance Report",
-                new String[]{"InsertionSort","MergeSort","BinarySearch","HashMapOpen"}, new String[0]);
-        java.nio.file.Path p = PerformanceReport.generate(DRUGS);
+                new String[]{"InsertionSort","MergeSort","TimSort","RadixSort","BinarySearch","HashMapOpen"}, new String[0]);
+        java.nio.file.Path p = PerformanceReport.generate(DRUGS, SUPPLIERS, CUSTOMERS);
         Tui.toastSuccess("Generated: " + p.toString());
         pause();
     }
 
     private void genSales(){
         SimpleScreen.render("Generate Sales Report (period)",
-                new String[]{"Linear scan","HashMapOpen","MergeSort"}, new String[0]);
+                new String[]{"SaleSegments","StringDict","MergeSort","RadixSort"}, new String[0]);
         String fromD = ConsoleIO.readLine("From DATE [YYYY-MM-DD] (0=Cancel): ");
         if (isCancel(fromD)) return;
         String toD = ConsoleIO.readLine("To DATE [YYYY-MM-DD] (0=Cancel): ");
@@ -85,6 +89,15 @@ public final class ReportUI {
         pause();
     }
 
+    private void exportSales(){
+        SimpleScreen.render("Export sales archive", new String[]{"SaleSegments"}, new String[0]);
+        java.nio.file.Path out = atinka.storage.PathsFS.reportPath("sales_export.csv");
+        long rows = SALES.segments().exportCsv(out);
+        if (rows < 0) Tui.toastError("Export failed.");
+        else Tui.toastSuccess("Exported " + rows + " sales: " + out);
+        pause();
+    }
+
     private boolean isCancel(String s){
         if (s == null) return true;
         s = s.trim();
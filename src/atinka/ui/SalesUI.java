@@ -1,6 +1,7 @@
 package atinka.ui;
 
 import atinka.service.InventoryService;
+import atinka.storage.GroupCommitLog;
 import atinka.storage.SaleLogCsv;
 import atinka.util.ConsoleIO;
 import atinka.util.SimpleScreen;
@@ -56,7 +57,13 @@ public final class SalesUI {
         String cust = ConsoleIO.readLineOrCancel("Customer ID"); if (cust == null) return;
 
         SaleTxn t = inv.recordSale(code, qty, cust);
-        saleLog.append(t);
+        try {
+            saleLog.append(t);
+        } catch (RuntimeException e){
+            if (GroupCommitLog.inDoubt(e)) saver.saveDrugs(); // may be logged: keep the stock change
+            else inv.revertSale(t); // not logged: keep stock and log in step
+            throw e;
+        }
         saver.saveDrugs();
 
         Tui.toastSuccess("Sale recorded. Total: " + TextPad.toFixed2(t.getTotal()));